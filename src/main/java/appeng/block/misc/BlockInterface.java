@@ -21,6 +21,7 @@ package appeng.block.misc;
 
 import javax.annotation.Nullable;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.properties.IProperty;
 import net.minecraft.block.properties.PropertyBool;
@@ -92,6 +93,17 @@ public class BlockInterface extends AEBaseTileBlock
 		return false;
 	}
 
+	@SuppressWarnings( "deprecation" )
+	@Override
+	public void neighborChanged( IBlockState state, World world, BlockPos pos, Block blockIn, BlockPos fromPos )
+	{
+		final TileInterface tg = this.getTileEntity( world, pos );
+		if( tg != null )
+		{
+			tg.onNeighborChange();
+		}
+	}
+
 	@Override
 	protected boolean hasCustomRotation()
 	{
@@ -28,6 +28,7 @@ import java.util.List;
 
 import com.google.common.base.Joiner;
 
+import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.lwjgl.input.Mouse;
 
 import net.minecraft.client.gui.GuiButton;
@@ -210,11 +211,24 @@ public class GuiCraftConfirm extends AEBaseGui
 		final long BytesUsed = this.ccc.getUsedBytes();
 		final String byteUsed = NumberFormat.getInstance().format( BytesUsed );
 		final String Add = BytesUsed > 0 ? ( byteUsed + ' ' + GuiText.BytesUsed.getLocal() ) : GuiText.CalculatingWait.getLocal();
-		this.fontRenderer.drawString( GuiText.CraftingPlan.getLocal() + " - " + Add, 8, 7, 4210752 );
+		final String calculationTime = DurationFormatUtils.formatDuration( this.ccc.getCalculationTime(), GuiText.ETAFormat.getLocal() );
+
+		String title = GuiText.CraftingPlan.getLocal() + " - " + Add;
+		if( BytesUsed > 0 && this.fontRenderer.getStringWidth( title + " - " + calculationTime ) <= 219 - 8 )
+		{
+			title += " - " + calculationTime;
+		}
+		this.fontRenderer.drawString( title, 8, 7, 4210752 );
 
 		String dsp = null;
 
-		if( this.isSimulation() )
+		if( BytesUsed <= 0 && this.ccc.getProgressSteps() > 0 )
+		{
+			// partial plan while the calculation is still running.
+			dsp = GuiText.Bytes.getLocal() + ": " + NumberFormat.getInstance().format( this.ccc.getProgressBytes() ) + " : " + GuiText.CalculationSteps
+					.getLocal() + ": " + NumberFormat.getInstance().format( this.ccc.getProgressSteps() ) + " : " + calculationTime;
+		}
+		else if( this.isSimulation() )
 		{
 			dsp = GuiText.Simulation.getLocal();
 		}
@@ -21,9 +21,10 @@ package appeng.client.gui.implementations;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Joiner;
@@ -53,6 +54,7 @@ import appeng.core.sync.network.NetworkHandler;
 import appeng.core.sync.packets.PacketValueConfig;
 import appeng.util.Platform;
 import appeng.util.ReadableNumberConverter;
+import appeng.util.item.ItemKeyDictionary;
 
 
 public class GuiCraftingCPU extends AEBaseGui implements ISortSource
@@ -89,6 +91,8 @@ public class GuiCraftingCPU extends AEBaseGui implements ISortSource
 	private IItemList<IAEItemStack> pending = AEApi.instance().storage().createItemList();
 
 	private List<IAEItemStack> visual = new ArrayList<>();
+	private Map<IAEItemStack, IAEItemStack> visualIndex = new HashMap<>();
+	private final ItemKeyDictionary keyDictionary = new ItemKeyDictionary();
 	private GuiButton cancel;
 	private int tooltip = -1;
 
@@ -114,6 +118,8 @@ public class GuiCraftingCPU extends AEBaseGui implements ISortSource
 		this.active = AEApi.instance().storage().createItemList();
 		this.pending = AEApi.instance().storage().createItemList();
 		this.visual = new ArrayList<>();
+		this.visualIndex = new HashMap<>();
+		this.keyDictionary.clear();
 	}
 
 	@Override
@@ -349,34 +355,21 @@ public class GuiCraftingCPU extends AEBaseGui implements ISortSource
 		this.drawTexturedModalRect( offsetX, offsetY, 0, 0, this.xSize, this.ySize );
 	}
 
-	public void postUpdate( final List<IAEItemStack> list, final byte ref )
+	/**
+	 * Applies changed amounts in place, each entry of counts holds the stored, active and pending amount of the item
+	 * at the same index.
+	 */
+	public void postStatusUpdate( final List<IAEItemStack> items, final List<long[]> counts )
 	{
-		switch( ref )
+		for( int x = 0; x < items.size(); x++ )
 		{
-			case 0:
-				for( final IAEItemStack l : list )
-				{
-					this.handleInput( this.storage, l );
-				}
-				break;
+			final IAEItemStack l = items.get( x );
+			final long[] amounts = counts.get( x );
 
-			case 1:
-				for( final IAEItemStack l : list )
-				{
-					this.handleInput( this.active, l );
-				}
-				break;
+			this.setAmount( this.storage, l, amounts[0] );
+			this.setAmount( this.active, l, amounts[1] );
+			this.setAmount( this.pending, l, amounts[2] );
 
-			case 2:
-				for( final IAEItemStack l : list )
-				{
-					this.handleInput( this.pending, l );
-				}
-				break;
-		}
-
-		for( final IAEItemStack l : list )
-		{
 			final long amt = this.getTotal( l );
 
 			if( amt <= 0 )
@@ -393,11 +386,16 @@ public class GuiCraftingCPU extends AEBaseGui implements ISortSource
 		this.setScrollBar();
 	}
 
-	private void handleInput( final IItemList<IAEItemStack> s, final IAEItemStack l )
+	public ItemKeyDictionary getKeyDictionary()
+	{
+		return this.keyDictionary;
+	}
+
+	private void setAmount( final IItemList<IAEItemStack> s, final IAEItemStack l, final long amount )
 	{
 		IAEItemStack a = s.findPrecise( l );
 
-		if( l.getStackSize() <= 0 )
+		if( amount <= 0 )
 		{
 			if( a != null )
 			{
@@ -414,7 +412,7 @@ public class GuiCraftingCPU extends AEBaseGui implements ISortSource
 
 			if( a != null )
 			{
-				a.setStackSize( l.getStackSize() );
+				a.setStackSize( amount );
 			}
 		}
 	}
@@ -447,31 +445,26 @@ public class GuiCraftingCPU extends AEBaseGui implements ISortSource
 
 	private void deleteVisualStack( final IAEItemStack l )
 	{
-		final Iterator<IAEItemStack> i = this.visual.iterator();
+		final IAEItemStack o = this.visualIndex.remove( l );
 
-		while( i.hasNext() )
+		if( o != null )
 		{
-			final IAEItemStack o = i.next();
-			if( o.equals( l ) )
-			{
-				i.remove();
-				return;
-			}
+			this.visual.remove( o );
 		}
 	}
 
 	private IAEItemStack findVisualStack( final IAEItemStack l )
 	{
-		for( final IAEItemStack o : this.visual )
+		final IAEItemStack o = this.visualIndex.get( l );
+
+		if( o != null )
 		{
-			if( o.equals( l ) )
-			{
-				return o;
-			}
+			return o;
 		}
 
 		final IAEItemStack stack = l.copy();
 		this.visual.add( stack );
+		this.visualIndex.put( stack, stack );
 
 		return stack;
 	}
@@ -219,7 +219,20 @@ public class GuiInterfaceTerminal extends AEBaseGui
 		for( final Object oKey : in.getKeySet() )
 		{
 			final String key = (String) oKey;
-			if( key.startsWith( "=" ) )
+			if( key.startsWith( "-" ) )
+			{
+				try
+				{
+					if( this.byId.remove( Long.parseLong( key.substring( 1 ), Character.MAX_RADIX ) ) != null )
+					{
+						this.refreshList = true;
+					}
+				}
+				catch( final NumberFormatException ignored )
+				{
+				}
+			}
+			else if( key.startsWith( "=" ) )
 			{
 				try
 				{
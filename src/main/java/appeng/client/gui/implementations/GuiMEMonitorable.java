@@ -486,6 +486,10 @@ public class GuiMEMonitorable extends AEBaseMEGui implements ISortSource, IConfi
 	public void updateScreen()
 	{
 		this.repo.setPower( this.monitorableContainer.isPowered() );
+		if( this.repo.pollView() )
+		{
+			this.setScrollBar();
+		}
 		super.updateScreen();
 	}
 
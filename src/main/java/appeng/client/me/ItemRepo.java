@@ -19,17 +19,33 @@
 package appeng.client.me;
 
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import net.minecraft.item.ItemStack;
 
 import appeng.api.AEApi;
 import appeng.api.config.SearchBoxMode;
 import appeng.api.config.Settings;
+import appeng.api.config.SortDir;
 import appeng.api.config.SortOrder;
 import appeng.api.config.ViewItems;
 import appeng.api.config.YesNo;
@@ -38,18 +54,49 @@ import appeng.api.storage.data.IItemList;
 import appeng.client.gui.widgets.IScrollSource;
 import appeng.client.gui.widgets.ISortSource;
 import appeng.core.AEConfig;
+import appeng.core.AELog;
 import appeng.integration.Integrations;
 import appeng.items.storage.ItemViewCell;
 import appeng.util.ItemSorters;
-import appeng.util.Platform;
 import appeng.util.prioritylist.IPartitionList;
 
 
 public class ItemRepo
 {
 
+	/**
+	 * Views with at least this many candidate items are filtered and sorted on the worker thread.
+	 */
+	private static final int ASYNC_ITEMS = 4096;
+
+	/**
+	 * Time spent building missing tooltips per client tick before a tooltip search, so the first one does not stall.
+	 */
+	private static final long TOOLTIP_NANOS_PER_TICK = 5_000_000;
+
+	private static final ExecutorService VIEW_WORKER;
+
+	static
+	{
+		final ThreadFactory factory = new ThreadFactory()
+		{
+
+			@Override
+			public Thread newThread( final Runnable ar )
+			{
+				final Thread thread = new Thread( ar, "AE Terminal View" );
+				thread.setDaemon( true );
+				return thread;
+			}
+		};
+
+		VIEW_WORKER = Executors.newSingleThreadExecutor( factory );
+	}
+
 	private final IItemList<IAEItemStack> list = AEApi.instance().storage().createItemList();
-	private final ArrayList<IAEItemStack> view = new ArrayList<>();
+	private final ItemSearchIndex index = new ItemSearchIndex();
+	private Map<IAEItemStack, ViewEntry> viewed = new HashMap<>();
+	private OrderStatisticTree<ViewEntry> view = new OrderStatisticTree<>( getOrder( SortOrder.NAME, SortDir.ASCENDING ) );
 	private final IScrollSource src;
 	private final ISortSource sortSrc;
 
@@ -60,6 +107,16 @@ public class ItemRepo
 	private String innerSearch = "";
 	private boolean hasPower;
 
+	// settings of the shown view, deltas are applied to it in place.
+	private ViewSettings viewSettings;
+	// settings of the newest requested view, shown once its job completes.
+	private ViewSettings requested;
+	private Future<ViewJob> pending;
+	// tooltips to build on the client thread before the requested view can be filtered.
+	private final Deque<ItemSearchIndex.Entry> tooltipBacklog = new ArrayDeque<>();
+	private final Set<IAEItemStack> pendingDeltas = new HashSet<>();
+	private long nextSerial;
+
 	public ItemRepo( final IScrollSource src, final ISortSource sortSrc )
 	{
 		this.src = src;
@@ -70,11 +127,11 @@ public class ItemRepo
 	{
 		idx += this.src.getCurrentScroll() * this.rowSize;
 
-		if( idx >= this.view.size() )
+		if( idx < 0 || idx >= this.view.size() )
 		{
 			return null;
 		}
-		return this.view.get( idx );
+		return this.view.get( idx ).display;
 	}
 
 	void setSearch( final String search )
@@ -84,7 +141,7 @@ public class ItemRepo
 
 	public void postUpdate( final IAEItemStack is )
 	{
-		final IAEItemStack st = this.list.findPrecise( is );
+		IAEItemStack st = this.list.findPrecise( is );
 
 		if( st != null )
 		{
@@ -94,6 +151,19 @@ public class ItemRepo
 		else
 		{
 			this.list.add( is );
+			st = this.list.findPrecise( is );
+			this.index.add( st );
+		}
+
+		if( this.viewSettings != null )
+		{
+			this.refresh( st );
+		}
+
+		if( this.pending != null )
+		{
+			// the job's snapshot may predate this change.
+			this.pendingDeltas.add( st );
 		}
 	}
 
@@ -103,12 +173,12 @@ public class ItemRepo
 		this.updateView();
 	}
 
+	/**
+	 * Rebuilds the view if its settings changed, large views are built on a worker thread while the previous view
+	 * stays visible until {@link #pollView()} swaps in the result.
+	 */
 	public void updateView()
 	{
-		this.view.clear();
-
-		this.view.ensureCapacity( this.list.size() );
-
 		final Enum viewMode = this.sortSrc.getSortDisplay();
 		final Enum searchMode = AEConfig.instance().getConfigManager().getSetting( Settings.SEARCH_MODE );
 		if( searchMode == SearchBoxMode.JEI_AUTOSEARCH || searchMode == SearchBoxMode.JEI_MANUAL_SEARCH )
@@ -127,100 +197,259 @@ public class ItemRepo
 			this.innerSearch = this.innerSearch.substring( 1 );
 		}
 
-		Pattern m = null;
-		try
+		final ViewSettings settings = new ViewSettings( this.innerSearch.toLowerCase(), searchMod, terminalSearchToolTips, viewMode, this.sortSrc.getSortBy(),
+				this.sortSrc.getSortDir(), this.myPartitionList );
+
+		if( settings.isSame( this.requested ) )
 		{
-			m = Pattern.compile( this.innerSearch.toLowerCase(), Pattern.CASE_INSENSITIVE );
+			return;
 		}
-		catch( final Throwable ignore )
+
+		this.requested = settings;
+		this.cancelPending();
+
+		if( settings.tooltips && !settings.mod )
 		{
-			try
+			for( final ItemSearchIndex.Entry entry : this.index.candidates( settings.query, settings.mod, settings.tooltips ) )
 			{
-				m = Pattern.compile( Pattern.quote( this.innerSearch.toLowerCase() ), Pattern.CASE_INSENSITIVE );
+				if( !entry.hasTooltip() )
+				{
+					this.tooltipBacklog.add( entry );
+				}
 			}
-			catch( final Throwable __ )
+
+			// the previous view stays until the tooltips are built over the next ticks.
+			if( !this.buildTooltips() )
 			{
 				return;
 			}
 		}
 
-		boolean notDone = false;
-		for( IAEItemStack is : this.list )
+		this.startView( settings );
+	}
+
+	/**
+	 * @return true if the view was built right away
+	 */
+	private boolean startView( final ViewSettings settings )
+	{
+		final ViewJob job = this.createJob( settings );
+
+		// the inventory tweaks order calls into other mods and reads the global sort direction, it stays on this thread.
+		if( job.candidates.size() < ASYNC_ITEMS || settings.sortBy == SortOrder.INVTWEAKS )
 		{
-			if( this.myPartitionList != null )
-			{
-				if( !this.myPartitionList.isListed( is ) )
-				{
-					continue;
-				}
-			}
+			this.swap( job.call() );
+			return true;
+		}
 
-			if( viewMode == ViewItems.CRAFTABLE && !is.isCraftable() )
-			{
-				continue;
-			}
+		this.pending = VIEW_WORKER.submit( job );
+		return false;
+	}
+
+	/**
+	 * Builds tooltips from the backlog for at most one tick's budget.
+	 *
+	 * @return true if the backlog is empty
+	 */
+	private boolean buildTooltips()
+	{
+		final long deadline = System.nanoTime() + TOOLTIP_NANOS_PER_TICK;
+		while( !this.tooltipBacklog.isEmpty() && System.nanoTime() < deadline )
+		{
+			this.tooltipBacklog.poll().prepareTooltip();
+		}
+
+		return this.tooltipBacklog.isEmpty();
+	}
 
-			if( viewMode == ViewItems.CRAFTABLE )
+	/**
+	 * Shows the view built by the worker thread, if it is done.
+	 *
+	 * @return true if the view changed
+	 */
+	public boolean pollView()
+	{
+		if( !this.tooltipBacklog.isEmpty() )
+		{
+			return this.buildTooltips() && this.startView( this.requested );
+		}
+
+		if( this.pending == null || !this.pending.isDone() )
+		{
+			return false;
+		}
+
+		final Future<ViewJob> done = this.pending;
+		this.pending = null;
+
+		try
+		{
+			final ViewJob job = done.get();
+			if( job != null )
 			{
-				is = is.copy();
-				is.setStackSize( 0 );
+				this.swap( job );
+				return true;
 			}
+		}
+		catch( final InterruptedException | ExecutionException | CancellationException e )
+		{
+			AELog.debug( e );
+		}
+
+		// build it again on the next update.
+		this.requested = null;
+		this.pendingDeltas.clear();
+		return false;
+	}
+
+	private void cancelPending()
+	{
+		if( this.pending != null )
+		{
+			this.pending.cancel( true );
+			this.pending = null;
+		}
+
+		this.tooltipBacklog.clear();
+		this.pendingDeltas.clear();
+	}
 
-			if( viewMode == ViewItems.STORED && is.getStackSize() == 0 )
+	private ViewJob createJob( final ViewSettings settings )
+	{
+		final List<ItemSearchIndex.Entry> candidates = this.index.candidates( settings.query, settings.mod, settings.tooltips );
+
+		// counts change in place on this thread, the job filters copies.
+		final IAEItemStack[] counts = new IAEItemStack[candidates.size()];
+		for( int i = 0; i < counts.length; i++ )
+		{
+			counts[i] = candidates.get( i ).getStack().copy();
+
+			// tooltips call into other mods and forge events, so they are only ever built here. Most are built by
+			// now, only items added since the backlog was collected are left.
+			if( settings.tooltips && !settings.mod )
 			{
-				continue;
+				candidates.get( i ).prepareTooltip();
 			}
+		}
 
-			final String dspName = searchMod ? Platform.getModId( is ) : Platform.getItemDisplayName( is );
-			notDone = true;
+		final ViewJob job = new ViewJob( settings, this.index.getPattern( settings.query ), candidates, counts, getOrder( settings.sortBy, settings.sortDir ),
+				this.nextSerial, this.index.getAdditions() );
+		this.nextSerial += counts.length;
+		return job;
+	}
+
+	private void swap( final ViewJob job )
+	{
+		this.viewSettings = job.settings;
+		this.viewed = job.viewed;
+		this.view = job.view;
 
-			if( m.matcher( dspName.toLowerCase() ).find() )
+		if( job.additions == this.index.getAdditions() )
+		{
+			this.index.remember( job.settings.query, job.settings.mod, job.settings.tooltips, job.matches );
+		}
+
+		for( final IAEItemStack st : this.pendingDeltas )
+		{
+			this.refresh( st );
+		}
+		this.pendingDeltas.clear();
+	}
+
+	/**
+	 * Moves an item whose counts changed to its new position in the view, or out of it.
+	 */
+	private void refresh( final IAEItemStack st )
+	{
+		final ViewEntry old = this.viewed.remove( st );
+		if( old != null )
+		{
+			this.view.remove( old );
+		}
+
+		final ViewSettings settings = this.viewSettings;
+		if( this.index.matches( st, settings.query, settings.mod, settings.tooltips ) )
+		{
+			final IAEItemStack display = toDisplay( st, settings );
+			if( display != null )
 			{
-				this.view.add( is );
-				notDone = false;
+				final ViewEntry entry = new ViewEntry( display, this.index.getEntry( st ), this.nextSerial++ );
+				this.viewed.put( st, entry );
+				this.view.insert( entry );
 			}
+		}
+	}
 
-			if( terminalSearchToolTips && notDone && !searchMod )
+	/**
+	 * @return the stack to show for the item, or null if the view cells or view mode hide it
+	 */
+	@Nullable
+	private static IAEItemStack toDisplay( final IAEItemStack is, final ViewSettings settings )
+	{
+		if( !is.isMeaningful() )
+		{
+			return null;
+		}
+
+		if( settings.partitionList != null )
+		{
+			if( !settings.partitionList.isListed( is ) )
 			{
-				for( final Object lp : Platform.getTooltip( is ) )
-				{
-					if( lp instanceof String && m.matcher( (CharSequence) lp ).find() )
-					{
-						this.view.add( is );
-						notDone = false;
-						break;
-					}
-				}
+				return null;
 			}
+		}
 
-			/*
-			 * if ( terminalSearchMods && notDone ) { if ( m.matcher( Platform.getMod( is.getItemStack() ) ).find() ) {
-			 * view.add( is ); notDone = false; } }
-			 */
+		if( settings.viewMode == ViewItems.CRAFTABLE && !is.isCraftable() )
+		{
+			return null;
 		}
 
-		final Enum SortBy = this.sortSrc.getSortBy();
-		final Enum SortDir = this.sortSrc.getSortDir();
+		IAEItemStack display = is;
+		if( settings.viewMode == ViewItems.CRAFTABLE )
+		{
+			display = is.copy();
+			display.setStackSize( 0 );
+		}
 
-		ItemSorters.setDirection( (appeng.api.config.SortDir) SortDir );
+		if( settings.viewMode == ViewItems.STORED && display.getStackSize() == 0 )
+		{
+			return null;
+		}
+
+		return display;
+	}
+
+	private static Comparator<ViewEntry> getOrder( final Enum sortBy, final Enum sortDir )
+	{
+		ItemSorters.setDirection( (SortDir) sortDir );
 		ItemSorters.init();
 
-		if( SortBy == SortOrder.MOD )
+		final boolean ascending = sortDir != SortDir.DESCENDING;
+		final Comparator<ViewEntry> order;
+
+		if( sortBy == SortOrder.MOD )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_MOD );
+			// like ItemSorters, ascending lists mods and names in reverse.
+			final Comparator<ViewEntry> byMod = Comparator.<ViewEntry, String>comparing( e -> e.mod ).thenComparing( e -> e.name );
+			order = ascending ? byMod.reversed() : byMod;
 		}
-		else if( SortBy == SortOrder.AMOUNT )
+		else if( sortBy == SortOrder.AMOUNT )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_SIZE );
+			final Comparator<ViewEntry> byAmount = Comparator.comparingLong( e -> e.amount );
+			order = ascending ? byAmount.reversed() : byAmount;
 		}
-		else if( SortBy == SortOrder.INVTWEAKS )
+		else if( sortBy == SortOrder.INVTWEAKS )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_INV_TWEAKS );
+			order = ( a, b ) -> ItemSorters.CONFIG_BASED_SORT_BY_INV_TWEAKS.compare( a.display, b.display );
 		}
 		else
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_NAME );
+			final Comparator<ViewEntry> byName = Comparator.comparing( e -> e.name );
+			order = ascending ? byName : byName.reversed();
 		}
+
+		// equal keys still need distinct positions in the tree.
+		return order.thenComparingLong( e -> e.serial );
 	}
 
 	private void updateJEI( String filter )
@@ -236,6 +465,9 @@ public class ItemRepo
 	public void clear()
 	{
 		this.list.resetStatus();
+		this.cancelPending();
+		this.viewSettings = null;
+		this.requested = null;
 	}
 
 	public boolean hasPower()
@@ -267,4 +499,130 @@ public class ItemRepo
 	{
 		this.searchString = searchString;
 	}
+
+	/**
+	 * Everything a view depends on besides the items.
+	 */
+	private static final class ViewSettings
+	{
+		private final String query;
+		private final boolean mod;
+		private final boolean tooltips;
+		private final Enum viewMode;
+		private final Enum sortBy;
+		private final Enum sortDir;
+		private final IPartitionList<IAEItemStack> partitionList;
+
+		private ViewSettings( final String query, final boolean mod, final boolean tooltips, final Enum viewMode, final Enum sortBy, final Enum sortDir,
+				final IPartitionList<IAEItemStack> partitionList )
+		{
+			this.query = query;
+			this.mod = mod;
+			this.tooltips = tooltips;
+			this.viewMode = viewMode;
+			this.sortBy = sortBy;
+			this.sortDir = sortDir;
+			this.partitionList = partitionList;
+		}
+
+		private boolean isSame( final ViewSettings o )
+		{
+			return o != null && this.query.equals( o.query ) && this.mod == o.mod && this.tooltips == o.tooltips && this.viewMode == o.viewMode
+					&& this.sortBy == o.sortBy && this.sortDir == o.sortDir && this.partitionList == o.partitionList;
+		}
+	}
+
+	/**
+	 * Filters and sorts a snapshot of the candidates, on the worker thread for large views.
+	 */
+	private static final class ViewJob implements Callable<ViewJob>
+	{
+		private final ViewSettings settings;
+		private final Pattern pattern;
+		private final List<ItemSearchIndex.Entry> candidates;
+		private final IAEItemStack[] counts;
+		private final Comparator<ViewEntry> order;
+		private final long serialBase;
+		private final int additions;
+
+		private final List<ItemSearchIndex.Entry> matches = new ArrayList<>();
+		private final Map<IAEItemStack, ViewEntry> viewed = new HashMap<>();
+		private OrderStatisticTree<ViewEntry> view;
+
+		private ViewJob( final ViewSettings settings, final Pattern pattern, final List<ItemSearchIndex.Entry> candidates, final IAEItemStack[] counts,
+				final Comparator<ViewEntry> order, final long serialBase, final int additions )
+		{
+			this.settings = settings;
+			this.pattern = pattern;
+			this.candidates = candidates;
+			this.counts = counts;
+			this.order = order;
+			this.serialBase = serialBase;
+			this.additions = additions;
+		}
+
+		/**
+		 * @return this job, or null if a newer view cancelled it
+		 */
+		@Override
+		public ViewJob call()
+		{
+			final List<ViewEntry> shown = new ArrayList<>();
+
+			for( int i = 0; i < this.counts.length; i++ )
+			{
+				if( ( i & 1023 ) == 0 && Thread.currentThread().isInterrupted() )
+				{
+					return null;
+				}
+
+				final ItemSearchIndex.Entry entry = this.candidates.get( i );
+				if( !entry.matches( this.settings.query, this.pattern, this.settings.mod, this.settings.tooltips ) )
+				{
+					continue;
+				}
+
+				this.matches.add( entry );
+
+				final IAEItemStack display = toDisplay( this.counts[i], this.settings );
+				if( display != null )
+				{
+					final ViewEntry ve = new ViewEntry( display, entry, this.serialBase + i );
+					this.viewed.put( entry.getStack(), ve );
+					shown.add( ve );
+				}
+			}
+
+			shown.sort( this.order );
+
+			this.view = new OrderStatisticTree<>( this.order );
+			for( final ViewEntry ve : shown )
+			{
+				this.view.insert( ve );
+			}
+
+			return this;
+		}
+	}
+
+	/**
+	 * An item in the view with the sort keys it was inserted with, the repo's stack changes in place.
+	 */
+	private static final class ViewEntry
+	{
+		private final IAEItemStack display;
+		private final String name;
+		private final String mod;
+		private final long amount;
+		private final long serial;
+
+		private ViewEntry( final IAEItemStack display, final ItemSearchIndex.Entry entry, final long serial )
+		{
+			this.display = display;
+			this.name = entry.getName();
+			this.mod = entry.getMod();
+			this.amount = display.getStackSize();
+			this.serial = serial;
+		}
+	}
 }
@@ -0,0 +1,331 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.client.me;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.annotation.Nullable;
+
+import appeng.api.storage.data.IAEItemStack;
+import appeng.util.Platform;
+
+
+/**
+ * Search index over the items of an {@link ItemRepo}.
+ *
+ * Lowercase names and mod ids are computed once per item, tooltips once they are first searched. Plain text queries
+ * of three or more characters only test the items containing the rarest trigram of the query, and a query extending
+ * the previous one only tests the previous matches. Regular expressions scan the cached strings.
+ *
+ * Only used from the client thread, except for {@link Entry#matches} on entries whose tooltip was prepared.
+ */
+class ItemSearchIndex
+{
+
+	private static final int GRAM = 3;
+	private static final String REGEX_CHARS = "\\^$.|?*+()[]{}";
+
+	private final Map<IAEItemStack, Entry> entries = new HashMap<>();
+	private final Map<Long, List<Entry>> grams = new HashMap<>();
+
+	// previous plain text search, refined while the query grows.
+	private String lastQuery;
+	private boolean lastMod;
+	private boolean lastTooltips;
+	private List<Entry> lastMatches;
+	private int additions;
+	// compiled form of the last regular expression, for testing single items.
+	private String patternQuery;
+	private Pattern pattern;
+
+	/**
+	 * @param is the repo's own instance, its counts are read when searching
+	 */
+	void add( final IAEItemStack is )
+	{
+		if( !this.entries.containsKey( is ) )
+		{
+			this.add( is, Platform.getItemDisplayName( is ), Platform.getModId( is ) );
+		}
+	}
+
+	/**
+	 * Indexes an item under the given display name and mod id.
+	 */
+	void add( final IAEItemStack is, final String name, final String mod )
+	{
+		if( this.entries.containsKey( is ) )
+		{
+			return;
+		}
+
+		final Entry entry = new Entry( is, name, mod );
+		this.entries.put( is, entry );
+
+		final Set<Long> seen = new HashSet<>();
+		for( int i = 0; i + GRAM <= entry.name.length(); i++ )
+		{
+			final long gram = gram( entry.name, i );
+			if( seen.add( gram ) )
+			{
+				this.grams.computeIfAbsent( gram, g -> new ArrayList<>() ).add( entry );
+			}
+		}
+
+		// the new item was never tested against the previous query.
+		this.lastQuery = null;
+		this.lastMatches = null;
+		this.additions++;
+	}
+
+	/**
+	 * @return the number of items added so far, to tell whether matches computed elsewhere are complete
+	 */
+	int getAdditions()
+	{
+		return this.additions;
+	}
+
+	/**
+	 * Narrows the items which can match a query, using the trigrams and the previous matches. The caller tests the
+	 * returned entries with {@link Entry#matches}, possibly on another thread.
+	 *
+	 * @param q lowercase query without the mod prefix
+	 * @param mod search mod ids instead of names
+	 * @param tooltips also search tooltips
+	 *
+	 * @return a new list of candidates, including items currently not stored
+	 */
+	List<Entry> candidates( final String q, final boolean mod, final boolean tooltips )
+	{
+		if( !q.isEmpty() && !this.isRegex( q ) )
+		{
+			if( this.lastQuery != null && this.lastMod == mod && this.lastTooltips == tooltips && q.contains( this.lastQuery ) )
+			{
+				return new ArrayList<>( this.lastMatches );
+			}
+
+			if( !mod && !tooltips && q.length() >= GRAM )
+			{
+				return new ArrayList<>( this.rarestGram( q ) );
+			}
+		}
+
+		return new ArrayList<>( this.entries.values() );
+	}
+
+	/**
+	 * Records the matches of a plain query, so a longer query only tests them.
+	 */
+	void remember( final String q, final boolean mod, final boolean tooltips, final List<Entry> matches )
+	{
+		if( q.isEmpty() || this.isRegex( q ) )
+		{
+			return;
+		}
+
+		this.lastQuery = q;
+		this.lastMod = mod;
+		this.lastTooltips = tooltips;
+		this.lastMatches = matches;
+	}
+
+	/**
+	 * @return the compiled query, or null for plain text queries
+	 */
+	@Nullable
+	Pattern getPattern( final String q )
+	{
+		return this.isRegex( q ) ? compile( q ) : null;
+	}
+
+	@Nullable
+	Entry getEntry( final IAEItemStack is )
+	{
+		return this.entries.get( is );
+	}
+
+	/**
+	 * Tests a single indexed item, e.g. after its counts changed.
+	 */
+	boolean matches( final IAEItemStack is, final String query, final boolean mod, final boolean tooltips )
+	{
+		final Entry entry = this.entries.get( is );
+		if( entry == null )
+		{
+			return false;
+		}
+
+		final String q = query.toLowerCase();
+		if( q.isEmpty() )
+		{
+			return true;
+		}
+
+		if( !this.isRegex( q ) )
+		{
+			return entry.matches( q, null, mod, tooltips );
+		}
+
+		if( !q.equals( this.patternQuery ) )
+		{
+			this.patternQuery = q;
+			this.pattern = compile( q );
+		}
+
+		return entry.matches( q, this.pattern, mod, tooltips );
+	}
+
+	private Collection<Entry> rarestGram( final String q )
+	{
+		List<Entry> rarest = null;
+		for( int i = 0; i + GRAM <= q.length(); i++ )
+		{
+			final List<Entry> posting = this.grams.get( gram( q, i ) );
+			if( posting == null )
+			{
+				return new ArrayList<>();
+			}
+
+			if( rarest == null || posting.size() < rarest.size() )
+			{
+				rarest = posting;
+			}
+		}
+		return rarest;
+	}
+
+	private boolean isRegex( final String q )
+	{
+		for( int i = 0; i < q.length(); i++ )
+		{
+			if( REGEX_CHARS.indexOf( q.charAt( i ) ) >= 0 )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Pattern compile( final String q )
+	{
+		try
+		{
+			return Pattern.compile( q, Pattern.CASE_INSENSITIVE );
+		}
+		catch( final PatternSyntaxException e )
+		{
+			return Pattern.compile( Pattern.quote( q ), Pattern.CASE_INSENSITIVE );
+		}
+	}
+
+	private static long gram( final String s, final int offset )
+	{
+		return ( (long) s.charAt( offset ) << 32 ) | ( (long) s.charAt( offset + 1 ) << 16 ) | s.charAt( offset + 2 );
+	}
+
+	/**
+	 * Cached search strings of one item. Tooltips may be computed by the thread filtering the view.
+	 */
+	static final class Entry
+	{
+		private final IAEItemStack stack;
+		private final String name;
+		private final String mod;
+		private volatile String tooltip;
+
+		private Entry( final IAEItemStack stack, final String name, final String mod )
+		{
+			this.stack = stack;
+			this.name = name.toLowerCase();
+			this.mod = mod.toLowerCase();
+		}
+
+		IAEItemStack getStack()
+		{
+			return this.stack;
+		}
+
+		String getName()
+		{
+			return this.name;
+		}
+
+		String getMod()
+		{
+			return this.mod;
+		}
+
+		boolean matches( final String q, @Nullable final Pattern pattern, final boolean mod, final boolean tooltips )
+		{
+			if( mod )
+			{
+				return pattern == null ? this.mod.contains( q ) : pattern.matcher( this.mod ).find();
+			}
+
+			if( pattern == null ? this.name.contains( q ) : pattern.matcher( this.name ).find() )
+			{
+				return true;
+			}
+
+			return tooltips && ( pattern == null ? this.getTooltip().contains( q ) : pattern.matcher( this.getTooltip() ).find() );
+		}
+
+		boolean hasTooltip()
+		{
+			return this.tooltip != null;
+		}
+
+		/**
+		 * Builds the tooltip text if it is not cached yet. Must run on the client thread, so {@link #matches} never
+		 * builds it on the view worker.
+		 */
+		void prepareTooltip()
+		{
+			this.getTooltip();
+		}
+
+		private String getTooltip()
+		{
+			String tooltip = this.tooltip;
+			if( tooltip == null )
+			{
+				final StringBuilder sb = new StringBuilder();
+				for( final Object line : Platform.getTooltip( this.stack ) )
+				{
+					if( line instanceof String )
+					{
+						sb.append( ( (String) line ).toLowerCase() ).append( '\n' );
+					}
+				}
+				this.tooltip = tooltip = sb.toString();
+			}
+			return tooltip;
+		}
+	}
+}
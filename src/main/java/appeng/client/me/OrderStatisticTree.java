@@ -0,0 +1,209 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.client.me;
+
+
+import java.util.Comparator;
+import java.util.Random;
+
+
+/**
+ * A treap which also knows the size of every subtree, so elements can be found by position.
+ *
+ * Insertion, removal and positional lookup are O(log n) expected. The comparator must be a total order over the
+ * elements and their keys must not change while they are in the tree.
+ */
+class OrderStatisticTree<T>
+{
+
+	private final Random random = new Random();
+	private final Comparator<? super T> order;
+	private Node<T> root;
+
+	OrderStatisticTree( final Comparator<? super T> order )
+	{
+		this.order = order;
+	}
+
+	int size()
+	{
+		return size( this.root );
+	}
+
+	void clear()
+	{
+		this.root = null;
+	}
+
+	T get( int index )
+	{
+		Node<T> n = this.root;
+		while( n != null )
+		{
+			final int left = size( n.left );
+			if( index < left )
+			{
+				n = n.left;
+			}
+			else if( index == left )
+			{
+				return n.value;
+			}
+			else
+			{
+				index -= left + 1;
+				n = n.right;
+			}
+		}
+
+		throw new IndexOutOfBoundsException();
+	}
+
+	void insert( final T value )
+	{
+		this.root = this.insert( this.root, new Node<>( value, this.random.nextInt() ) );
+	}
+
+	void remove( final T value )
+	{
+		this.root = this.remove( this.root, value );
+	}
+
+	private Node<T> insert( final Node<T> n, final Node<T> added )
+	{
+		if( n == null )
+		{
+			return added;
+		}
+
+		if( this.order.compare( added.value, n.value ) < 0 )
+		{
+			n.left = this.insert( n.left, added );
+			if( n.left.priority > n.priority )
+			{
+				return rotateRight( n );
+			}
+		}
+		else
+		{
+			n.right = this.insert( n.right, added );
+			if( n.right.priority > n.priority )
+			{
+				return rotateLeft( n );
+			}
+		}
+
+		n.update();
+		return n;
+	}
+
+	private Node<T> remove( final Node<T> n, final T value )
+	{
+		if( n == null )
+		{
+			return null;
+		}
+
+		final int cmp = this.order.compare( value, n.value );
+		if( cmp < 0 )
+		{
+			n.left = this.remove( n.left, value );
+		}
+		else if( cmp > 0 )
+		{
+			n.right = this.remove( n.right, value );
+		}
+		else
+		{
+			return merge( n.left, n.right );
+		}
+
+		n.update();
+		return n;
+	}
+
+	private static <T> Node<T> merge( final Node<T> left, final Node<T> right )
+	{
+		if( left == null )
+		{
+			return right;
+		}
+
+		if( right == null )
+		{
+			return left;
+		}
+
+		if( left.priority > right.priority )
+		{
+			left.right = merge( left.right, right );
+			left.update();
+			return left;
+		}
+
+		right.left = merge( left, right.left );
+		right.update();
+		return right;
+	}
+
+	private static <T> Node<T> rotateRight( final Node<T> n )
+	{
+		final Node<T> l = n.left;
+		n.left = l.right;
+		l.right = n;
+		n.update();
+		l.update();
+		return l;
+	}
+
+	private static <T> Node<T> rotateLeft( final Node<T> n )
+	{
+		final Node<T> r = n.right;
+		n.right = r.left;
+		r.left = n;
+		n.update();
+		r.update();
+		return r;
+	}
+
+	private static int size( final Node<?> n )
+	{
+		return n == null ? 0 : n.size;
+	}
+
+	private static final class Node<T>
+	{
+		private final T value;
+		private final int priority;
+		private Node<T> left;
+		private Node<T> right;
+		private int size = 1;
+
+		private Node( final T value, final int priority )
+		{
+			this.value = value;
+			this.priority = priority;
+		}
+
+		private void update()
+		{
+			this.size = 1 + size( this.left ) + size( this.right );
+		}
+	}
+}
@@ -22,7 +22,6 @@ package appeng.container;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -59,8 +58,8 @@ import appeng.api.storage.IMEInventoryHandler;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.client.me.InternalSlotME;
 import appeng.client.me.SlotME;
-import appeng.container.guisync.GuiSync;
 import appeng.container.guisync.SyncData;
+import appeng.container.guisync.SyncField;
 import appeng.container.slot.AppEngSlot;
 import appeng.container.slot.SlotCraftingMatrix;
 import appeng.container.slot.SlotCraftingTerm;
@@ -140,20 +139,9 @@ public abstract class AEBaseContainer extends Container
 
 	private void prepareSync()
 	{
-		for( final Field f : this.getClass().getFields() )
+		for( final SyncField f : SyncField.getFields( this.getClass() ) )
 		{
-			if( f.isAnnotationPresent( GuiSync.class ) )
-			{
-				final GuiSync annotation = f.getAnnotation( GuiSync.class );
-				if( this.syncData.containsKey( annotation.value() ) )
-				{
-					AELog.warn( "Channel already in use: " + annotation.value() + " for " + f.getName() );
-				}
-				else
-				{
-					this.syncData.put( annotation.value(), new SyncData( this, f, annotation ) );
-				}
-			}
+			this.syncData.put( f.getChannel(), new SyncData( this, f ) );
 		}
 	}
 
@@ -20,8 +20,6 @@ package appeng.container.guisync;
 
 
 import java.io.IOException;
-import java.lang.reflect.Field;
-import java.util.EnumSet;
 
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.inventory.IContainerListener;
@@ -37,42 +35,53 @@ public class SyncData
 {
 
 	private final AEBaseContainer source;
-	private final Field field;
-	private final int channel;
-	private Object clientVersion;
+	private final SyncField field;
+	private boolean sent;
+	private long clientValue;
+	private String clientString;
 
-	public SyncData( final AEBaseContainer container, final Field field, final GuiSync annotation )
+	public SyncData( final AEBaseContainer container, final SyncField field )
 	{
-		this.clientVersion = null;
 		this.source = container;
 		this.field = field;
-		this.channel = annotation.value();
+		this.sent = false;
 	}
 
 	public int getChannel()
 	{
-		return this.channel;
+		return this.field.getChannel();
 	}
 
 	public void tick( final IContainerListener c )
 	{
 		try
 		{
-			final Object val = this.field.get( this.source );
-			if( val != null && this.clientVersion == null )
+			if( this.field.getType() == SyncField.Type.STRING )
 			{
-				this.send( c, val );
+				final String val = (String) this.field.getObject( this.source );
+				if( val != null && !val.equals( this.clientString ) )
+				{
+					this.sendString( c, val );
+				}
 			}
-			else if( !val.equals( this.clientVersion ) )
+			else if( this.field.isPrimitive() )
 			{
-				this.send( c, val );
+				final long val = this.field.getLong( this.source );
+				if( !this.sent || val != this.clientValue )
+				{
+					this.send( c, val );
+				}
+			}
+			else
+			{
+				final Object val = this.field.getObject( this.source );
+				if( val != null && ( !this.sent || this.field.toLong( val ) != this.clientValue ) )
+				{
+					this.send( c, this.field.toLong( val ) );
+				}
 			}
 		}
-		catch( final IllegalArgumentException e )
-		{
-			AELog.debug( e );
-		}
-		catch( final IllegalAccessException e )
+		catch( final IllegalStateException e )
 		{
 			AELog.debug( e );
 		}
@@ -82,129 +91,55 @@ public class SyncData
 		}
 	}
 
-	private void send( final IContainerListener o, final Object val ) throws IOException
+	private void sendString( final IContainerListener o, final String val ) throws IOException
 	{
-		if( val instanceof String )
-		{
-			if( o instanceof EntityPlayerMP )
-			{
-				NetworkHandler.instance().sendTo( new PacketValueConfig( "SyncDat." + this.channel, (String) val ), (EntityPlayerMP) o );
-			}
-		}
-		else if( this.field.getType().isEnum() )
-		{
-			o.sendWindowProperty( this.source, this.channel, ( (Enum) val ).ordinal() );
-		}
-		else if( val instanceof Long || val.getClass() == long.class )
-		{
-			if( o instanceof EntityPlayerMP )
-			{
-				NetworkHandler.instance().sendTo( new PacketProgressBar( this.channel, (Long) val ), (EntityPlayerMP) o );
-			}
-		}
-		else if( val instanceof Boolean || val.getClass() == boolean.class )
+		if( o instanceof EntityPlayerMP )
 		{
-			o.sendWindowProperty( this.source, this.channel, ( (Boolean) val ) ? 1 : 0 );
-		}
-		else
-		{
-			o.sendWindowProperty( this.source, this.channel, (Integer) val );
+			NetworkHandler.instance().sendTo( new PacketValueConfig( "SyncDat." + this.getChannel(), val ), (EntityPlayerMP) o );
 		}
 
-		this.clientVersion = val;
+		this.clientString = val;
 	}
 
-	public void update( final Object val )
+	private void send( final IContainerListener o, final long val ) throws IOException
 	{
-		try
+		if( this.field.getType() == SyncField.Type.LONG )
 		{
-			final Object oldValue = this.field.get( this.source );
-			if( val instanceof String )
-			{
-				this.updateString( oldValue, (String) val );
-			}
-			else
+			if( o instanceof EntityPlayerMP )
 			{
-				this.updateValue( oldValue, (Long) val );
+				NetworkHandler.instance().sendTo( new PacketProgressBar( this.getChannel(), val ), (EntityPlayerMP) o );
 			}
 		}
-		catch( final IllegalArgumentException e )
-		{
-			AELog.debug( e );
-		}
-		catch( final IllegalAccessException e )
+		else
 		{
-			AELog.debug( e );
+			o.sendWindowProperty( this.source, this.getChannel(), (int) val );
 		}
+
+		this.clientValue = val;
+		this.sent = true;
 	}
 
-	private void updateString( final Object oldValue, final String val )
+	public void update( final String val )
 	{
 		try
 		{
-			this.field.set( this.source, val );
-		}
-		catch( final IllegalArgumentException e )
-		{
-			AELog.debug( e );
+			this.field.setString( this.source, val );
 		}
-		catch( final IllegalAccessException e )
+		catch( final IllegalStateException e )
 		{
 			AELog.debug( e );
 		}
 	}
 
-	private void updateValue( final Object oldValue, final long val )
+	public void update( final long val )
 	{
 		try
 		{
-			if( this.field.getType().isEnum() )
-			{
-				final EnumSet<? extends Enum> valList = EnumSet.allOf( (Class<? extends Enum>) this.field.getType() );
-				for( final Enum e : valList )
-				{
-					if( e.ordinal() == val )
-					{
-						this.field.set( this.source, e );
-						break;
-					}
-				}
-			}
-			else
-			{
-				if( this.field.getType().equals( int.class ) )
-				{
-					this.field.set( this.source, (int) val );
-				}
-				else if( this.field.getType().equals( long.class ) )
-				{
-					this.field.set( this.source, val );
-				}
-				else if( this.field.getType().equals( boolean.class ) )
-				{
-					this.field.set( this.source, val == 1 );
-				}
-				else if( this.field.getType().equals( Integer.class ) )
-				{
-					this.field.set( this.source, (int) val );
-				}
-				else if( this.field.getType().equals( Long.class ) )
-				{
-					this.field.set( this.source, val );
-				}
-				else if( this.field.getType().equals( Boolean.class ) )
-				{
-					this.field.set( this.source, val == 1 );
-				}
-			}
-
-			this.source.onUpdate( this.field.getName(), oldValue, this.field.get( this.source ) );
-		}
-		catch( final IllegalArgumentException e )
-		{
-			AELog.debug( e );
+			final Object oldValue = this.field.getObject( this.source );
+			this.field.setLong( this.source, val );
+			this.source.onUpdate( this.field.getName(), oldValue, this.field.getObject( this.source ) );
 		}
-		catch( final IllegalAccessException e )
+		catch( final IllegalStateException e )
 		{
 			AELog.debug( e );
 		}
@@ -0,0 +1,307 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.container.guisync;
+
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableList;
+
+import appeng.container.AEBaseContainer;
+import appeng.core.AELog;
+
+
+/**
+ * A {@link GuiSync} field of a container class, with accessors bound once and shared by every container of that
+ * class.
+ *
+ * Primitive fields are read and written through type specialized handles, so the per tick comparison does not box.
+ */
+public final class SyncField
+{
+
+	private static final Map<Class<?>, ImmutableList<SyncField>> FIELDS = new ConcurrentHashMap<>();
+
+	private final String name;
+	private final int channel;
+	private final Type type;
+	private final boolean primitive;
+	private final Object[] constants;
+
+	// typed as (AEBaseContainer)long or (AEBaseContainer)boolean for primitives, (AEBaseContainer)Object otherwise.
+	private final MethodHandle getter;
+	private final MethodHandle objectGetter;
+	private final MethodHandle setter;
+
+	private SyncField( final Field field, final int channel, final Type type ) throws IllegalAccessException
+	{
+		this.name = field.getName();
+		this.channel = channel;
+		this.type = type;
+		this.primitive = field.getType().isPrimitive();
+		this.constants = type == Type.ENUM ? field.getType().getEnumConstants() : null;
+
+		field.setAccessible( true );
+
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+		final MethodHandle get = lookup.unreflectGetter( field );
+		final MethodHandle set = lookup.unreflectSetter( field );
+
+		this.objectGetter = get.asType( MethodType.methodType( Object.class, AEBaseContainer.class ) );
+
+		if( !this.primitive )
+		{
+			this.getter = this.objectGetter;
+			this.setter = set.asType( MethodType.methodType( void.class, AEBaseContainer.class, Object.class ) );
+		}
+		else if( type == Type.BOOLEAN )
+		{
+			this.getter = get.asType( MethodType.methodType( boolean.class, AEBaseContainer.class ) );
+			this.setter = set.asType( MethodType.methodType( void.class, AEBaseContainer.class, boolean.class ) );
+		}
+		else
+		{
+			// int widens to long on read.
+			this.getter = get.asType( MethodType.methodType( long.class, AEBaseContainer.class ) );
+			this.setter = set.asType( MethodType.methodType( void.class, AEBaseContainer.class, field.getType() ) );
+		}
+	}
+
+	/**
+	 * @return the synchronized fields of the class, discovered on first use
+	 */
+	public static ImmutableList<SyncField> getFields( final Class<? extends AEBaseContainer> clazz )
+	{
+		return FIELDS.computeIfAbsent( clazz, SyncField::discover );
+	}
+
+	private static ImmutableList<SyncField> discover( final Class<?> clazz )
+	{
+		final Map<Integer, SyncField> channels = new HashMap<>();
+
+		for( final Field f : clazz.getFields() )
+		{
+			if( f.isAnnotationPresent( GuiSync.class ) )
+			{
+				final GuiSync annotation = f.getAnnotation( GuiSync.class );
+				final Type type = Type.of( f.getType() );
+
+				if( channels.containsKey( annotation.value() ) )
+				{
+					AELog.warn( "Channel already in use: " + annotation.value() + " for " + f.getName() );
+				}
+				else if( type == null || Modifier.isFinal( f.getModifiers() ) )
+				{
+					AELog.warn( "Cannot synchronize " + f.getType().getName() + " field " + f.getName() + " of " + clazz.getName() );
+				}
+				else
+				{
+					try
+					{
+						channels.put( annotation.value(), new SyncField( f, annotation.value(), type ) );
+					}
+					catch( final IllegalAccessException e )
+					{
+						AELog.debug( e );
+					}
+				}
+			}
+		}
+
+		return ImmutableList.copyOf( channels.values() );
+	}
+
+	public String getName()
+	{
+		return this.name;
+	}
+
+	public int getChannel()
+	{
+		return this.channel;
+	}
+
+	Type getType()
+	{
+		return this.type;
+	}
+
+	boolean isPrimitive()
+	{
+		return this.primitive;
+	}
+
+	/**
+	 * Reads a primitive field without boxing, booleans as 0 or 1.
+	 */
+	long getLong( final AEBaseContainer container )
+	{
+		try
+		{
+			if( this.type == Type.BOOLEAN )
+			{
+				return (boolean) this.getter.invokeExact( container ) ? 1 : 0;
+			}
+
+			return (long) this.getter.invokeExact( container );
+		}
+		catch( final Throwable t )
+		{
+			throw new IllegalStateException( t );
+		}
+	}
+
+	Object getObject( final AEBaseContainer container )
+	{
+		try
+		{
+			return (Object) this.objectGetter.invokeExact( container );
+		}
+		catch( final Throwable t )
+		{
+			throw new IllegalStateException( t );
+		}
+	}
+
+	/**
+	 * @return the wire value of a non null, non string field value
+	 */
+	long toLong( final Object value )
+	{
+		switch( this.type )
+		{
+			case ENUM:
+				return ( (Enum<?>) value ).ordinal();
+			case BOOLEAN:
+				return ( (Boolean) value ) ? 1 : 0;
+			default:
+				return ( (Number) value ).longValue();
+		}
+	}
+
+	void setLong( final AEBaseContainer container, final long value )
+	{
+		try
+		{
+			switch( this.type )
+			{
+				case ENUM:
+					if( value >= 0 && value < this.constants.length )
+					{
+						this.setter.invokeExact( container, this.constants[(int) value] );
+					}
+					break;
+
+				case INT:
+					if( this.primitive )
+					{
+						this.setter.invokeExact( container, (int) value );
+					}
+					else
+					{
+						this.setter.invokeExact( container, (Object) (int) value );
+					}
+					break;
+
+				case LONG:
+					if( this.primitive )
+					{
+						this.setter.invokeExact( container, value );
+					}
+					else
+					{
+						this.setter.invokeExact( container, (Object) value );
+					}
+					break;
+
+				case BOOLEAN:
+					if( this.primitive )
+					{
+						this.setter.invokeExact( container, value == 1 );
+					}
+					else
+					{
+						this.setter.invokeExact( container, (Object) ( value == 1 ) );
+					}
+					break;
+
+				default:
+					break;
+			}
+		}
+		catch( final Throwable t )
+		{
+			throw new IllegalStateException( t );
+		}
+	}
+
+	void setString( final AEBaseContainer container, final String value )
+	{
+		try
+		{
+			this.setter.invokeExact( container, (Object) value );
+		}
+		catch( final Throwable t )
+		{
+			throw new IllegalStateException( t );
+		}
+	}
+
+	enum Type
+	{
+		INT, LONG, BOOLEAN, ENUM, STRING;
+
+		static Type of( final Class<?> c )
+		{
+			if( c == int.class || c == Integer.class )
+			{
+				return INT;
+			}
+
+			if( c == long.class || c == Long.class )
+			{
+				return LONG;
+			}
+
+			if( c == boolean.class || c == Boolean.class )
+			{
+				return BOOLEAN;
+			}
+
+			if( c.isEnum() )
+			{
+				return ENUM;
+			}
+
+			if( c == String.class )
+			{
+				return STRING;
+			}
+
+			return null;
+		}
+	}
+}
@@ -20,6 +20,7 @@ package appeng.container.implementations;
 
 
 import java.io.IOException;
+import java.nio.BufferOverflowException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.concurrent.Future;
@@ -57,6 +58,8 @@ import appeng.core.AELog;
 import appeng.core.sync.GuiBridge;
 import appeng.core.sync.network.NetworkHandler;
 import appeng.core.sync.packets.PacketMEInventoryUpdate;
+import appeng.crafting.CraftingJob;
+import appeng.crafting.CraftingJobFuture;
 import appeng.helpers.WirelessTerminalGuiObject;
 import appeng.me.helpers.PlayerSource;
 import appeng.parts.reporting.PartCraftingTerminal;
@@ -68,9 +71,14 @@ import appeng.util.Platform;
 public class ContainerCraftConfirm extends AEBaseContainer
 {
 
+	private static final int PROGRESS_TICKS = 20;
+
 	private final ArrayList<CraftingCPURecord> cpus = new ArrayList<>();
+	// missing items the client currently shows from progress updates.
+	private final IItemList<IAEItemStack> streamedMissing = AEApi.instance().storage().createItemList();
 	private Future<ICraftingJob> job;
 	private ICraftingJob result;
+	private int progressTicks = 0;
 	@GuiSync( 0 )
 	public long bytesUsed;
 	@GuiSync( 1 )
@@ -87,6 +95,12 @@ public class ContainerCraftConfirm extends AEBaseContainer
 	public boolean noCPU = true;
 	@GuiSync( 7 )
 	public String myName = "";
+	@GuiSync( 8 )
+	public long progressBytes;
+	@GuiSync( 9 )
+	public long progressSteps;
+	@GuiSync( 10 )
+	public long calculationTime;
 
 	public ContainerCraftConfirm( final InventoryPlayer ip, final ITerminalHost te )
 	{
@@ -180,6 +194,12 @@ public class ContainerCraftConfirm extends AEBaseContainer
 
 		this.setNoCPU( this.cpus.isEmpty() );
 
+		if( this.getJob() instanceof CraftingJobFuture && !this.getJob().isDone() && ++this.progressTicks >= PROGRESS_TICKS )
+		{
+			this.progressTicks = 0;
+			this.sendProgress( ( (CraftingJobFuture) this.getJob() ).getJob() );
+		}
+
 		super.detectAndSendChanges();
 
 		if( this.getJob() != null && this.getJob().isDone() )
@@ -188,6 +208,11 @@ public class ContainerCraftConfirm extends AEBaseContainer
 			{
 				this.result = this.getJob().get();
 
+				if( this.result instanceof CraftingJob )
+				{
+					this.setCalculationTime( ( (CraftingJob) this.result ).getCalculationTime() );
+				}
+
 				if( !this.result.isSimulation() )
 				{
 					this.setSimulation( false );
@@ -206,9 +231,10 @@ public class ContainerCraftConfirm extends AEBaseContainer
 				{
 					final PacketMEInventoryUpdate a = new PacketMEInventoryUpdate( (byte) 0 );
 					final PacketMEInventoryUpdate b = new PacketMEInventoryUpdate( (byte) 1 );
-					final PacketMEInventoryUpdate c = this.result.isSimulation() ? new PacketMEInventoryUpdate( (byte) 2 ) : null;
+					PacketMEInventoryUpdate c = this.result.isSimulation() ? new PacketMEInventoryUpdate( (byte) 2 ) : null;
 
 					final IItemList<IAEItemStack> plan = AEApi.instance().storage().createItemList();
+					final IItemList<IAEItemStack> missing = AEApi.instance().storage().createItemList();
 					this.result.populatePlan( plan );
 
 					this.setUsedBytes( this.result.getByteTotal() );
@@ -255,9 +281,28 @@ public class ContainerCraftConfirm extends AEBaseContainer
 						if( c != null && m != null && m.getStackSize() > 0 )
 						{
 							c.appendItem( m );
+							missing.add( m );
 						}
 					}
 
+					// drop progress entries the final plan no longer needs.
+					for( final IAEItemStack sent : this.streamedMissing )
+					{
+						if( missing.findPrecise( sent ) == null )
+						{
+							if( c == null )
+							{
+								c = new PacketMEInventoryUpdate( (byte) 2 );
+							}
+
+							final IAEItemStack gone = sent.copy();
+							gone.setStackSize( 0 );
+							c.appendItem( gone );
+						}
+					}
+
+					this.streamedMissing.resetStatus();
+
 					for( final Object g : this.listeners )
 					{
 						if( g instanceof EntityPlayer )
@@ -289,6 +334,78 @@ public class ContainerCraftConfirm extends AEBaseContainer
 		this.verifyPermissions( SecurityPermissions.CRAFT, false );
 	}
 
+	private void sendProgress( final CraftingJob running )
+	{
+		final IItemList<IAEItemStack> missing = AEApi.instance().storage().createItemList();
+		final long bytes = running.getPartialPlan( missing );
+
+		if( bytes < 0 )
+		{
+			return;
+		}
+
+		this.setProgressBytes( bytes );
+		this.setProgressSteps( running.getSteps() );
+		this.setCalculationTime( running.getCalculationTime() );
+
+		try
+		{
+			final PacketMEInventoryUpdate c = new PacketMEInventoryUpdate( (byte) 2 );
+
+			try
+			{
+				for( final IAEItemStack m : missing )
+				{
+					final IAEItemStack sent = this.streamedMissing.findPrecise( m );
+
+					if( sent == null || sent.getStackSize() != m.getStackSize() )
+					{
+						c.appendItem( m );
+
+						if( sent == null )
+						{
+							this.streamedMissing.add( m.copy() );
+						}
+						else
+						{
+							sent.setStackSize( m.getStackSize() );
+						}
+					}
+				}
+
+				for( final IAEItemStack sent : this.streamedMissing )
+				{
+					if( missing.findPrecise( sent ) == null )
+					{
+						final IAEItemStack gone = sent.copy();
+						gone.setStackSize( 0 );
+						c.appendItem( gone );
+						sent.reset();
+					}
+				}
+			}
+			catch( final BufferOverflowException e )
+			{
+				// the rest follows with the next update.
+			}
+
+			if( !c.isEmpty() )
+			{
+				for( final Object g : this.listeners )
+				{
+					if( g instanceof EntityPlayer )
+					{
+						NetworkHandler.instance().sendTo( c, (EntityPlayerMP) g );
+					}
+				}
+			}
+		}
+		catch( final IOException e )
+		{
+			AELog.debug( e );
+		}
+	}
+
 	private IGrid getGrid()
 	{
 		final IActionHost h = ( (IActionHost) this.getTarget() );
@@ -470,6 +587,36 @@ public class ContainerCraftConfirm extends AEBaseContainer
 		this.simulation = simulation;
 	}
 
+	public long getProgressBytes()
+	{
+		return this.progressBytes;
+	}
+
+	private void setProgressBytes( final long progressBytes )
+	{
+		this.progressBytes = progressBytes;
+	}
+
+	public long getProgressSteps()
+	{
+		return this.progressSteps;
+	}
+
+	private void setProgressSteps( final long progressSteps )
+	{
+		this.progressSteps = progressSteps;
+	}
+
+	public long getCalculationTime()
+	{
+		return this.calculationTime;
+	}
+
+	private void setCalculationTime( final long calculationTime )
+	{
+		this.calculationTime = calculationTime;
+	}
+
 	private Future<ICraftingJob> getJob()
 	{
 		return this.job;
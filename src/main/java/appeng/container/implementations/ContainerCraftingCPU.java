@@ -20,6 +20,9 @@ package appeng.container.implementations;
 
 
 import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.util.ArrayList;
+import java.util.List;
 
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -40,19 +43,21 @@ import appeng.container.AEBaseContainer;
 import appeng.container.guisync.GuiSync;
 import appeng.core.AELog;
 import appeng.core.sync.network.NetworkHandler;
-import appeng.core.sync.packets.PacketMEInventoryUpdate;
+import appeng.core.sync.packets.PacketCraftingStatusUpdate;
 import appeng.core.sync.packets.PacketValueConfig;
 import appeng.helpers.ICustomNameObject;
 import appeng.me.cluster.IAEMultiBlock;
 import appeng.me.cluster.implementations.CraftingCPUCluster;
 import appeng.tile.crafting.TileCraftingTile;
 import appeng.util.Platform;
+import appeng.util.item.ItemKeyDictionary;
 
 
 public class ContainerCraftingCPU extends AEBaseContainer implements IMEMonitorHandlerReceiver<IAEItemStack>, ICustomNameObject
 {
 
 	private final IItemList<IAEItemStack> list = AEApi.instance().storage().createItemList();
+	private final ItemKeyDictionary keyDictionary = new ItemKeyDictionary();
 	private IGrid network;
 	private CraftingCPUCluster monitor = null;
 	private String cpuName = null;
@@ -112,6 +117,7 @@ public class ContainerCraftingCPU extends AEBaseContainer implements IMEMonitorH
 		{
 			this.cpuName = c.getName();
 			this.setMonitor( (CraftingCPUCluster) c );
+			this.keyDictionary.clear();
 			this.list.resetStatus();
 			this.getMonitor().getListOfItem( this.list, CraftingItemList.ALL );
 			this.getMonitor().addListener( this, null );
@@ -171,15 +177,31 @@ public class ContainerCraftingCPU extends AEBaseContainer implements IMEMonitorH
 					this.setEstimatedTime( eta );
 				}
 
-				final PacketMEInventoryUpdate a = new PacketMEInventoryUpdate( (byte) 0 );
-				final PacketMEInventoryUpdate b = new PacketMEInventoryUpdate( (byte) 1 );
-				final PacketMEInventoryUpdate c = new PacketMEInventoryUpdate( (byte) 2 );
+				// one record per changed item, carrying all three amounts.
+				final List<PacketCraftingStatusUpdate> packets = new ArrayList<>();
+				PacketCraftingStatusUpdate packet = new PacketCraftingStatusUpdate( this.keyDictionary );
 
 				for( final IAEItemStack out : this.list )
 				{
-					a.appendItem( this.getMonitor().getItemStack( out, CraftingItemList.STORAGE ) );
-					b.appendItem( this.getMonitor().getItemStack( out, CraftingItemList.ACTIVE ) );
-					c.appendItem( this.getMonitor().getItemStack( out, CraftingItemList.PENDING ) );
+					final long storage = this.getAmount( out, CraftingItemList.STORAGE );
+					final long active = this.getAmount( out, CraftingItemList.ACTIVE );
+					final long pending = this.getAmount( out, CraftingItemList.PENDING );
+
+					try
+					{
+						packet.appendItem( out, storage, active, pending );
+					}
+					catch( final BufferOverflowException boe )
+					{
+						packets.add( packet );
+						packet = new PacketCraftingStatusUpdate( this.keyDictionary );
+						packet.appendItem( out, storage, active, pending );
+					}
+				}
+
+				if( !packet.isEmpty() )
+				{
+					packets.add( packet );
 				}
 
 				this.list.resetStatus();
@@ -188,19 +210,9 @@ public class ContainerCraftingCPU extends AEBaseContainer implements IMEMonitorH
 				{
 					if( g instanceof EntityPlayer )
 					{
-						if( !a.isEmpty() )
+						for( final PacketCraftingStatusUpdate p : packets )
 						{
-							NetworkHandler.instance().sendTo( a, (EntityPlayerMP) g );
-						}
-
-						if( !b.isEmpty() )
-						{
-							NetworkHandler.instance().sendTo( b, (EntityPlayerMP) g );
-						}
-
-						if( !c.isEmpty() )
-						{
-							NetworkHandler.instance().sendTo( c, (EntityPlayerMP) g );
+							NetworkHandler.instance().sendTo( p, (EntityPlayerMP) g );
 						}
 					}
 				}
@@ -213,6 +225,12 @@ public class ContainerCraftingCPU extends AEBaseContainer implements IMEMonitorH
 		super.detectAndSendChanges();
 	}
 
+	private long getAmount( final IAEItemStack is, final CraftingItemList where )
+	{
+		final IAEItemStack stack = this.getMonitor().getItemStack( is, where );
+		return stack == null ? 0 : stack.getStackSize();
+	}
+
 	@Override
 	public boolean isValid( final Object verificationToken )
 	{
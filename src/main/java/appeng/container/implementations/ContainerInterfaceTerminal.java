@@ -20,10 +20,14 @@ package appeng.container.implementations;
 
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.item.ItemStack;
@@ -42,10 +46,10 @@ import appeng.helpers.DualityInterface;
 import appeng.helpers.IInterfaceHost;
 import appeng.helpers.InventoryAction;
 import appeng.items.misc.ItemEncodedPattern;
-import appeng.parts.misc.PartInterface;
+import appeng.me.cache.InterfaceDirectoryCache;
+import appeng.me.cache.InterfaceDirectoryCache.IInterfaceDirectoryListener;
 import appeng.parts.reporting.PartInterfaceTerminal;
 import appeng.tile.inventory.AppEngInternalInventory;
-import appeng.tile.misc.TileInterface;
 import appeng.util.InventoryAdaptor;
 import appeng.util.Platform;
 import appeng.util.helpers.ItemHandlerUtil;
@@ -56,9 +60,14 @@ import appeng.util.inv.WrapperRangeItemHandler;
 import appeng.util.inv.filter.IAEItemFilter;
 
 
-public final class ContainerInterfaceTerminal extends AEBaseContainer
+public final class ContainerInterfaceTerminal extends AEBaseContainer implements IInterfaceDirectoryListener
 {
 
+	/**
+	 * How many lines of the terminal, one per name plus the pattern rows, the initial list sends per packet.
+	 */
+	private static final int SNAPSHOT_LINES = 256;
+
 	/**
 	 * this stuff is all server side..
 	 */
@@ -66,7 +75,12 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 	private static long autoBase = Long.MIN_VALUE;
 	private final Map<IInterfaceHost, InvTracker> diList = new HashMap<>();
 	private final Map<Long, InvTracker> byId = new HashMap<>();
+	private final Set<IInterfaceHost> pending = new LinkedHashSet<>();
+	private final Deque<InvTracker> snapshot = new ArrayDeque<>();
 	private IGrid grid;
+	private InterfaceDirectoryCache directory;
+	private boolean wasActive = false;
+	private boolean rescan = false;
 	private NBTTagCompound data = new NBTTagCompound();
 
 	public ContainerInterfaceTerminal( final InventoryPlayer ip, final PartInterfaceTerminal anchor )
@@ -76,11 +90,36 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 		if( Platform.isServer() )
 		{
 			this.grid = anchor.getActionableNode().getGrid();
+			this.directory = this.grid.getCache( InterfaceDirectoryCache.class );
+			this.directory.addListener( this );
 		}
 
 		this.bindPlayerInventory( ip, 0, 222 - /* height of player inventory */82 );
 	}
 
+	@Override
+	public void onContainerClosed( final EntityPlayer player )
+	{
+		super.onContainerClosed( player );
+
+		if( this.directory != null )
+		{
+			this.directory.removeListener( this );
+		}
+	}
+
+	@Override
+	public void onInterfaceChanged( final IInterfaceHost host )
+	{
+		this.pending.add( host );
+	}
+
+	@Override
+	public void onDirectoryChanged()
+	{
+		this.rescan = true;
+	}
+
 	@Override
 	public void detectAndSendChanges()
 	{
@@ -96,106 +135,136 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 			return;
 		}
 
-		int total = 0;
-		boolean missing = false;
+		final boolean active = this.isTerminalActive();
 
-		final IActionHost host = this.getActionHost();
-		if( host != null )
+		if( active != this.wasActive )
 		{
-			final IGridNode agn = host.getActionableNode();
-			if( agn != null && agn.isActive() )
+			this.wasActive = active;
+			this.regenList( this.data );
+		}
+		else if( active )
+		{
+			if( this.rescan )
 			{
-				for( final IGridNode gn : this.grid.getMachines( TileInterface.class ) )
-				{
-					if( gn.isActive() )
-					{
-						final IInterfaceHost ih = (IInterfaceHost) gn.getMachine();
-						if( ih.getInterfaceDuality().getConfigManager().getSetting( Settings.INTERFACE_TERMINAL ) == YesNo.NO )
-						{
-							continue;
-						}
+				this.rescan = false;
+				this.findVisibilityChanges();
+			}
 
-						final InvTracker t = this.diList.get( ih );
+			for( final IInterfaceHost ih : this.pending )
+			{
+				this.updateInterface( this.data, ih );
+			}
+		}
 
-						if( t == null )
-						{
-							missing = true;
-						}
-						else
-						{
-							final DualityInterface dual = ih.getInterfaceDuality();
-							if( !t.unlocalizedName.equals( dual.getTermName() ) )
-							{
-								missing = true;
-							}
-						}
+		this.pending.clear();
+		this.sendSnapshot( this.data );
 
-						total++;
-					}
-				}
+		if( !this.data.hasNoTags() )
+		{
+			try
+			{
+				NetworkHandler.instance().sendTo( new PacketCompressedNBT( this.data ), (EntityPlayerMP) this.getPlayerInv().player );
+			}
+			catch( final IOException e )
+			{
+				// :P
+			}
 
-				for( final IGridNode gn : this.grid.getMachines( PartInterface.class ) )
-				{
-					if( gn.isActive() )
-					{
-						final IInterfaceHost ih = (IInterfaceHost) gn.getMachine();
-						if( ih.getInterfaceDuality().getConfigManager().getSetting( Settings.INTERFACE_TERMINAL ) == YesNo.NO )
-						{
-							continue;
-						}
+			this.data = new NBTTagCompound();
+		}
+	}
 
-						final InvTracker t = this.diList.get( ih );
+	private boolean isTerminalActive()
+	{
+		final IActionHost host = this.getActionHost();
+		if( host != null )
+		{
+			final IGridNode agn = host.getActionableNode();
+			return agn != null && agn.isActive();
+		}
+		return false;
+	}
 
-						if( t == null )
-						{
-							missing = true;
-						}
-						else
-						{
-							final DualityInterface dual = ih.getInterfaceDuality();
-							if( !t.unlocalizedName.equals( dual.getTermName() ) )
-							{
-								missing = true;
-							}
-						}
+	private boolean isVisible( final IInterfaceHost ih )
+	{
+		final IGridNode gn = ih.getActionableNode();
+		return gn != null && gn.isActive() && ih.getInterfaceDuality().getConfigManager().getSetting( Settings.INTERFACE_TERMINAL ) == YesNo.YES;
+	}
 
-						total++;
-					}
-				}
+	/**
+	 * Power or channels changed somewhere, only check which interfaces appeared or disappeared, their contents are
+	 * still reported by the interfaces themselves.
+	 */
+	private void findVisibilityChanges()
+	{
+		for( final IInterfaceHost ih : this.directory.getInterfaces() )
+		{
+			if( this.isVisible( ih ) != this.diList.containsKey( ih ) )
+			{
+				this.pending.add( ih );
 			}
 		}
+	}
 
-		if( total != this.diList.size() || missing )
-		{
-			this.regenList( this.data );
-		}
-		else
+	private void updateInterface( final NBTTagCompound data, final IInterfaceHost ih )
+	{
+		InvTracker inv = this.diList.get( ih );
+
+		if( !this.isVisible( ih ) || !this.directory.getInterfaces().contains( ih ) )
 		{
-			for( final Entry<IInterfaceHost, InvTracker> en : this.diList.entrySet() )
+			if( inv != null )
 			{
-				final InvTracker inv = en.getValue();
-				for( int x = 0; x < inv.server.getSlots(); x++ )
-				{
-					if( this.isDifferent( inv.server.getStackInSlot( x ), inv.client.getStackInSlot( x ) ) )
-					{
-						this.addItems( this.data, inv, x, 1 );
-					}
-				}
+				this.removeTracker( data, ih, inv );
 			}
+			return;
 		}
 
-		if( !this.data.hasNoTags() )
+		final DualityInterface dual = ih.getInterfaceDuality();
+		final String name = dual.getTermName();
+
+		if( inv == null || !inv.unlocalizedName.equals( name ) )
 		{
-			try
+			// The client can't rename an entry, replace it instead.
+			if( inv != null )
 			{
-				NetworkHandler.instance().sendTo( new PacketCompressedNBT( this.data ), (EntityPlayerMP) this.getPlayerInv().player );
+				this.removeTracker( data, ih, inv );
 			}
-			catch( final IOException e )
+
+			inv = new InvTracker( dual, dual.getPatterns(), name );
+			this.diList.put( ih, inv );
+			this.byId.put( inv.which, inv );
+			this.addItems( data, inv, 0, inv.server.getSlots() );
+			return;
+		}
+
+		for( int x = 0; x < inv.server.getSlots(); x++ )
+		{
+			if( this.isDifferent( inv.server.getStackInSlot( x ), inv.client.getStackInSlot( x ) ) )
 			{
-				// :P
+				this.addItems( data, inv, x, 1 );
 			}
+		}
+	}
 
-			this.data = new NBTTagCompound();
+	private void removeTracker( final NBTTagCompound data, final IInterfaceHost ih, final InvTracker inv )
+	{
+		this.diList.remove( ih );
+		this.byId.remove( inv.which );
+		this.snapshot.remove( inv );
+
+		final String name = '=' + Long.toString( inv.which, Character.MAX_RADIX );
+		data.removeTag( name );
+		data.setBoolean( '-' + Long.toString( inv.which, Character.MAX_RADIX ), true );
+	}
+
+	private void sendSnapshot( final NBTTagCompound data )
+	{
+		int lines = 0;
+		while( lines < SNAPSHOT_LINES && !this.snapshot.isEmpty() )
+		{
+			final InvTracker inv = this.snapshot.poll();
+			this.addItems( data, inv, 0, inv.server.getSlots() );
+			lines += 1 + ( inv.server.getSlots() + 8 ) / 9;
 		}
 	}
 
@@ -315,43 +384,27 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 	{
 		this.byId.clear();
 		this.diList.clear();
+		this.snapshot.clear();
+		this.pending.clear();
+		this.rescan = false;
 
-		final IActionHost host = this.getActionHost();
-		if( host != null )
+		if( this.wasActive )
 		{
-			final IGridNode agn = host.getActionableNode();
-			if( agn != null && agn.isActive() )
+			for( final IInterfaceHost ih : this.directory.getInterfaces() )
 			{
-				for( final IGridNode gn : this.grid.getMachines( TileInterface.class ) )
-				{
-					final IInterfaceHost ih = (IInterfaceHost) gn.getMachine();
-					final DualityInterface dual = ih.getInterfaceDuality();
-					if( gn.isActive() && dual.getConfigManager().getSetting( Settings.INTERFACE_TERMINAL ) == YesNo.YES )
-					{
-						this.diList.put( ih, new InvTracker( dual, dual.getPatterns(), dual.getTermName() ) );
-					}
-				}
-
-				for( final IGridNode gn : this.grid.getMachines( PartInterface.class ) )
+				if( this.isVisible( ih ) )
 				{
-					final IInterfaceHost ih = (IInterfaceHost) gn.getMachine();
 					final DualityInterface dual = ih.getInterfaceDuality();
-					if( gn.isActive() && dual.getConfigManager().getSetting( Settings.INTERFACE_TERMINAL ) == YesNo.YES )
-					{
-						this.diList.put( ih, new InvTracker( dual, dual.getPatterns(), dual.getTermName() ) );
-					}
+					final InvTracker inv = new InvTracker( dual, dual.getPatterns(), dual.getTermName() );
+					this.diList.put( ih, inv );
+					this.byId.put( inv.which, inv );
+					this.snapshot.add( inv );
 				}
 			}
 		}
 
+		// The entries themselves follow a page at a time.
 		data.setBoolean( "clear", true );
-
-		for( final Entry<IInterfaceHost, InvTracker> en : this.diList.entrySet() )
-		{
-			final InvTracker inv = en.getValue();
-			this.byId.put( inv.which, inv );
-			this.addItems( data, inv, 0, inv.server.getSlots() );
-		}
 	}
 
 	private boolean isDifferent( final ItemStack a, final ItemStack b )
@@ -21,6 +21,9 @@ package appeng.container.implementations;
 
 import java.io.IOException;
 import java.nio.BufferOverflowException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
 
@@ -31,7 +34,6 @@ import net.minecraft.inventory.IContainerListener;
 import net.minecraft.item.ItemStack;
 import net.minecraft.tileentity.TileEntity;
 
-import appeng.api.AEApi;
 import appeng.api.config.Actionable;
 import appeng.api.config.PowerMultiplier;
 import appeng.api.config.SecurityPermissions;
@@ -48,11 +50,8 @@ import appeng.api.networking.IGridNode;
 import appeng.api.networking.energy.IEnergyGrid;
 import appeng.api.networking.energy.IEnergySource;
 import appeng.api.networking.security.IActionHost;
-import appeng.api.networking.security.IActionSource;
-import appeng.api.networking.storage.IBaseMonitor;
 import appeng.api.parts.IPart;
 import appeng.api.storage.IMEMonitor;
-import appeng.api.storage.IMEMonitorHandlerReceiver;
 import appeng.api.storage.ITerminalHost;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
@@ -62,6 +61,7 @@ import appeng.api.util.IConfigurableObject;
 import appeng.container.AEBaseContainer;
 import appeng.container.guisync.GuiSync;
 import appeng.container.slot.SlotRestrictedInput;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.core.sync.network.NetworkHandler;
 import appeng.core.sync.packets.PacketMEInventoryUpdate;
@@ -70,16 +70,21 @@ import appeng.me.helpers.ChannelPowerSrc;
 import appeng.util.ConfigManager;
 import appeng.util.IConfigManagerHost;
 import appeng.util.Platform;
+import appeng.util.item.ItemKeyDictionary;
 
 
-public class ContainerMEMonitorable extends AEBaseContainer implements IConfigManagerHost, IConfigurableObject, IMEMonitorHandlerReceiver<IAEItemStack>
+public class ContainerMEMonitorable extends AEBaseContainer implements IConfigManagerHost, IConfigurableObject
 {
 
 	private final SlotRestrictedInput[] cellView = new SlotRestrictedInput[5];
 	private final IMEMonitor<IAEItemStack> monitor;
-	private final IItemList<IAEItemStack> items = AEApi.instance().storage().createItemList();
 	private final IConfigManager clientCM;
 	private final ITerminalHost host;
+	private final MEInventoryBroadcast broadcast;
+	private final Map<EntityPlayerMP, PagedInventorySync> pagedSyncs = new IdentityHashMap<>();
+	// client side, kept here so it survives screens opened over the terminal.
+	private final ItemKeyDictionary clientDictionary = new ItemKeyDictionary();
+	private boolean resyncRequested = false;
 	@GuiSync( 99 )
 	public boolean canAccessViewCells = false;
 	@GuiSync( 98 )
@@ -111,7 +116,7 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 			this.monitor = monitorable.getItemInventory();
 			if( this.monitor != null )
 			{
-				this.monitor.addListener( this, null );
+				this.broadcast = MEInventoryBroadcast.join( this.monitor, this );
 
 				this.setCellInventory( this.monitor );
 
@@ -152,12 +157,14 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 			}
 			else
 			{
+				this.broadcast = null;
 				this.setValidContainer( false );
 			}
 		}
 		else
 		{
 			this.monitor = null;
+			this.broadcast = null;
 		}
 
 		this.canAccessViewCells = false;
@@ -218,32 +225,12 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 				}
 			}
 
-			if( !this.items.isEmpty() )
+			if( this.broadcast != null )
 			{
 				try
 				{
-					final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
-
-					final PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate();
-
-					for( final IAEItemStack is : this.items )
-					{
-						final IAEItemStack send = monitorCache.findPrecise( is );
-						if( send == null )
-						{
-							is.setStackSize( 0 );
-							piu.appendItem( is );
-						}
-						else
-						{
-							piu.appendItem( send );
-						}
-					}
-
-					if( !piu.isEmpty() )
+					for( final PacketMEInventoryUpdate piu : this.broadcast.poll( this ) )
 					{
-						this.items.resetStatus();
-
 						for( final Object c : this.listeners )
 						{
 							if( c instanceof EntityPlayer )
@@ -259,6 +246,11 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 				}
 			}
 
+			if( !this.pagedSyncs.isEmpty() )
+			{
+				this.sendPages();
+			}
+
 			this.updatePowerStatus();
 
 			final boolean oldAccessible = this.canAccessViewCells;
@@ -329,25 +321,36 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 
 	private void queueInventory( final IContainerListener c )
 	{
-		if( Platform.isServer() && c instanceof EntityPlayer && this.monitor != null )
+		if( Platform.isServer() && c instanceof EntityPlayer && this.broadcast != null )
 		{
 			try
 			{
-				PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate();
+				final ItemKeyDictionary dictionary = this.broadcast.getDictionary();
+				dictionary.forgetAnnouncements();
+
+				if( AEConfig.instance().getTerminalSyncBytesPerTick() > 0 )
+				{
+					this.queuePages( (EntityPlayerMP) c, dictionary );
+					return;
+				}
+
+				final int packetBytes = AEConfig.instance().getTerminalSyncPacketBytes();
+
+				PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate( dictionary, packetBytes );
 				final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
 
 				for( final IAEItemStack send : monitorCache )
 				{
 					try
 					{
-						piu.appendItem( send );
+						piu.appendItem( send, true );
 					}
 					catch( final BufferOverflowException boe )
 					{
 						NetworkHandler.instance().sendTo( piu, (EntityPlayerMP) c );
 
-						piu = new PacketMEInventoryUpdate();
-						piu.appendItem( send );
+						piu = new PacketMEInventoryUpdate( dictionary, packetBytes );
+						piu.appendItem( send, true );
 					}
 				}
 
@@ -360,14 +363,70 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 		}
 	}
 
+	private void queuePages( final EntityPlayerMP player, final ItemKeyDictionary dictionary ) throws IOException
+	{
+		Enum<?> sortBy = SortOrder.NAME;
+		Enum<?> sortDir = SortDir.ASCENDING;
+		if( this.serverCM.getSettings().contains( Settings.SORT_BY ) )
+		{
+			sortBy = this.serverCM.getSetting( Settings.SORT_BY );
+		}
+		if( this.serverCM.getSettings().contains( Settings.SORT_DIRECTION ) )
+		{
+			sortDir = this.serverCM.getSetting( Settings.SORT_DIRECTION );
+		}
+
+		final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
+		final PagedInventorySync sync = new PagedInventorySync( monitorCache, sortBy, sortDir );
+
+		// the first pages go out right away, so the terminal is usable before the rest arrives.
+		sync.sendNext( player, monitorCache, dictionary, 0, PagedInventorySync.FIRST_PAGES_ITEMS );
+
+		if( sync.isDone() )
+		{
+			this.pagedSyncs.remove( player );
+		}
+		else
+		{
+			this.pagedSyncs.put( player, sync );
+		}
+	}
+
+	private void sendPages()
+	{
+		final int budget = AEConfig.instance().getTerminalSyncBytesPerTick();
+		final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
+		final ItemKeyDictionary dictionary = this.broadcast.getDictionary();
+
+		final Iterator<Map.Entry<EntityPlayerMP, PagedInventorySync>> i = this.pagedSyncs.entrySet().iterator();
+		while( i.hasNext() )
+		{
+			final Map.Entry<EntityPlayerMP, PagedInventorySync> entry = i.next();
+			try
+			{
+				entry.getValue().sendNext( entry.getKey(), monitorCache, dictionary, budget, Integer.MAX_VALUE );
+			}
+			catch( final IOException e )
+			{
+				AELog.debug( e );
+			}
+
+			if( entry.getValue().isDone() )
+			{
+				i.remove();
+			}
+		}
+	}
+
 	@Override
 	public void removeListener( final IContainerListener c )
 	{
 		super.removeListener( c );
+		this.pagedSyncs.remove( c );
 
-		if( this.listeners.isEmpty() && this.monitor != null )
+		if( this.listeners.isEmpty() && this.broadcast != null )
 		{
-			this.monitor.removeListener( this );
+			this.broadcast.leave( this );
 		}
 	}
 
@@ -375,29 +434,65 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 	public void onContainerClosed( final EntityPlayer player )
 	{
 		super.onContainerClosed( player );
-		if( this.monitor != null )
+		this.pagedSyncs.clear();
+		if( this.broadcast != null )
 		{
-			this.monitor.removeListener( this );
+			this.broadcast.leave( this );
 		}
 	}
 
-	@Override
-	public boolean isValid( final Object verificationToken )
+	/**
+	 * Server side, resends the whole inventory to a client which received counts for an item it does not know.
+	 */
+	public void resyncInventory( final EntityPlayer player )
 	{
-		return true;
+		if( player instanceof IContainerListener && this.listeners.contains( player ) )
+		{
+			this.queueInventory( (IContainerListener) player );
+		}
 	}
 
-	@Override
-	public void postChange( final IBaseMonitor<IAEItemStack> monitor, final Iterable<IAEItemStack> change, final IActionSource source )
+	/**
+	 * Client side, the ids the server assigned to the items of this terminal session.
+	 */
+	public ItemKeyDictionary getClientDictionary()
+	{
+		return this.clientDictionary;
+	}
+
+	/**
+	 * Client side, asks the server for the whole inventory once an update refers to an unknown item.
+	 */
+	public void requestResync()
 	{
-		for( final IAEItemStack is : change )
+		if( this.resyncRequested )
+		{
+			return;
+		}
+
+		try
+		{
+			NetworkHandler.instance().sendToServer( new PacketValueConfig( "Terminal.Resync", "" ) );
+			this.resyncRequested = true;
+		}
+		catch( final IOException e )
 		{
-			this.items.add( is );
+			AELog.debug( e );
 		}
 	}
 
-	@Override
-	public void onListUpdate()
+	/**
+	 * Client side, the server answers a resync with definitions, further unknown items may be requested again.
+	 */
+	public void onDefinitionReceived()
+	{
+		this.resyncRequested = false;
+	}
+
+	/**
+	 * Resends the whole inventory, called by the broadcast when its monitor's list was rebuilt.
+	 */
+	void onListUpdate()
 	{
 		for( final IContainerListener c : this.listeners )
 		{
@@ -451,7 +546,7 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 		this.hasPower = isPowered;
 	}
 
-	private IConfigManagerHost getGui()
+	public IConfigManagerHost getGui()
 	{
 		return this.gui;
 	}
@@ -0,0 +1,251 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.container.implementations;
+
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import appeng.api.AEApi;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.networking.storage.IBaseMonitor;
+import appeng.api.storage.IMEMonitor;
+import appeng.api.storage.IMEMonitorHandlerReceiver;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.core.sync.packets.PacketMEInventoryUpdate;
+import appeng.me.cache.NetworkMonitor;
+import appeng.util.item.ItemKeyDictionary;
+
+
+/**
+ * Collects the changes of one monitor for every terminal viewing it and encodes them once.
+ *
+ * Each flush becomes a generation of finished packets, viewers receive every generation newer than the last one they
+ * were sent and generations are dropped once all viewers have them. The viewers share one {@link ItemKeyDictionary}.
+ *
+ * A grid's broadcast is kept on its {@link NetworkMonitor}, so it goes away together with the grid.
+ */
+final class MEInventoryBroadcast implements IMEMonitorHandlerReceiver<IAEItemStack>
+{
+
+	private final IMEMonitor<IAEItemStack> monitor;
+	private final IItemList<IAEItemStack> changes = AEApi.instance().storage().createItemList();
+	private final ItemKeyDictionary dictionary = new ItemKeyDictionary();
+	private final Map<ContainerMEMonitorable, Long> viewers = new IdentityHashMap<>();
+	private final Deque<Generation> generations = new ArrayDeque<>();
+	private long generation = 0;
+
+	private MEInventoryBroadcast( final IMEMonitor<IAEItemStack> monitor )
+	{
+		this.monitor = monitor;
+	}
+
+	@SuppressWarnings( "unchecked" )
+	static MEInventoryBroadcast join( final IMEMonitor<IAEItemStack> monitor, final ContainerMEMonitorable viewer )
+	{
+		MEInventoryBroadcast broadcast = null;
+		if( monitor instanceof NetworkMonitor && ( (NetworkMonitor<IAEItemStack>) monitor ).getTerminalBroadcast() instanceof MEInventoryBroadcast )
+		{
+			broadcast = (MEInventoryBroadcast) ( (NetworkMonitor<IAEItemStack>) monitor ).getTerminalBroadcast();
+		}
+
+		if( broadcast == null )
+		{
+			broadcast = new MEInventoryBroadcast( monitor );
+			monitor.addListener( broadcast, null );
+
+			// only the grid is shared, other monitors get one broadcast per viewer.
+			if( monitor instanceof NetworkMonitor )
+			{
+				( (NetworkMonitor<IAEItemStack>) monitor ).setTerminalBroadcast( broadcast );
+			}
+		}
+
+		// the viewer gets the whole inventory instead of older generations.
+		broadcast.viewers.put( viewer, broadcast.generation );
+		return broadcast;
+	}
+
+	@SuppressWarnings( "unchecked" )
+	void leave( final ContainerMEMonitorable viewer )
+	{
+		if( this.viewers.remove( viewer ) == null )
+		{
+			return;
+		}
+
+		if( this.viewers.isEmpty() )
+		{
+			this.monitor.removeListener( this );
+
+			if( this.monitor instanceof NetworkMonitor && ( (NetworkMonitor<IAEItemStack>) this.monitor ).getTerminalBroadcast() == this )
+			{
+				( (NetworkMonitor<IAEItemStack>) this.monitor ).setTerminalBroadcast( null );
+			}
+		}
+		else
+		{
+			this.prune();
+		}
+	}
+
+	ItemKeyDictionary getDictionary()
+	{
+		return this.dictionary;
+	}
+
+	/**
+	 * @return the packets the viewer has not been sent yet, encoding pending changes if needed
+	 */
+	List<PacketMEInventoryUpdate> poll( final ContainerMEMonitorable viewer ) throws IOException
+	{
+		final Long sent = this.viewers.get( viewer );
+		if( sent == null )
+		{
+			return Collections.emptyList();
+		}
+
+		this.flush();
+
+		if( sent == this.generation )
+		{
+			return Collections.emptyList();
+		}
+
+		final List<PacketMEInventoryUpdate> out = new ArrayList<>();
+		for( final Generation g : this.generations )
+		{
+			if( g.id > sent )
+			{
+				out.addAll( g.packets );
+			}
+		}
+
+		this.viewers.put( viewer, this.generation );
+		this.prune();
+		return out;
+	}
+
+	private void flush() throws IOException
+	{
+		if( this.changes.isEmpty() )
+		{
+			return;
+		}
+
+		final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
+		final List<PacketMEInventoryUpdate> packets = new ArrayList<>();
+		PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate( this.dictionary );
+
+		for( final IAEItemStack is : this.changes )
+		{
+			IAEItemStack send = monitorCache.findPrecise( is );
+			if( send == null )
+			{
+				is.setStackSize( 0 );
+				send = is;
+			}
+
+			final boolean define = !this.dictionary.isAnnounced( send );
+			try
+			{
+				piu.appendItem( send, define );
+			}
+			catch( final BufferOverflowException boe )
+			{
+				packets.add( piu );
+
+				piu = new PacketMEInventoryUpdate( this.dictionary );
+				piu.appendItem( send, define );
+			}
+
+			if( define )
+			{
+				this.dictionary.announce( send );
+			}
+		}
+
+		if( !piu.isEmpty() )
+		{
+			packets.add( piu );
+		}
+
+		this.changes.resetStatus();
+		this.generation++;
+		this.generations.add( new Generation( this.generation, packets ) );
+	}
+
+	private void prune()
+	{
+		long oldest = this.generation;
+		for( final long sent : this.viewers.values() )
+		{
+			oldest = Math.min( oldest, sent );
+		}
+
+		while( !this.generations.isEmpty() && this.generations.peekFirst().id <= oldest )
+		{
+			this.generations.removeFirst();
+		}
+	}
+
+	@Override
+	public boolean isValid( final Object verificationToken )
+	{
+		return !this.viewers.isEmpty();
+	}
+
+	@Override
+	public void postChange( final IBaseMonitor<IAEItemStack> monitor, final Iterable<IAEItemStack> change, final IActionSource source )
+	{
+		for( final IAEItemStack is : change )
+		{
+			this.changes.add( is );
+		}
+	}
+
+	@Override
+	public void onListUpdate()
+	{
+		for( final ContainerMEMonitorable viewer : new ArrayList<>( this.viewers.keySet() ) )
+		{
+			viewer.onListUpdate();
+		}
+	}
+
+	private static final class Generation
+	{
+		private final long id;
+		private final List<PacketMEInventoryUpdate> packets;
+
+		private Generation( final long id, final List<PacketMEInventoryUpdate> packets )
+		{
+			this.id = id;
+			this.packets = packets;
+		}
+	}
+}
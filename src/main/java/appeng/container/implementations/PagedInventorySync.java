@@ -0,0 +1,176 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.container.implementations;
+
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+
+import appeng.api.config.SortDir;
+import appeng.api.config.SortOrder;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.core.sync.network.NetworkHandler;
+import appeng.core.sync.packets.PacketMEInventoryUpdate;
+import appeng.util.Platform;
+import appeng.util.item.AEItemStack;
+import appeng.util.item.ItemKeyDictionary;
+
+
+/**
+ * Initial inventory sync of one terminal viewer, sent a few pages at a time.
+ *
+ * The items which sort first are sent right away, the rest follows under a byte budget per tick. Only the first pages
+ * are sorted, the server approximates the client's order and the client sorts everything it receives anyway. Counts
+ * are read from the monitor when an item is sent, so they are never older than the deltas sent in the meantime.
+ */
+final class PagedInventorySync
+{
+
+	/**
+	 * Enough items to fill the first pages of even the tallest terminal.
+	 */
+	static final int FIRST_PAGES_ITEMS = 512;
+
+	private final Deque<IAEItemStack> remaining;
+
+	PagedInventorySync( final IItemList<IAEItemStack> storage, final Enum<?> sortBy, final Enum<?> sortDir )
+	{
+		final Comparator<SortKey> order = getOrder( sortBy, sortDir );
+		final PriorityQueue<SortKey> first = new PriorityQueue<>( FIRST_PAGES_ITEMS + 1, order.reversed() );
+		final List<IAEItemStack> rest = new ArrayList<>();
+
+		for( final IAEItemStack is : storage )
+		{
+			// names are looked up once per item, not once per comparison.
+			first.add( new SortKey( is, sortBy ) );
+			if( first.size() > FIRST_PAGES_ITEMS )
+			{
+				rest.add( first.poll().stack );
+			}
+		}
+
+		final List<SortKey> head = new ArrayList<>( first );
+		head.sort( order );
+
+		this.remaining = new ArrayDeque<>( head.size() + rest.size() );
+		for( final SortKey key : head )
+		{
+			this.remaining.add( key.stack );
+		}
+		this.remaining.addAll( rest );
+	}
+
+	private static Comparator<SortKey> getOrder( final Enum<?> sortBy, final Enum<?> sortDir )
+	{
+		final Comparator<SortKey> byName = ( a, b ) -> a.name.compareTo( b.name );
+		final Comparator<SortKey> order;
+
+		if( sortBy == SortOrder.AMOUNT )
+		{
+			order = ( a, b ) -> Long.compare( b.amount, a.amount );
+		}
+		else if( sortBy == SortOrder.MOD )
+		{
+			final Comparator<SortKey> byMod = ( a, b ) -> a.mod.compareTo( b.mod );
+			order = byMod.thenComparing( byName ).reversed();
+		}
+		else
+		{
+			// inventory tweaks sorting is only available on the client.
+			order = byName;
+		}
+
+		return sortDir == SortDir.DESCENDING ? order.reversed() : order;
+	}
+
+	boolean isDone()
+	{
+		return this.remaining.isEmpty();
+	}
+
+	/**
+	 * Sends one packet with the next items.
+	 *
+	 * @param byteBudget uncompressed bytes for the packet, 0 for no limit
+	 * @param maxItems upper bound on the number of items
+	 */
+	void sendNext( final EntityPlayerMP player, final IItemList<IAEItemStack> monitorCache, final ItemKeyDictionary dictionary, final int byteBudget, final int maxItems ) throws IOException
+	{
+		final PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate( dictionary, byteBudget );
+
+		int sent = 0;
+		while( sent < maxItems && !this.remaining.isEmpty() )
+		{
+			final IAEItemStack send = monitorCache.findPrecise( this.remaining.peekFirst() );
+			if( send == null )
+			{
+				// gone since the snapshot, the client never had it.
+				this.remaining.pollFirst();
+				continue;
+			}
+
+			try
+			{
+				piu.appendItem( send, true );
+			}
+			catch( final BufferOverflowException boe )
+			{
+				break;
+			}
+
+			this.remaining.pollFirst();
+			sent++;
+		}
+
+		if( !piu.isEmpty() )
+		{
+			NetworkHandler.instance().sendTo( piu, player );
+		}
+	}
+
+	/**
+	 * The keys of one item, taken once when the pass starts. Names come from the server's locale, which only shifts
+	 * what the first pages contain, the client sorts by its own names.
+	 */
+	private static final class SortKey
+	{
+
+		private final IAEItemStack stack;
+		private final String name;
+		private final String mod;
+		private final long amount;
+
+		private SortKey( final IAEItemStack stack, final Enum<?> sortBy )
+		{
+			this.stack = stack;
+			this.amount = stack.getStackSize();
+			this.name = sortBy == SortOrder.AMOUNT ? "" : Platform.getItemDisplayName( stack ).toLowerCase();
+			this.mod = sortBy == SortOrder.MOD ? ( (AEItemStack) stack ).getModID().toLowerCase() : "";
+		}
+	}
+}
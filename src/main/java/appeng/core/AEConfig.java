@@ -48,6 +48,7 @@ import appeng.api.util.IConfigurableObject;
 import appeng.core.features.AEFeature;
 import appeng.core.settings.TickRates;
 import appeng.items.materials.MaterialType;
+import appeng.parts.p2p.ItemDistribution;
 import appeng.util.ConfigManager;
 import appeng.util.IConfigManagerHost;
 import appeng.util.Platform;
@@ -82,6 +83,11 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 	// Misc
 	private boolean removeCrashingItemsOnLoad = false;
 	private int formationPlaneEntityLimit = 128;
+	private int storageBusSlotsPerTick = 1024;
+	private int ioPortBulkItemsPerTick = 0;
+	private int terminalSyncPacketBytes = 0;
+	private int terminalSyncBytesPerTick = 0;
+	private ItemDistribution itemTunnelDistribution = ItemDistribution.FIRST_AVAILABLE;
 	private boolean enableEffects = true;
 	private boolean useLargeFonts = false;
 	private boolean useColoredCraftingStatus;
@@ -199,6 +205,30 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 
 		this.formationPlaneEntityLimit = this.get( "automation", "formationPlaneEntityLimit", this.formationPlaneEntityLimit ).getInt(
 				this.formationPlaneEntityLimit );
+		this.storageBusSlotsPerTick = this.get( "automation", "storageBusSlotsPerTick", this.storageBusSlotsPerTick,
+				"Maximum number of slots a storage bus inspects per tick on large inventories, 0 always scans the whole inventory." ).getInt(
+						this.storageBusSlotsPerTick );
+
+		this.ioPortBulkItemsPerTick = this.get( "automation", "ioPortBulkItemsPerTick", this.ioPortBulkItemsPerTick,
+				"Enables the bulk mode of the IO Port when emptying cells, moving up to this many items per tick with three speed cards. 0 disables it." )
+				.getInt( this.ioPortBulkItemsPerTick );
+
+		this.terminalSyncPacketBytes = this.get( "general", "terminalSyncPacketBytes", this.terminalSyncPacketBytes,
+				"Splits the initial inventory sync of terminals into packets of at most this many uncompressed bytes. 0 sends packets as large as possible." )
+				.getInt( this.terminalSyncPacketBytes );
+		this.terminalSyncBytesPerTick = this.get( "general", "terminalSyncBytesPerTick", this.terminalSyncBytesPerTick,
+				"Sends the first pages of a terminal's inventory when it opens and streams the rest with at most this many uncompressed bytes per tick. 0 sends everything at once." )
+				.getInt( this.terminalSyncBytesPerTick );
+
+		try
+		{
+			this.itemTunnelDistribution = ItemDistribution.valueOf( this.get( "automation", "itemTunnelDistribution", this.itemTunnelDistribution.name(),
+					this.getListComment( this.itemTunnelDistribution ) ).getString() );
+		}
+		catch( final IllegalArgumentException e )
+		{
+			this.itemTunnelDistribution = ItemDistribution.FIRST_AVAILABLE;
+		}
 
 		this.wirelessTerminalBattery = this.get( "battery", "wirelessTerminal", this.wirelessTerminalBattery ).getInt( this.wirelessTerminalBattery );
 		this.chargedStaffBattery = this.get( "battery", "chargedStaff", this.chargedStaffBattery ).getInt( this.chargedStaffBattery );
@@ -574,6 +604,31 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 		return this.formationPlaneEntityLimit;
 	}
 
+	public int getStorageBusSlotsPerTick()
+	{
+		return this.storageBusSlotsPerTick;
+	}
+
+	public int getIoPortBulkItemsPerTick()
+	{
+		return this.ioPortBulkItemsPerTick;
+	}
+
+	public int getTerminalSyncPacketBytes()
+	{
+		return this.terminalSyncPacketBytes;
+	}
+
+	public int getTerminalSyncBytesPerTick()
+	{
+		return this.terminalSyncBytesPerTick;
+	}
+
+	public ItemDistribution getItemTunnelDistribution()
+	{
+		return this.itemTunnelDistribution;
+	}
+
 	public boolean isEnableEffects()
 	{
 		return this.enableEffects;
@@ -97,6 +97,7 @@ import appeng.loot.ChestLoot;
 import appeng.me.cache.CraftingGridCache;
 import appeng.me.cache.EnergyGridCache;
 import appeng.me.cache.GridStorageCache;
+import appeng.me.cache.InterfaceDirectoryCache;
 import appeng.me.cache.P2PCache;
 import appeng.me.cache.PathGridCache;
 import appeng.me.cache.SecurityCache;
@@ -272,6 +273,7 @@ final class Registration
 		gcr.registerGridCache( IPathingGrid.class, PathGridCache.class );
 		gcr.registerGridCache( IStorageGrid.class, GridStorageCache.class );
 		gcr.registerGridCache( P2PCache.class, P2PCache.class );
+		gcr.registerGridCache( InterfaceDirectoryCache.class, InterfaceDirectoryCache.class );
 		gcr.registerGridCache( ISpatialCache.class, SpatialPylonCache.class );
 		gcr.registerGridCache( ISecurityGrid.class, SecurityCache.class );
 		gcr.registerGridCache( ICraftingGrid.class, CraftingGridCache.class );
@@ -152,6 +152,7 @@ public enum GuiText
 	ToCraft,
 	CraftingPlan,
 	CalculatingWait,
+	CalculationSteps,
 	Start,
 	Bytes,
 
@@ -34,6 +34,8 @@ public enum WailaText
 	P2PInputOneOutput,
 	P2PInputManyOutputs,
 	P2POutput,
+	P2PThroughput,
+	PlaneWallThroughput,
 
 	Locked,
 	Unlocked,
@@ -0,0 +1,103 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.core.sync.packets;
+
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+
+/**
+ * Keeps a few raw deflate (de)compressors around, creating one allocates native memory which is only freed once it
+ * is garbage collected. Compressors which are never returned are simply collected.
+ */
+final class CompressionPool
+{
+
+	private static final int MAX_POOLED = 8;
+
+	private static final Deque<Deflater> DEFLATERS = new ArrayDeque<>();
+	private static final Deque<Inflater> INFLATERS = new ArrayDeque<>();
+
+	private CompressionPool()
+	{
+	}
+
+	static Deflater takeDeflater()
+	{
+		synchronized( DEFLATERS )
+		{
+			final Deflater deflater = DEFLATERS.pollFirst();
+			if( deflater != null )
+			{
+				return deflater;
+			}
+		}
+
+		return new Deflater( Deflater.DEFAULT_COMPRESSION, true );
+	}
+
+	static void giveBack( final Deflater deflater )
+	{
+		deflater.reset();
+
+		synchronized( DEFLATERS )
+		{
+			if( DEFLATERS.size() < MAX_POOLED )
+			{
+				DEFLATERS.addFirst( deflater );
+				return;
+			}
+		}
+
+		deflater.end();
+	}
+
+	static Inflater takeInflater()
+	{
+		synchronized( INFLATERS )
+		{
+			final Inflater inflater = INFLATERS.pollFirst();
+			if( inflater != null )
+			{
+				return inflater;
+			}
+		}
+
+		return new Inflater( true );
+	}
+
+	static void giveBack( final Inflater inflater )
+	{
+		inflater.reset();
+
+		synchronized( INFLATERS )
+		{
+			if( INFLATERS.size() < MAX_POOLED )
+			{
+				INFLATERS.addFirst( inflater );
+				return;
+			}
+		}
+
+		inflater.end();
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.core.sync.packets;
+
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiScreen;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import appeng.api.storage.data.IAEItemStack;
+import appeng.client.gui.implementations.GuiCraftingCPU;
+import appeng.core.AELog;
+import appeng.core.sync.AppEngPacket;
+import appeng.core.sync.network.INetworkInfo;
+import appeng.util.item.AEItemStack;
+import appeng.util.item.ItemKeyDictionary;
+
+
+/**
+ * Changed items of a crafting CPU, one record per item with its stored, active and pending amounts.
+ *
+ * Items are identified like in {@link PacketMEInventoryUpdate}, by a session id after their first definition.
+ */
+public class PacketCraftingStatusUpdate extends AppEngPacket
+{
+	private static final int PACKET_BYTE_LIMIT = 1024 * 1024;
+	private static final int OPERATION_BYTE_LIMIT = 2 * 1024;
+	private static final int MAX_VAR_INT_BYTES = 5;
+
+	// input.
+	@Nullable
+	private final ByteBuf payload;
+
+	// output...
+	@Nullable
+	private final ItemKeyDictionary dictionary;
+	@Nullable
+	private final ByteBuf data;
+	private final int headerBytes;
+	private boolean finished = false;
+
+	// automatic.
+	public PacketCraftingStatusUpdate( final ByteBuf stream )
+	{
+		this.dictionary = null;
+		this.data = null;
+		this.headerBytes = 0;
+
+		// resolved against the screen's dictionary on the client thread.
+		this.payload = Unpooled.copiedBuffer( stream );
+	}
+
+	// api
+	public PacketCraftingStatusUpdate( final ItemKeyDictionary dictionary )
+	{
+		this.dictionary = dictionary;
+		this.payload = null;
+
+		this.data = Unpooled.buffer( OPERATION_BYTE_LIMIT );
+		this.data.writeInt( this.getPacketID() );
+		this.headerBytes = this.data.writerIndex();
+	}
+
+	@Override
+	@SideOnly( Side.CLIENT )
+	public void clientPacketData( final INetworkInfo network, final AppEngPacket packet, final EntityPlayer player )
+	{
+		final GuiScreen gs = Minecraft.getMinecraft().currentScreen;
+
+		if( gs instanceof GuiCraftingCPU )
+		{
+			final GuiCraftingCPU cpu = (GuiCraftingCPU) gs;
+			final ItemKeyDictionary dictionary = cpu.getKeyDictionary();
+			final List<IAEItemStack> items = new ArrayList<>();
+			final List<long[]> counts = new ArrayList<>();
+
+			try
+			{
+				while( this.payload.isReadable() )
+				{
+					final int key = ByteBufUtils.readVarInt( this.payload, MAX_VAR_INT_BYTES );
+					final int id = key >>> 1;
+
+					if( ( key & 1 ) != 0 )
+					{
+						final IAEItemStack definition = AEItemStack.loadItemStackFromPacket( this.payload );
+						if( definition != null )
+						{
+							dictionary.define( id, definition.copy() );
+						}
+					}
+
+					final long[] amounts = { readVarLong( this.payload ), readVarLong( this.payload ), readVarLong( this.payload ) };
+					final IAEItemStack is = dictionary.getDefinition( id );
+					if( is != null )
+					{
+						items.add( is );
+						counts.add( amounts );
+					}
+					else
+					{
+						AELog.debug( "Received crafting status for undefined item id %d", id );
+					}
+				}
+			}
+			catch( final IOException e )
+			{
+				AELog.debug( e );
+			}
+
+			cpu.postStatusUpdate( items, counts );
+		}
+	}
+
+	@Override
+	public FMLProxyPacket getProxy()
+	{
+		if( !this.finished )
+		{
+			this.data.capacity( this.data.readableBytes() );
+			this.finished = true;
+		}
+
+		// every send reads its own view of the finished buffer.
+		this.configureWrite( this.data.duplicate() );
+		return super.getProxy();
+	}
+
+	/**
+	 * @throws BufferOverflowException if the packet is full, the record is not added
+	 */
+	public void appendItem( final IAEItemStack is, final long storage, final long active, final long pending ) throws IOException, BufferOverflowException
+	{
+		final int start = this.data.writerIndex();
+		final int id = this.dictionary.getId( is );
+		final int newId = id < 0 ? this.dictionary.nextId() : -1;
+
+		if( newId >= 0 )
+		{
+			ByteBufUtils.writeVarInt( this.data, newId << 1 | 1, MAX_VAR_INT_BYTES );
+			is.empty().writeToPacket( this.data );
+		}
+		else
+		{
+			ByteBufUtils.writeVarInt( this.data, id << 1, MAX_VAR_INT_BYTES );
+		}
+
+		writeVarLong( this.data, storage );
+		writeVarLong( this.data, active );
+		writeVarLong( this.data, pending );
+
+		if( start > this.headerBytes && this.data.writerIndex() > PACKET_BYTE_LIMIT )
+		{
+			this.data.writerIndex( start );
+			throw new BufferOverflowException();
+		}
+
+		if( newId >= 0 )
+		{
+			this.dictionary.assign( is, newId );
+		}
+	}
+
+	public boolean isEmpty()
+	{
+		return this.data.writerIndex() == this.headerBytes;
+	}
+
+	private static void writeVarLong( final ByteBuf out, long value )
+	{
+		while( ( value & ~0x7FL ) != 0 )
+		{
+			out.writeByte( (int) ( value & 0x7F ) | 0x80 );
+			value >>>= 7;
+		}
+		out.writeByte( (int) value );
+	}
+
+	private static long readVarLong( final ByteBuf in )
+	{
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do
+		{
+			b = in.readByte();
+			value |= (long) ( b & 0x7F ) << shift;
+			shift += 7;
+		}
+		while( ( b & 0x80 ) != 0 && shift < 64 );
+		return value;
+	}
+}
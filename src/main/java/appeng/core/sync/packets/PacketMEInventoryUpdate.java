@@ -20,97 +20,104 @@ package appeng.core.sync.packets;
 
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.BufferOverflowException;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import javax.annotation.Nullable;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 import appeng.api.storage.data.IAEItemStack;
 import appeng.client.gui.implementations.GuiCraftConfirm;
-import appeng.client.gui.implementations.GuiCraftingCPU;
 import appeng.client.gui.implementations.GuiMEMonitorable;
 import appeng.client.gui.implementations.GuiNetworkStatus;
+import appeng.container.implementations.ContainerMEMonitorable;
 import appeng.core.AELog;
 import appeng.core.sync.AppEngPacket;
 import appeng.core.sync.network.INetworkInfo;
 import appeng.util.item.AEItemStack;
+import appeng.util.item.AEStack;
+import appeng.util.item.ItemKeyDictionary;
 
 
 public class PacketMEInventoryUpdate extends AppEngPacket
 {
 	private static final int UNCOMPRESSED_PACKET_BYTE_LIMIT = 16 * 1024 * 1024;
 	private static final int OPERATION_BYTE_LIMIT = 2 * 1024;
-	private static final int TEMP_BUFFER_SIZE = 1024;
-	private static final int STREAM_MASK = 0xff;
+	private static final int STAGING_BYTES = 32 * 1024;
+	private static final int MAX_VAR_INT_BYTES = 5;
 
 	// input.
 	@Nullable
 	private final List<IAEItemStack> list;
+	// keyed input, resolved against the terminal container's dictionary once it is handled.
+	@Nullable
+	private final ByteBuf keyedData;
 	// output...
 	private final byte ref;
+	@Nullable
+	private final ItemKeyDictionary dictionary;
 
 	@Nullable
 	private final ByteBuf data;
+	private final int lengthIndex;
+	private final int byteLimit;
+	// entries are encoded into a pooled buffer and deflated a block at a time.
+	@Nullable
+	private ByteBuf staging;
 	@Nullable
-	private final GZIPOutputStream compressFrame;
+	private Deflater deflater;
 
 	private int writtenBytes = 0;
 	private boolean empty = true;
+	private boolean finished = false;
 
 	// automatic.
 	public PacketMEInventoryUpdate( final ByteBuf stream ) throws IOException
 	{
 		this.data = null;
-		this.compressFrame = null;
-		this.list = new LinkedList<>();
+		this.lengthIndex = -1;
+		this.byteLimit = 0;
+		this.dictionary = null;
 		this.ref = stream.readByte();
+		final boolean keyed = stream.readBoolean();
+		final int length = stream.readInt();
 
-		// int originalBytes = stream.readableBytes();
-
-		final GZIPInputStream gzReader = new GZIPInputStream( new InputStream()
+		if( length < 0 || length > UNCOMPRESSED_PACKET_BYTE_LIMIT )
 		{
-			@Override
-			public int read() throws IOException
-			{
-				if( stream.readableBytes() <= 0 )
-				{
-					return -1;
-				}
-
-				return stream.readByte() & STREAM_MASK;
-			}
-		} );
+			throw new IOException( "Invalid ME inventory update length " + length );
+		}
 
-		final ByteBuf uncompressed = Unpooled.buffer( stream.readableBytes() );
-		final byte[] tmp = new byte[TEMP_BUFFER_SIZE];
-		while( gzReader.available() != 0 )
+		final ByteBuf uncompressed = Unpooled.buffer( length, length );
+		if( length > 0 )
 		{
-			final int bytes = gzReader.read( tmp );
-			if( bytes > 0 )
-			{
-				uncompressed.writeBytes( tmp, 0, bytes );
-			}
+			inflate( stream, uncompressed );
 		}
-		gzReader.close();
 
-		// int uncompressedBytes = uncompressed.readableBytes();
-		// AELog.info( "Receiver: " + originalBytes + " -> " + uncompressedBytes );
+		if( keyed )
+		{
+			this.list = null;
+			this.keyedData = uncompressed;
+			this.empty = !uncompressed.isReadable();
+			return;
+		}
 
+		this.keyedData = null;
+		this.list = new LinkedList<>();
 		while( uncompressed.readableBytes() > 0 )
 		{
 			this.list.add( AEItemStack.loadItemStackFromPacket( uncompressed ) );
@@ -127,22 +134,50 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 
 	// api
 	public PacketMEInventoryUpdate( final byte ref ) throws IOException
+	{
+		this( ref, null );
+	}
+
+	/**
+	 * Creates an update for a terminal session, items already known to the client are sent as an id and their counts.
+	 *
+	 * @param dictionary the session's dictionary, updated as items are appended
+	 */
+	public PacketMEInventoryUpdate( final ItemKeyDictionary dictionary ) throws IOException
+	{
+		this( (byte) 0, dictionary );
+	}
+
+	/**
+	 * @param byteLimit uncompressed bytes after which {@link #appendItem} overflows, used to split large initial syncs
+	 * into several packets; 0 for the largest packet possible
+	 */
+	public PacketMEInventoryUpdate( final ItemKeyDictionary dictionary, final int byteLimit ) throws IOException
+	{
+		this( (byte) 0, dictionary, byteLimit );
+	}
+
+	private PacketMEInventoryUpdate( final byte ref, @Nullable final ItemKeyDictionary dictionary ) throws IOException
+	{
+		this( ref, dictionary, 0 );
+	}
+
+	private PacketMEInventoryUpdate( final byte ref, @Nullable final ItemKeyDictionary dictionary, final int byteLimit ) throws IOException
 	{
 		this.ref = ref;
+		this.dictionary = dictionary;
+		this.byteLimit = byteLimit > 0 ? Math.min( byteLimit, UNCOMPRESSED_PACKET_BYTE_LIMIT ) : UNCOMPRESSED_PACKET_BYTE_LIMIT;
 		this.data = Unpooled.buffer( OPERATION_BYTE_LIMIT );
 		this.data.writeInt( this.getPacketID() );
 		this.data.writeByte( this.ref );
+		this.data.writeBoolean( dictionary != null );
 
-		this.compressFrame = new GZIPOutputStream( new OutputStream()
-		{
-			@Override
-			public void write( final int value ) throws IOException
-			{
-				PacketMEInventoryUpdate.this.data.writeByte( value );
-			}
-		} );
+		// uncompressed length, known once the packet is finished.
+		this.lengthIndex = this.data.writerIndex();
+		this.data.writeInt( 0 );
 
 		this.list = null;
+		this.keyedData = null;
 	}
 
 	@Override
@@ -156,14 +191,16 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 			( (GuiCraftConfirm) gs ).postUpdate( this.list, this.ref );
 		}
 
-		if( gs instanceof GuiCraftingCPU )
+		// the terminal may be covered by another screen, e.g. a recipe view, and still has to follow the updates.
+		if( player.openContainer instanceof ContainerMEMonitorable )
 		{
-			( (GuiCraftingCPU) gs ).postUpdate( this.list, this.ref );
-		}
+			final ContainerMEMonitorable container = (ContainerMEMonitorable) player.openContainer;
+			final List<IAEItemStack> list = this.keyedData == null ? this.list : this.readKeyed( container );
 
-		if( gs instanceof GuiMEMonitorable )
-		{
-			( (GuiMEMonitorable) gs ).postUpdate( this.list );
+			if( container.getGui() instanceof GuiMEMonitorable )
+			{
+				( (GuiMEMonitorable) container.getGui() ).postUpdate( list );
+			}
 		}
 
 		if( gs instanceof GuiNetworkStatus )
@@ -172,40 +209,264 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 		}
 	}
 
-	@Nullable
-	@Override
-	public FMLProxyPacket getProxy()
+	@SideOnly( Side.CLIENT )
+	private List<IAEItemStack> readKeyed( final ContainerMEMonitorable container )
 	{
+		final ItemKeyDictionary dictionary = container.getClientDictionary();
+		final List<IAEItemStack> out = new LinkedList<>();
+
 		try
 		{
-			this.compressFrame.close();
+			while( this.keyedData.isReadable() )
+			{
+				final int key = ByteBufUtils.readVarInt( this.keyedData, MAX_VAR_INT_BYTES );
+				final int id = key >>> 1;
 
-			this.configureWrite( this.data );
-			return super.getProxy();
+				if( ( key & 1 ) != 0 )
+				{
+					final IAEItemStack definition = AEItemStack.loadItemStackFromPacket( this.keyedData );
+					if( definition != null )
+					{
+						dictionary.define( id, definition.copy() );
+						container.onDefinitionReceived();
+						out.add( definition );
+					}
+				}
+				else
+				{
+					final IAEItemStack is = AEItemStack.loadCountsFromPacket( dictionary.getDefinition( id ), this.keyedData );
+					if( is != null )
+					{
+						out.add( is );
+					}
+					else
+					{
+						AELog.debug( "Received counts for undefined item id %d", id );
+						container.requestResync();
+					}
+				}
+			}
 		}
 		catch( final IOException e )
 		{
 			AELog.debug( e );
 		}
 
-		return null;
+		return out;
+	}
+
+	private static void inflate( final ByteBuf stream, final ByteBuf out ) throws IOException
+	{
+		final int compressed = stream.readableBytes();
+		final byte[] input;
+		final int offset;
+
+		if( stream.hasArray() )
+		{
+			input = stream.array();
+			offset = stream.arrayOffset() + stream.readerIndex();
+		}
+		else
+		{
+			input = new byte[compressed];
+			stream.getBytes( stream.readerIndex(), input );
+			offset = 0;
+		}
+
+		final Inflater inflater = CompressionPool.takeInflater();
+		try
+		{
+			inflater.setInput( input, offset, compressed );
+
+			while( out.isWritable() )
+			{
+				final int remaining = inflater.getRemaining();
+				final int bytes = inflater.inflate( out.array(), out.arrayOffset() + out.writerIndex(), out.writableBytes() );
+
+				// a stream ending early, or one that stops consuming input, would never fill the buffer.
+				if( bytes == 0 && ( inflater.finished() || inflater.needsInput() || inflater.needsDictionary() || inflater.getRemaining() == remaining ) )
+				{
+					throw new IOException( "Truncated ME inventory update" );
+				}
+
+				out.writerIndex( out.writerIndex() + bytes );
+			}
+		}
+		catch( final DataFormatException e )
+		{
+			throw new IOException( e );
+		}
+		finally
+		{
+			CompressionPool.giveBack( inflater );
+		}
+
+		stream.skipBytes( compressed );
+	}
+
+	@Override
+	public FMLProxyPacket getProxy()
+	{
+		// every send reads its own view of the finished buffer, so one encoded packet can go to many players.
+		this.configureWrite( this.finish() );
+		return super.getProxy();
+	}
+
+	/**
+	 * Compresses the remaining entries on first use.
+	 *
+	 * @return a view of the complete packet, including its id
+	 */
+	ByteBuf finish()
+	{
+		if( !this.finished )
+		{
+			this.finished = true;
+
+			if( this.staging != null )
+			{
+				if( this.writtenBytes > 0 )
+				{
+					this.deflateStaging();
+					this.deflater.finish();
+					while( !this.deflater.finished() )
+					{
+						this.drainDeflater();
+					}
+
+					CompressionPool.giveBack( this.deflater );
+					this.deflater = null;
+				}
+
+				this.staging.release();
+				this.staging = null;
+			}
+
+			this.data.setInt( this.lengthIndex, this.writtenBytes );
+			this.data.capacity( this.data.readableBytes() );
+		}
+
+		return this.data.duplicate();
+	}
+
+	/**
+	 * Returns the pooled buffer and deflater of a packet which will not be sent, it cannot be used afterwards.
+	 */
+	public void release()
+	{
+		this.finished = true;
+
+		if( this.deflater != null )
+		{
+			CompressionPool.giveBack( this.deflater );
+			this.deflater = null;
+		}
+
+		if( this.staging != null )
+		{
+			this.staging.release();
+			this.staging = null;
+		}
+	}
+
+	private void deflateStaging()
+	{
+		if( this.deflater == null )
+		{
+			this.deflater = CompressionPool.takeDeflater();
+		}
+
+		this.deflater.setInput( this.staging.array(), this.staging.arrayOffset() + this.staging.readerIndex(), this.staging.readableBytes() );
+		while( !this.deflater.needsInput() )
+		{
+			this.drainDeflater();
+		}
+
+		this.staging.clear();
+	}
+
+	private void drainDeflater()
+	{
+		this.data.ensureWritable( OPERATION_BYTE_LIMIT );
+
+		final int bytes = this.deflater.deflate( this.data.array(), this.data.arrayOffset() + this.data.writerIndex(), this.data.writableBytes() );
+		this.data.writerIndex( this.data.writerIndex() + bytes );
 	}
 
 	public void appendItem( final IAEItemStack is ) throws IOException, BufferOverflowException
 	{
-		final ByteBuf tmp = Unpooled.buffer( OPERATION_BYTE_LIMIT );
-		is.writeToPacket( tmp );
+		this.appendItem( is, false );
+	}
+
+	/**
+	 * @param define send the full item even if the session already assigned it an id, e.g. for a fresh inventory
+	 */
+	public void appendItem( final IAEItemStack is, final boolean define ) throws IOException, BufferOverflowException
+	{
+		if( this.finished )
+		{
+			throw new IllegalStateException( "Packet was already sent" );
+		}
 
-		this.compressFrame.flush();
-		if( this.writtenBytes + tmp.readableBytes() > UNCOMPRESSED_PACKET_BYTE_LIMIT )
+		if( this.staging == null )
 		{
+			this.staging = PooledByteBufAllocator.DEFAULT.heapBuffer( STAGING_BYTES );
+		}
+
+		final ByteBuf tmp = this.staging;
+		final int start = tmp.writerIndex();
+		int newId = -1;
+
+		try
+		{
+			if( this.dictionary == null )
+			{
+				is.writeToPacket( tmp );
+			}
+			else
+			{
+				final int id = this.dictionary.getId( is );
+				if( id < 0 || define )
+				{
+					newId = id < 0 ? this.dictionary.nextId() : id;
+					ByteBufUtils.writeVarInt( tmp, newId << 1 | 1, MAX_VAR_INT_BYTES );
+					is.writeToPacket( tmp );
+				}
+				else
+				{
+					ByteBufUtils.writeVarInt( tmp, id << 1, MAX_VAR_INT_BYTES );
+					( (AEStack<?>) is ).writeCountsToPacket( tmp );
+				}
+			}
+		}
+		catch( final IOException | RuntimeException e )
+		{
+			// callers drop the packet on failure, it would never reach finish().
+			this.release();
+			throw e;
+		}
+
+		final int written = tmp.writerIndex() - start;
+
+		// a single entry always fits, even past a small split limit.
+		if( !this.empty && this.writtenBytes + written > this.byteLimit )
+		{
+			tmp.writerIndex( start );
 			throw new BufferOverflowException();
 		}
-		else
+
+		this.writtenBytes += written;
+		this.empty = false;
+
+		// only claim the id once the definition is in the packet, an overflow is retried in a new one.
+		if( newId >= 0 )
+		{
+			this.dictionary.assign( is, newId );
+		}
+
+		if( tmp.readableBytes() >= STAGING_BYTES )
 		{
-			this.writtenBytes += tmp.readableBytes();
-			this.compressFrame.write( tmp.array(), 0, tmp.readableBytes() );
-			this.empty = false;
+			this.deflateStaging();
 		}
 	}
 
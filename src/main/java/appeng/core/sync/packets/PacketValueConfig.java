@@ -45,6 +45,7 @@ import appeng.container.implementations.ContainerCraftConfirm;
 import appeng.container.implementations.ContainerCraftingCPU;
 import appeng.container.implementations.ContainerCraftingStatus;
 import appeng.container.implementations.ContainerLevelEmitter;
+import appeng.container.implementations.ContainerMEMonitorable;
 import appeng.container.implementations.ContainerNetworkTool;
 import appeng.container.implementations.ContainerPatternTerm;
 import appeng.container.implementations.ContainerPriority;
@@ -129,6 +130,10 @@ public class PacketValueConfig extends AppEngPacket
 			final ContainerCraftConfirm qk = (ContainerCraftConfirm) c;
 			qk.cycleCpu( this.Value.equals( "Next" ) );
 		}
+		else if( this.Name.equals( "Terminal.Resync" ) && c instanceof ContainerMEMonitorable )
+		{
+			( (ContainerMEMonitorable) c ).resyncInventory( player );
+		}
 		else if( this.Name.equals( "Terminal.Start" ) && c instanceof ContainerCraftConfirm )
 		{
 			final ContainerCraftConfirm qk = (ContainerCraftConfirm) c;
@@ -59,6 +59,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 	private final HashMap<String, TwoIntegers> opsAndMultiplier = new HashMap<>();
 	private final Object monitor = new Object();
 	private final Stopwatch watch = Stopwatch.createUnstarted();
+	private final Stopwatch calculation = Stopwatch.createStarted();
 	private CraftingTreeNode tree;
 	private final IAEItemStack output;
 	private boolean simulate = false;
@@ -70,6 +71,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 	private boolean done = false;
 	private int time = 5;
 	private int incTime = Integer.MAX_VALUE;
+	private long steps = 0;
 
 	private World wrapWorld( final World w )
 	{
@@ -219,6 +221,8 @@ public class CraftingJob implements Runnable, ICraftingJob
 
 	void handlePausing() throws InterruptedException
 	{
+		this.steps++;
+
 		if( this.incTime > 100 )
 		{
 			this.incTime = 0;
@@ -264,6 +268,11 @@ public class CraftingJob implements Runnable, ICraftingJob
 
 		synchronized( this.monitor )
 		{
+			if( this.calculation.isRunning() )
+			{
+				this.calculation.stop();
+			}
+
 			this.running = false;
 			this.done = true;
 			this.monitor.notify();
@@ -302,6 +311,49 @@ public class CraftingJob implements Runnable, ICraftingJob
 		return this.done;
 	}
 
+	/**
+	 * The calculation only advances while the main thread waits in {@link #simulateFor(int)}, so between two slices
+	 * the tree can be walked for the partial result.
+	 *
+	 * @param missing receives the items found missing so far
+	 *
+	 * @return the bytes used so far, or -1 if the calculation is currently running
+	 */
+	public long getPartialPlan( final IItemList<IAEItemStack> missing )
+	{
+		synchronized( this.monitor )
+		{
+			if( this.running || this.getTree() == null )
+			{
+				return -1;
+			}
+
+			return this.getTree().getPartialPlan( missing );
+		}
+	}
+
+	/**
+	 * @return number of tree requests processed so far
+	 */
+	public long getSteps()
+	{
+		synchronized( this.monitor )
+		{
+			return this.steps;
+		}
+	}
+
+	/**
+	 * @return milliseconds since the job was created, until it finished
+	 */
+	public long getCalculationTime()
+	{
+		synchronized( this.monitor )
+		{
+			return this.calculation.elapsed( TimeUnit.MILLISECONDS );
+		}
+	}
+
 	World getWorld()
 	{
 		return this.world;
@@ -325,6 +325,23 @@ public class CraftingTreeNode
 		}
 	}
 
+	long getPartialPlan( final IItemList<IAEItemStack> missing )
+	{
+		if( this.missing > 0 )
+		{
+			missing.add( this.getStack( this.missing ) );
+		}
+
+		long bytes = 8 + this.bytes;
+
+		for( final CraftingTreeProcess pro : this.nodes )
+		{
+			bytes += pro.getPartialPlan( missing );
+		}
+
+		return bytes;
+	}
+
 	IAEItemStack getStack( final long size )
 	{
 		final IAEItemStack is = this.what.copy();
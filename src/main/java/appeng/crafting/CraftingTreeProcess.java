@@ -260,6 +260,18 @@ public class CraftingTreeProcess
 		job.addBytes( 8 + this.crafts + this.bytes );
 	}
 
+	long getPartialPlan( final IItemList<IAEItemStack> missing )
+	{
+		long bytes = 8 + this.crafts + this.bytes;
+
+		for( final CraftingTreeNode pro : this.nodes.keySet() )
+		{
+			bytes += pro.getPartialPlan( missing );
+		}
+
+		return bytes;
+	}
+
 	IAEItemStack getAmountCrafted( IAEItemStack what2 )
 	{
 		for( final IAEItemStack is : this.details.getCondensedOutputs() )
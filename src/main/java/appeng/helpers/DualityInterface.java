@@ -19,12 +19,15 @@
 package appeng.helpers;
 
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Optional;
 
 import javax.annotation.Nullable;
@@ -48,10 +51,12 @@ import net.minecraft.world.World;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.items.CapabilityItemHandler;
 import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
 import net.minecraftforge.items.wrapper.RangedWrapper;
 
 import appeng.api.AEApi;
 import appeng.api.config.Actionable;
+import appeng.api.config.PowerMultiplier;
 import appeng.api.config.Settings;
 import appeng.api.config.Upgrades;
 import appeng.api.config.YesNo;
@@ -69,6 +74,8 @@ import appeng.api.networking.energy.IEnergySource;
 import appeng.api.networking.events.MENetworkCraftingPatternChange;
 import appeng.api.networking.security.IActionHost;
 import appeng.api.networking.security.IActionSource;
+import appeng.api.networking.storage.IStackWatcher;
+import appeng.api.networking.storage.IStackWatcherHost;
 import appeng.api.networking.ticking.IGridTickable;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.networking.ticking.TickingRequest;
@@ -80,6 +87,8 @@ import appeng.api.storage.IStorageMonitorableAccessor;
 import appeng.api.storage.StorageChannel;
 import appeng.api.storage.data.IAEFluidStack;
 import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IAEStack;
+import appeng.api.storage.data.IItemList;
 import appeng.api.util.AECableType;
 import appeng.api.util.AEPartLocation;
 import appeng.api.util.DimensionalCoord;
@@ -87,6 +96,8 @@ import appeng.api.util.IConfigManager;
 import appeng.capabilities.Capabilities;
 import appeng.core.settings.TickRates;
 import appeng.me.GridAccessException;
+import appeng.me.cache.InterfaceDirectoryCache;
+import appeng.me.cache.NetworkMonitor;
 import appeng.me.helpers.AENetworkProxy;
 import appeng.me.helpers.MachineSource;
 import appeng.me.storage.MEMonitorIInventory;
@@ -107,13 +118,18 @@ import appeng.util.inv.InvOperation;
 import appeng.util.item.AEItemStack;
 
 
-public class DualityInterface implements IGridTickable, IStorageMonitorable, IInventoryDestination, IAEAppEngInventory, IConfigManagerHost, ICraftingProvider, IUpgradeableHost, IPriorityHost
+public class DualityInterface implements IGridTickable, IStorageMonitorable, IInventoryDestination, IAEAppEngInventory, IConfigManagerHost, ICraftingProvider, IUpgradeableHost, IPriorityHost, IStackWatcherHost
 {
 
 	public static final int NUMBER_OF_STORAGE_SLOTS = 9;
 	public static final int NUMBER_OF_CONFIG_SLOTS = 9;
 	public static final int NUMBER_OF_PATTERN_SLOTS = 9;
 
+	/**
+	 * How many pattern batches may wait in the outbound queue before the interface stops accepting new ones.
+	 */
+	private static final int MAX_QUEUED_BATCHES = 4;
+
 	private static final Collection<Block> BAD_BLOCKS = new HashSet<>( 100 );
 	private final IAEItemStack[] requireWork = { null, null, null, null, null, null, null, null, null };
 	private final MultiCraftingTracker craftingTracker;
@@ -132,6 +148,15 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 	private int priority;
 	private List<ICraftingPatternDetails> craftingList = null;
 	private List<ItemStack> waitingToSend = null;
+	private int queuedBatches = 0;
+	private int plannedSlots = 0;
+	private final List<IAEItemStack> missing = new ArrayList<>();
+	private boolean needsPolling = false;
+	private IStackWatcher watcher;
+	private final TileEntity[] targetTiles = new TileEntity[6];
+	private final InventoryAdaptor[] targetAdaptors = new InventoryAdaptor[6];
+	private final InventoryAdaptor[] slotAdaptors = new InventoryAdaptor[NUMBER_OF_STORAGE_SLOTS];
+	private int resolvedTargets = 0;
 	private IMEInventory<IAEItemStack> destination;
 	private int isWorking = -1;
 	private final Accessor accessor = new Accessor();
@@ -174,9 +199,14 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		{
 			this.readConfig();
 		}
-		else if( inv == this.patterns && ( !removed.isEmpty() || !added.isEmpty() ) )
+		else if( inv == this.patterns )
 		{
-			this.updateCraftingList();
+			if( !removed.isEmpty() || !added.isEmpty() )
+			{
+				this.updateCraftingList();
+			}
+
+			this.notifyTerminals();
 		}
 		else if( inv == this.storage && slot >= 0 )
 		{
@@ -184,26 +214,30 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 
 			this.updatePlan( slot );
 
-			final boolean now = this.hasWorkToDo();
+			this.alertOrSleep( had );
+		}
+	}
 
-			if( had != now )
+	/**
+	 * Wakes the interface whenever work is left after a change, even when it already had work and sleeps on its
+	 * watcher, and puts it to sleep once the last of its work went away.
+	 */
+	private void alertOrSleep( final boolean had )
+	{
+		try
+		{
+			if( this.hasWorkToDo() )
 			{
-				try
-				{
-					if( now )
-					{
-						this.gridProxy.getTick().alertDevice( this.gridProxy.getNode() );
-					}
-					else
-					{
-						this.gridProxy.getTick().sleepDevice( this.gridProxy.getNode() );
-					}
-				}
-				catch( final GridAccessException e )
-				{
-					// :P
-				}
+				this.gridProxy.getTick().alertDevice( this.gridProxy.getNode() );
 			}
+			else if( had )
+			{
+				this.gridProxy.getTick().sleepDevice( this.gridProxy.getNode() );
+			}
+		}
+		catch( final GridAccessException e )
+		{
+			// :P
 		}
 	}
 
@@ -246,6 +280,7 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 				}
 			}
 		}
+		this.queuedBatches = this.hasItemsToSend() ? 1 : 0;
 
 		this.craftingTracker.readFromNBT( data );
 		this.upgrades.readFromNBT( data, "upgrades" );
@@ -302,26 +337,7 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 			this.updatePlan( x );
 		}
 
-		final boolean has = this.hasWorkToDo();
-
-		if( had != has )
-		{
-			try
-			{
-				if( has )
-				{
-					this.gridProxy.getTick().alertDevice( this.gridProxy.getNode() );
-				}
-				else
-				{
-					this.gridProxy.getTick().sleepDevice( this.gridProxy.getNode() );
-				}
-			}
-			catch( final GridAccessException e )
-			{
-				// :P
-			}
-		}
+		this.alertOrSleep( had );
 
 		this.notifyNeighbors();
 	}
@@ -387,19 +403,25 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		}
 		else
 		{
-			for( final IAEItemStack requiredWork : this.requireWork )
-			{
-				if( requiredWork != null )
-				{
-					return true;
-				}
-			}
-
-			return false;
+			return this.plannedSlots != 0;
 		}
 	}
 
 	private void updatePlan( final int slot )
+	{
+		this.requireWork[slot] = this.computePlan( slot );
+
+		if( this.requireWork[slot] != null )
+		{
+			this.plannedSlots |= 1 << slot;
+		}
+		else
+		{
+			this.plannedSlots &= ~( 1 << slot );
+		}
+	}
+
+	private IAEItemStack computePlan( final int slot )
 	{
 		IAEItemStack req = this.config.getAEStackInSlot( slot );
 		if( req != null && req.getStackSize() <= 0 )
@@ -413,37 +435,32 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		if( req == null && !stored.isEmpty() )
 		{
 			final IAEItemStack work = AEApi.instance().storage().createItemStack( stored );
-			this.requireWork[slot] = work.setStackSize( -work.getStackSize() );
-			return;
+			return work.setStackSize( -work.getStackSize() );
 		}
 		else if( req != null )
 		{
 			if( stored.isEmpty() ) // need to add stuff!
 			{
-				this.requireWork[slot] = req.copy();
-				return;
+				return req.copy();
 			}
 			else if( req.isSameType( stored ) ) // same type ( qty different? )!
 			{
 				if( req.getStackSize() != stored.getCount() )
 				{
-					this.requireWork[slot] = req.copy();
-					this.requireWork[slot].setStackSize( req.getStackSize() - stored.getCount() );
-					return;
+					return req.copy().setStackSize( req.getStackSize() - stored.getCount() );
 				}
 			}
 			else
 			// Stored != null; dispose!
 			{
 				final IAEItemStack work = AEApi.instance().storage().createItemStack( stored );
-				this.requireWork[slot] = work.setStackSize( -work.getStackSize() );
-				return;
+				return work.setStackSize( -work.getStackSize() );
 			}
 		}
 
 		// else
 
-		this.requireWork[slot] = null;
+		return null;
 	}
 
 	public void notifyNeighbors()
@@ -581,7 +598,65 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		}
 
 		final boolean couldDoWork = this.updateStorage();
-		return this.hasWorkToDo() ? ( couldDoWork ? TickRateModulation.URGENT : TickRateModulation.SLOWER ) : TickRateModulation.SLEEP;
+
+		if( !this.hasWorkToDo() )
+		{
+			return TickRateModulation.SLEEP;
+		}
+
+		if( couldDoWork )
+		{
+			return TickRateModulation.URGENT;
+		}
+
+		if( this.hasItemsToSend() || this.needsPolling || this.isCrafting() || this.watcher == null )
+		{
+			return TickRateModulation.SLOWER;
+		}
+
+		// only waiting for items the network does not have, the watcher wakes the interface once they show up
+		this.watcher.reset();
+		for( final IAEItemStack m : this.missing )
+		{
+			this.watcher.add( m );
+		}
+
+		return TickRateModulation.SLEEP;
+	}
+
+	private boolean isCrafting()
+	{
+		for( int x = 0; x < NUMBER_OF_STORAGE_SLOTS; x++ )
+		{
+			if( this.craftingTracker.isBusy( x ) )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public void updateWatcher( final IStackWatcher newWatcher )
+	{
+		this.watcher = newWatcher;
+	}
+
+	@Override
+	public void onStackChange( final IItemList o, final IAEStack fullStack, final IAEStack diffStack, final IActionSource src, final StorageChannel chan )
+	{
+		if( chan == StorageChannel.ITEMS && this.hasWorkToDo() )
+		{
+			try
+			{
+				this.gridProxy.getTick().alertDevice( this.gridProxy.getNode() );
+			}
+			catch( final GridAccessException e )
+			{
+				// :P
+			}
+		}
 	}
 
 	private void pushItemsOut( final EnumSet<EnumFacing> possibleDirections )
@@ -591,35 +666,17 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 			return;
 		}
 
-		final TileEntity tile = this.iHost.getTileEntity();
-		final World w = tile.getWorld();
-
-		final Iterator<ItemStack> i = this.waitingToSend.iterator();
+		final ListIterator<ItemStack> i = this.waitingToSend.listIterator();
 		while( i.hasNext() )
 		{
 			ItemStack whatToSend = i.next();
 
 			for( final EnumFacing s : possibleDirections )
 			{
-				final TileEntity te = w.getTileEntity( tile.getPos().offset( s ) );
-				if( te == null )
-				{
-					continue;
-				}
-
-				final InventoryAdaptor ad = InventoryAdaptor.getAdaptor( te, s.getOpposite() );
+				final InventoryAdaptor ad = this.getTargetAdaptor( s );
 				if( ad != null )
 				{
-					final ItemStack result = ad.addItems( whatToSend );
-
-					if( result.isEmpty() )
-					{
-						whatToSend = ItemStack.EMPTY;
-					}
-					else
-					{
-						whatToSend.setCount( whatToSend.getCount() - ( whatToSend.getCount() - result.getCount() ) );
-					}
+					whatToSend = ad.addItems( whatToSend );
 
 					if( whatToSend.isEmpty() )
 					{
@@ -632,125 +689,339 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 			{
 				i.remove();
 			}
+			else
+			{
+				i.set( whatToSend );
+			}
 		}
 
 		if( this.waitingToSend.isEmpty() )
 		{
 			this.waitingToSend = null;
+			this.queuedBatches = 0;
 		}
 	}
 
+	/**
+	 * Works off the plans of all slots as one transaction. Surpluses are stored first, so slots holding the wrong item
+	 * are free again, then the deficits are requested. Identical items of several slots share one network operation
+	 * and the power for both steps is checked and drawn once.
+	 */
 	private boolean updateStorage()
 	{
-		boolean didSomething = false;
-
-		for( int x = 0; x < NUMBER_OF_STORAGE_SLOTS; x++ )
-		{
-			if( this.requireWork[x] != null )
-			{
-				didSomething = this.usePlan( x, this.requireWork[x] ) || didSomething;
-			}
-		}
-
-		return didSomething;
-	}
-
-	private boolean usePlan( final int x, final IAEItemStack itemStack )
-	{
-		final InventoryAdaptor adaptor = this.getAdaptor( x );
-		this.isWorking = x;
+		this.missing.clear();
+		this.needsPolling = false;
 
-		boolean changed = false;
 		try
 		{
 			this.destination = this.gridProxy.getStorage().getItemInventory();
-			final IEnergySource src = this.gridProxy.getEnergy();
+			final IEnergySource energy = this.gridProxy.getEnergy();
 
-			if( this.craftingTracker.isBusy( x ) )
+			boolean didSomething = false;
+			long total = 0;
+			for( int x = 0; x < NUMBER_OF_STORAGE_SLOTS; x++ )
 			{
-				changed = this.handleCrafting( x, adaptor, itemStack ) || changed;
-			}
-			else if( itemStack.getStackSize() > 0 )
-			{
-				// make sure strange things didn't happen...
-				if( !adaptor.simulateAdd( itemStack.createItemStack() ).isEmpty() )
+				if( this.requireWork[x] == null )
 				{
-					changed = true;
-					throw new GridAccessException();
+					continue;
 				}
 
-				final IAEItemStack acquired = Platform.poweredExtraction( src, this.destination, itemStack, this.interfaceRequestSource );
-				if( acquired != null )
+				if( this.craftingTracker.isBusy( x ) )
 				{
-					changed = true;
-					final ItemStack issue = adaptor.addItems( acquired.createItemStack() );
-					if( !issue.isEmpty() )
+					if( this.handleCrafting( x, this.getAdaptor( x ), this.requireWork[x] ) )
+					{
+						didSomething = true;
+					}
+					else
 					{
-						throw new IllegalStateException( "bad attempt at managing inventory. ( addItems )" );
+						// a job which could not be submitted, e.g. without a free CPU, is dropped and has to be retried
+						this.needsPolling = true;
 					}
 				}
 				else
 				{
-					changed = this.handleCrafting( x, adaptor, itemStack ) || changed;
+					total += Math.abs( this.requireWork[x].getStackSize() );
 				}
 			}
-			else if( itemStack.getStackSize() < 0 )
+
+			if( total == 0 )
 			{
-				IAEItemStack toStore = itemStack.copy();
-				toStore.setStackSize( -toStore.getStackSize() );
+				return didSomething;
+			}
 
-				long diff = toStore.getStackSize();
+			final long budget = Math.min( total, (long) ( energy.extractAEPower( total, Actionable.SIMULATE, PowerMultiplier.CONFIG ) + 0.9 ) );
+			this.needsPolling |= budget < total;
+			final long stored = this.storeSurplus( budget );
+			final long acquired = this.fillDeficits( budget - stored );
 
-				// make sure strange things didn't happen...
-				// TODO: check if OK
-				final ItemStack canExtract = adaptor.simulateRemove( (int) diff, toStore.getDefinition(), null );
-				if( canExtract.isEmpty() || canExtract.getCount() != diff )
-				{
-					changed = true;
-					throw new GridAccessException();
-				}
+			if( stored + acquired > 0 )
+			{
+				energy.extractAEPower( stored + acquired, Actionable.MODULATE, PowerMultiplier.CONFIG );
+				didSomething = true;
+			}
+
+			return didSomething;
+		}
+		catch( final GridAccessException e )
+		{
+			return false;
+		}
+		finally
+		{
+			this.isWorking = -1;
+		}
+	}
+
+	/**
+	 * @return the number of items moved into the network
+	 */
+	private long storeSurplus( final long budget )
+	{
+		final IItemList<IAEItemStack> merged = StorageChannel.ITEMS.createList();
+		final IAEItemStack[] slotWork = new IAEItemStack[NUMBER_OF_STORAGE_SLOTS];
+
+		for( int x = 0; x < NUMBER_OF_STORAGE_SLOTS; x++ )
+		{
+			final IAEItemStack work = this.requireWork[x];
+			if( work == null || work.getStackSize() >= 0 || this.craftingTracker.isBusy( x ) )
+			{
+				continue;
+			}
+
+			final IAEItemStack toStore = work.copy();
+			toStore.setStackSize( -work.getStackSize() );
 
-				toStore = Platform.poweredInsert( src, this.destination, toStore, this.interfaceRequestSource );
+			// make sure strange things didn't happen...
+			final ItemStack canExtract = this.getAdaptor( x ).simulateRemove( (int) toStore.getStackSize(), toStore.getDefinition(), null );
+			if( canExtract.isEmpty() || canExtract.getCount() != toStore.getStackSize() )
+			{
+				this.updatePlan( x );
+				continue;
+			}
+
+			slotWork[x] = toStore;
+			merged.add( toStore );
+		}
 
-				if( toStore != null )
+		final List<IAEItemStack> planned = this.plan( merged, budget, true );
+		final List<IAEItemStack> leftovers;
+		if( this.destination instanceof NetworkMonitor )
+		{
+			leftovers = ( (NetworkMonitor<IAEItemStack>) this.destination ).injectAll( Platform.copyStacks( planned ), this.interfaceRequestSource );
+		}
+		else
+		{
+			leftovers = new ArrayList<>( planned.size() );
+			for( final IAEItemStack p : planned )
+			{
+				leftovers.add( this.destination.injectItems( p.copy(), Actionable.MODULATE, this.interfaceRequestSource ) );
+			}
+		}
+
+		final IItemList<IAEItemStack> moved = StorageChannel.ITEMS.createList();
+		long total = 0;
+		for( int i = 0; i < planned.size(); i++ )
+		{
+			final IAEItemStack p = planned.get( i );
+			if( leftovers.get( i ) != null )
+			{
+				p.decStackSize( leftovers.get( i ).getStackSize() );
+			}
+			if( p.getStackSize() > 0 )
+			{
+				moved.add( p );
+				total += p.getStackSize();
+			}
+		}
+
+		for( int x = 0; x < NUMBER_OF_STORAGE_SLOTS; x++ )
+		{
+			if( slotWork[x] == null )
+			{
+				continue;
+			}
+
+			final IAEItemStack m = moved.findPrecise( slotWork[x] );
+			final int take = m == null ? 0 : (int) Math.min( m.getStackSize(), slotWork[x].getStackSize() );
+
+			if( take > 0 )
+			{
+				this.isWorking = x;
+				final ItemStack removed = this.getAdaptor( x ).removeItems( take, ItemStack.EMPTY, null );
+				if( removed.getCount() != take )
 				{
-					diff -= toStore.getStackSize();
+					throw new IllegalStateException( "bad attempt at managing inventory. ( removeItems )" );
 				}
+				m.decStackSize( take );
+				this.updatePlan( x );
+			}
+
+			// a full network does not tell anyone when it has room again
+			this.needsPolling |= take < slotWork[x].getStackSize();
+		}
+
+		return total;
+	}
+
+	/**
+	 * @return the number of items taken from the network
+	 */
+	private long fillDeficits( final long budget )
+	{
+		final IItemList<IAEItemStack> merged = StorageChannel.ITEMS.createList();
+		final IAEItemStack[] slotWork = new IAEItemStack[NUMBER_OF_STORAGE_SLOTS];
+
+		for( int x = 0; x < NUMBER_OF_STORAGE_SLOTS; x++ )
+		{
+			final IAEItemStack work = this.requireWork[x];
+			if( work == null || work.getStackSize() <= 0 || this.craftingTracker.isBusy( x ) )
+			{
+				continue;
+			}
+
+			// make sure strange things didn't happen...
+			if( !this.getAdaptor( x ).simulateAdd( work.createItemStack() ).isEmpty() )
+			{
+				this.updatePlan( x );
+				continue;
+			}
 
-				if( diff != 0 )
+			slotWork[x] = work;
+			merged.add( work.copy() );
+		}
+
+		final List<IAEItemStack> planned = this.plan( merged, budget, false );
+		final List<IAEItemStack> results;
+		if( this.destination instanceof NetworkMonitor )
+		{
+			results = ( (NetworkMonitor<IAEItemStack>) this.destination ).extractAll( Platform.copyStacks( planned ), this.interfaceRequestSource );
+		}
+		else
+		{
+			results = new ArrayList<>( planned.size() );
+			for( final IAEItemStack p : planned )
+			{
+				results.add( this.destination.extractItems( p.copy(), Actionable.MODULATE, this.interfaceRequestSource ) );
+			}
+		}
+
+		final IItemList<IAEItemStack> acquired = StorageChannel.ITEMS.createList();
+		long total = 0;
+		for( final IAEItemStack r : results )
+		{
+			if( r != null && r.getStackSize() > 0 )
+			{
+				acquired.add( r );
+				total += r.getStackSize();
+			}
+		}
+
+		for( int x = 0; x < NUMBER_OF_STORAGE_SLOTS; x++ )
+		{
+			if( slotWork[x] == null )
+			{
+				continue;
+			}
+
+			final InventoryAdaptor adaptor = this.getAdaptor( x );
+			final IAEItemStack a = acquired.findPrecise( slotWork[x] );
+			final long give = a == null ? 0 : Math.min( a.getStackSize(), slotWork[x].getStackSize() );
+
+			if( give > 0 )
+			{
+				this.isWorking = x;
+				final ItemStack issue = adaptor.addItems( a.copy().setStackSize( give ).createItemStack() );
+				a.decStackSize( give - issue.getCount() );
+				this.updatePlan( x );
+			}
+			else if( !this.handleCrafting( x, adaptor, slotWork[x] ) )
+			{
+				this.missing.add( slotWork[x] );
+			}
+		}
+
+		// whatever the slots did not take after all goes straight back
+		for( final IAEItemStack a : acquired )
+		{
+			if( a.getStackSize() > 0 )
+			{
+				final IAEItemStack rejected = this.destination.injectItems( a.copy(), Actionable.MODULATE, this.interfaceRequestSource );
+				final long kept = rejected == null ? 0 : rejected.getStackSize();
+				total -= a.getStackSize() - kept;
+
+				if( kept > 0 )
 				{
-					// extract items!
-					changed = true;
-					final ItemStack removed = adaptor.removeItems( (int) diff, ItemStack.EMPTY, null );
-					if( removed.isEmpty() )
-					{
-						throw new IllegalStateException( "bad attempt at managing inventory. ( removeItems )" );
-					}
-					else if( removed.getCount() != diff )
-					{
-						throw new IllegalStateException( "bad attempt at managing inventory. ( removeItems )" );
-					}
+					this.storeOrDrop( rejected.createItemStack() );
 				}
 			}
-			// else wtf?
 		}
-		catch( final GridAccessException e )
+
+		return total;
+	}
+
+	/**
+	 * Keeps items the network would not take back in the free space of the interface, or drops them if it is full.
+	 */
+	private void storeOrDrop( final ItemStack is )
+	{
+		this.isWorking = -1;
+		final ItemStack left = new AdaptorItemHandler( this.storage ).addItems( is );
+
+		if( !left.isEmpty() )
 		{
-			// :P
+			final TileEntity te = this.iHost.getTileEntity();
+			final List<ItemStack> drops = new ArrayList<>();
+			drops.add( left );
+			Platform.spawnDrops( te.getWorld(), te.getPos(), drops );
 		}
+	}
+
+	/**
+	 * Trims the merged stacks to what the network accepts or holds and to the power budget.
+	 */
+	private List<IAEItemStack> plan( final IItemList<IAEItemStack> merged, final long budget, final boolean inject )
+	{
+		final List<IAEItemStack> planned = new ArrayList<>( merged.size() );
+		long left = budget;
 
-		if( changed )
+		for( final IAEItemStack s : merged )
 		{
-			this.updatePlan( x );
+			if( left <= 0 )
+			{
+				break;
+			}
+
+			final long possible;
+			if( inject )
+			{
+				final IAEItemStack rejected = this.destination.injectItems( s.copy(), Actionable.SIMULATE, this.interfaceRequestSource );
+				possible = rejected == null ? s.getStackSize() : s.getStackSize() - rejected.getStackSize();
+			}
+			else
+			{
+				final IAEItemStack available = this.destination.extractItems( s.copy(), Actionable.SIMULATE, this.interfaceRequestSource );
+				possible = available == null ? 0 : available.getStackSize();
+			}
+
+			if( possible > 0 )
+			{
+				final IAEItemStack p = s.copy();
+				p.setStackSize( Math.min( possible, left ) );
+				planned.add( p );
+				left -= p.getStackSize();
+			}
 		}
 
-		this.isWorking = -1;
-		return changed;
+		return planned;
 	}
 
 	private InventoryAdaptor getAdaptor( final int slot )
 	{
-		return new AdaptorItemHandler( new RangedWrapper( this.storage, slot, slot + 1 ) );
+		if( this.slotAdaptors[slot] == null )
+		{
+			this.slotAdaptors[slot] = new AdaptorItemHandler( new RangedWrapper( this.storage, slot, slot + 1 ) );
+		}
+		return this.slotAdaptors[slot];
 	}
 
 	private boolean handleCrafting( final int x, final InventoryAdaptor d, final IAEItemStack itemStack )
@@ -848,9 +1119,31 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 			this.cancelCrafting();
 		}
 
+		if( settingName == Settings.INTERFACE_TERMINAL )
+		{
+			this.notifyTerminals();
+		}
+
 		this.markDirty();
 	}
 
+	/**
+	 * Lets the interface terminals on this grid know that the patterns, name or visibility of this interface may have
+	 * changed.
+	 */
+	public void notifyTerminals()
+	{
+		try
+		{
+			final InterfaceDirectoryCache directory = this.gridProxy.getGrid().getCache( InterfaceDirectoryCache.class );
+			directory.interfaceChanged( this.iHost );
+		}
+		catch( final GridAccessException e )
+		{
+			// :P
+		}
+	}
+
 	@Override
 	public IMEMonitor<IAEFluidStack> getFluidInventory()
 	{
@@ -896,18 +1189,27 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 	@Override
 	public boolean pushPattern( final ICraftingPatternDetails patternDetails, final InventoryCrafting table )
 	{
-		if( this.hasItemsToSend() || !this.gridProxy.isActive() || !this.craftingList.contains( patternDetails ) )
+		if( !this.gridProxy.isActive() || !this.craftingList.contains( patternDetails ) )
 		{
 			return false;
 		}
 
-		final TileEntity tile = this.iHost.getTileEntity();
-		final World w = tile.getWorld();
-
 		final EnumSet<EnumFacing> possibleDirections = this.iHost.getTargets();
+
+		if( this.hasItemsToSend() )
+		{
+			// make room first, then keep taking batches while the queue is short and blocking mode is off
+			this.pushItemsOut( possibleDirections );
+
+			if( this.hasItemsToSend() && ( this.isBlocking() || this.queuedBatches >= MAX_QUEUED_BATCHES ) )
+			{
+				return false;
+			}
+		}
+
 		for( final EnumFacing s : possibleDirections )
 		{
-			final TileEntity te = w.getTileEntity( tile.getPos().offset( s ) );
+			final TileEntity te = this.getTarget( s );
 			if( te instanceof IInterfaceHost )
 			{
 				try
@@ -936,7 +1238,7 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 				}
 			}
 
-			final InventoryAdaptor ad = InventoryAdaptor.getAdaptor( te, s.getOpposite() );
+			final InventoryAdaptor ad = this.getTargetAdaptor( s );
 			if( ad != null )
 			{
 				if( this.isBlocking() )
@@ -949,16 +1251,30 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 
 				if( this.acceptsItems( ad, table ) )
 				{
+					final boolean wasWaiting = this.hasItemsToSend();
+					boolean queued = false;
 					for( int x = 0; x < table.getSizeInventory(); x++ )
 					{
 						final ItemStack is = table.getStackInSlot( x );
 						if( !is.isEmpty() )
 						{
 							final ItemStack added = ad.addItems( is );
+							queued |= !added.isEmpty();
 							this.addToSendList( added );
 						}
 					}
-					this.pushItemsOut( possibleDirections );
+
+					if( queued )
+					{
+						if( !wasWaiting )
+						{
+							this.pushItemsOut( possibleDirections );
+						}
+						if( this.hasItemsToSend() )
+						{
+							this.queuedBatches++;
+						}
+					}
 					return true;
 				}
 			}
@@ -980,16 +1296,12 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		if( this.isBlocking() )
 		{
 			final EnumSet<EnumFacing> possibleDirections = this.iHost.getTargets();
-			final TileEntity tile = this.iHost.getTileEntity();
-			final World w = tile.getWorld();
 
 			boolean allAreBusy = true;
 
 			for( final EnumFacing s : possibleDirections )
 			{
-				final TileEntity te = w.getTileEntity( tile.getPos().offset( s ) );
-
-				final InventoryAdaptor ad = InventoryAdaptor.getAdaptor( te, s.getOpposite() );
+				final InventoryAdaptor ad = this.getTargetAdaptor( s );
 				if( ad != null )
 				{
 					if( ad.simulateRemove( 1, ItemStack.EMPTY, null ).isEmpty() )
@@ -1018,6 +1330,9 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 
 	private boolean acceptsItems( final InventoryAdaptor ad, final InventoryCrafting table )
 	{
+		// identical ingredients are simulated as one stack, which needs fewer passes over the target and also notices
+		// a target that has room for only one of them
+		final List<ItemStack> merged = new ArrayList<>( table.getSizeInventory() );
 		for( int x = 0; x < table.getSizeInventory(); x++ )
 		{
 			final ItemStack is = table.getStackInSlot( x );
@@ -1026,7 +1341,26 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 				continue;
 			}
 
-			if( !ad.simulateAdd( is.copy() ).isEmpty() )
+			boolean found = false;
+			for( final ItemStack m : merged )
+			{
+				if( ItemHandlerHelper.canItemStacksStack( m, is ) )
+				{
+					m.grow( is.getCount() );
+					found = true;
+					break;
+				}
+			}
+
+			if( !found )
+			{
+				merged.add( is.copy() );
+			}
+		}
+
+		for( final ItemStack is : merged )
+		{
+			if( !ad.simulateAdd( is ).isEmpty() )
 			{
 				return false;
 			}
@@ -1035,6 +1369,47 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		return true;
 	}
 
+	/**
+	 * @return the tile entity next to this interface on the given side, resolved once until the neighbours change.
+	 */
+	private TileEntity getTarget( final EnumFacing side )
+	{
+		final int bit = 1 << side.ordinal();
+		TileEntity te = this.targetTiles[side.ordinal()];
+
+		if( ( this.resolvedTargets & bit ) == 0 || ( te != null && te.isInvalid() ) )
+		{
+			final TileEntity tile = this.iHost.getTileEntity();
+			te = tile.getWorld().getTileEntity( tile.getPos().offset( side ) );
+
+			this.targetTiles[side.ordinal()] = te;
+			this.targetAdaptors[side.ordinal()] = InventoryAdaptor.getAdaptor( te, side.getOpposite() );
+			this.resolvedTargets |= bit;
+		}
+
+		return te;
+	}
+
+	@Nullable
+	private InventoryAdaptor getTargetAdaptor( final EnumFacing side )
+	{
+		this.getTarget( side );
+		return this.targetAdaptors[side.ordinal()];
+	}
+
+	/**
+	 * Forgets the cached neighbours. Call this when a neighbour or the facing of the host changes.
+	 */
+	public void targetsChanged()
+	{
+		this.resolvedTargets = 0;
+		Arrays.fill( this.targetTiles, null );
+		Arrays.fill( this.targetAdaptors, null );
+
+		// The terminal names interfaces after the machines next to them.
+		this.notifyTerminals();
+	}
+
 	@Override
 	public void provideCrafting( final ICraftingProviderHelper craftingTracker )
 	{
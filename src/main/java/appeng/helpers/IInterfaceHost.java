@@ -27,9 +27,10 @@ import net.minecraft.util.EnumFacing;
 import appeng.api.implementations.IUpgradeableHost;
 import appeng.api.networking.crafting.ICraftingProvider;
 import appeng.api.networking.crafting.ICraftingRequester;
+import appeng.api.networking.storage.IStackWatcherHost;
 
 
-public interface IInterfaceHost extends ICraftingProvider, IUpgradeableHost, ICraftingRequester
+public interface IInterfaceHost extends ICraftingProvider, IUpgradeableHost, ICraftingRequester, IStackWatcherHost
 {
 
 	DualityInterface getInterfaceDuality();
@@ -50,6 +50,7 @@ import appeng.core.sync.packets.PacketPaintedEntity;
 import appeng.crafting.CraftingJob;
 import appeng.me.Grid;
 import appeng.me.NetworkList;
+import appeng.me.profiling.GridProfiler;
 import appeng.tile.AEBaseTile;
 import appeng.util.IWorldCallable;
 import appeng.util.Platform;
@@ -218,6 +219,7 @@ public class TickHandler
 			}
 
 			// tick networks.
+			GridProfiler.INSTANCE.tick();
 			for( final Grid g : this.getRepo().networks )
 			{
 				g.update();
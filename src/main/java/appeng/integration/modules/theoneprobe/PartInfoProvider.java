@@ -36,6 +36,7 @@ import mcjty.theoneprobe.api.ProbeMode;
 
 import appeng.api.parts.IPart;
 import appeng.core.AppEng;
+import appeng.integration.modules.theoneprobe.part.AnnihilationPlaneInfoProvider;
 import appeng.integration.modules.theoneprobe.part.ChannelInfoProvider;
 import appeng.integration.modules.theoneprobe.part.IPartProbInfoProvider;
 import appeng.integration.modules.theoneprobe.part.P2PStateInfoProvider;
@@ -56,8 +57,9 @@ public final class PartInfoProvider implements IProbeInfoProvider
 		final IPartProbInfoProvider power = new PowerStateInfoProvider();
 		final IPartProbInfoProvider storageMonitor = new StorageMonitorInfoProvider();
 		final IPartProbInfoProvider p2p = new P2PStateInfoProvider();
+		final IPartProbInfoProvider planeWall = new AnnihilationPlaneInfoProvider();
 
-		this.providers = Lists.newArrayList( channel, power, p2p, storageMonitor );
+		this.providers = Lists.newArrayList( channel, power, p2p, planeWall, storageMonitor );
 	}
 
 	@Override
@@ -36,6 +36,8 @@ public enum TheOneProbeText
 	P2P_INPUT_ONE_OUTPUT,
 	P2P_INPUT_MANY_OUTPUTS,
 	P2P_OUTPUT,
+	P2P_THROUGHPUT,
+	PLANE_WALL_THROUGHPUT,
 
 	LOCKED,
 	UNLOCKED,
@@ -32,6 +32,7 @@ import mcjty.theoneprobe.api.ProbeMode;
 import appeng.api.parts.IPart;
 import appeng.integration.modules.theoneprobe.TheOneProbeText;
 import appeng.me.GridAccessException;
+import appeng.parts.p2p.PartP2PItems;
 import appeng.parts.p2p.PartP2PTunnel;
 
 
@@ -84,6 +85,12 @@ public class P2PStateInfoProvider implements IPartProbInfoProvider
 					probeInfo.text( getOutputText( outputCount ) );
 					break;
 			}
+
+			if( tunnel instanceof PartP2PItems && state != STATE_UNLINKED )
+			{
+				final long perSecond = ( (PartP2PItems) tunnel ).getItemsPerSecond();
+				probeInfo.text( String.format( TheOneProbeText.P2P_THROUGHPUT.getLocal(), perSecond ) );
+			}
 		}
 	}
 
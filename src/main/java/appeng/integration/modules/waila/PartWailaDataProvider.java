@@ -37,6 +37,7 @@ import mcp.mobius.waila.api.IWailaDataAccessor;
 import mcp.mobius.waila.api.IWailaDataProvider;
 
 import appeng.api.parts.IPart;
+import appeng.integration.modules.waila.part.AnnihilationPlaneWailaDataProvider;
 import appeng.integration.modules.waila.part.ChannelWailaDataProvider;
 import appeng.integration.modules.waila.part.IPartWailaDataProvider;
 import appeng.integration.modules.waila.part.P2PStateWailaDataProvider;
@@ -81,8 +82,9 @@ public final class PartWailaDataProvider implements IWailaDataProvider
 		final IPartWailaDataProvider powerState = new PowerStateWailaDataProvider();
 		final IPartWailaDataProvider p2pState = new P2PStateWailaDataProvider();
 		final IPartWailaDataProvider partStack = new PartStackWailaDataProvider();
+		final IPartWailaDataProvider planeWall = new AnnihilationPlaneWailaDataProvider();
 
-		this.providers = Lists.newArrayList( channel, storageMonitor, powerState, partStack, p2pState );
+		this.providers = Lists.newArrayList( channel, storageMonitor, powerState, partStack, p2pState, planeWall );
 	}
 
 	@Override
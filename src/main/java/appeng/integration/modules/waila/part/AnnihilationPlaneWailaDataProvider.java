@@ -0,0 +1,77 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.integration.modules.waila.part;
+
+
+import java.util.List;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import mcp.mobius.waila.api.IWailaConfigHandler;
+import mcp.mobius.waila.api.IWailaDataAccessor;
+
+import appeng.api.parts.IPart;
+import appeng.core.localization.WailaText;
+import appeng.parts.automation.PartAnnihilationPlane;
+
+
+/**
+ * Provides the item intake of an annihilation plane wall to WAILA.
+ */
+public final class AnnihilationPlaneWailaDataProvider extends BasePartWailaDataProvider
+{
+
+	public static final String TAG_WALL_THROUGHPUT = "wall_throughput";
+	public static final String TAG_WALL_SIZE = "wall_size";
+
+	@Override
+	public List<String> getWailaBody( final IPart part, final List<String> currentToolTip, final IWailaDataAccessor accessor, final IWailaConfigHandler config )
+	{
+		if( part instanceof PartAnnihilationPlane )
+		{
+			final NBTTagCompound nbtData = accessor.getNBTData();
+			if( nbtData.hasKey( TAG_WALL_THROUGHPUT ) )
+			{
+				currentToolTip.add( String.format( WailaText.PlaneWallThroughput.getLocal(), nbtData.getLong( TAG_WALL_THROUGHPUT ), nbtData.getInteger(
+						TAG_WALL_SIZE ) ) );
+			}
+		}
+
+		return currentToolTip;
+	}
+
+	@Override
+	public NBTTagCompound getNBTData( EntityPlayerMP player, IPart part, TileEntity te, NBTTagCompound tag, World world, BlockPos pos )
+	{
+		if( part instanceof PartAnnihilationPlane )
+		{
+			final PartAnnihilationPlane plane = (PartAnnihilationPlane) part;
+
+			tag.setLong( TAG_WALL_THROUGHPUT, plane.getWallItemsPerSecond() );
+			tag.setInteger( TAG_WALL_SIZE, plane.getWallSize() );
+		}
+
+		return tag;
+	}
+
+}
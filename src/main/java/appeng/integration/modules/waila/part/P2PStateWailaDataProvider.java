@@ -35,6 +35,7 @@ import mcp.mobius.waila.api.IWailaDataAccessor;
 import appeng.api.parts.IPart;
 import appeng.core.localization.WailaText;
 import appeng.me.GridAccessException;
+import appeng.parts.p2p.PartP2PItems;
 import appeng.parts.p2p.PartP2PTunnel;
 
 
@@ -48,6 +49,7 @@ public final class P2PStateWailaDataProvider extends BasePartWailaDataProvider
 	private static final int STATE_OUTPUT = 1;
 	private static final int STATE_INPUT = 2;
 	public static final String TAG_P2P_STATE = "p2p_state";
+	public static final String TAG_P2P_THROUGHPUT = "p2p_throughput";
 
 	/**
 	 * Adds state to the tooltip
@@ -87,6 +89,11 @@ public final class P2PStateWailaDataProvider extends BasePartWailaDataProvider
 					}
 				}
 			}
+
+			if( nbtData.hasKey( TAG_P2P_THROUGHPUT ) )
+			{
+				currentToolTip.add( String.format( WailaText.P2PThroughput.getLocal(), nbtData.getLong( TAG_P2P_THROUGHPUT ) ) );
+			}
 		}
 
 		return currentToolTip;
@@ -125,6 +132,11 @@ public final class P2PStateWailaDataProvider extends BasePartWailaDataProvider
 					state,
 					outputCount
 			} );
+
+			if( tunnel instanceof PartP2PItems && state != STATE_UNLINKED )
+			{
+				tag.setLong( TAG_P2P_THROUGHPUT, ( (PartP2PItems) tunnel ).getItemsPerSecond() );
+			}
 		}
 
 		return tag;
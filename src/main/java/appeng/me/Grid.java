@@ -38,6 +38,8 @@ import appeng.api.networking.events.MENetworkPostCacheConstruction;
 import appeng.api.util.IReadOnlyCollection;
 import appeng.core.worlddata.WorldData;
 import appeng.hooks.TickHandler;
+import appeng.me.profiling.GridProfiler;
+import appeng.me.profiling.ProfileCategory;
 import appeng.util.ReadOnlyCollection;
 
 
@@ -247,6 +249,11 @@ public class Grid implements IGrid
 		return s;
 	}
 
+	MachineSet getMachineSet( final Class<?> c )
+	{
+		return this.machines.get( c );
+	}
+
 	@Override
 	public IReadOnlyCollection<IGridNode> getNodes()
 	{
@@ -270,14 +277,47 @@ public class Grid implements IGrid
 		this.pivot = pivot;
 	}
 
+	/**
+	 * @return an estimate of the bytes retained by the nodes and connections of this grid.
+	 */
+	public long getMemoryFootprint()
+	{
+		long bytes = 0;
+		long connections = 0;
+
+		for( final MachineSet set : this.machines.values() )
+		{
+			for( final IGridNode node : set )
+			{
+				final GridNode gn = (GridNode) node;
+				bytes += gn.getMemoryFootprint();
+				connections += gn.getConnections().size();
+			}
+		}
+
+		// every connection is known to both of its sides.
+		return bytes + connections / 2 * GridConnection.CONNECTION_BYTES;
+	}
+
 	public void update()
 	{
-		for( final IGridCache gc : this.caches.values() )
+		final boolean profile = GridProfiler.isEnabled();
+
+		for( final GridCacheWrapper gc : this.caches.values() )
 		{
 			// are there any nodes left?
 			if( this.pivot != null )
 			{
-				gc.onUpdateTick();
+				if( profile )
+				{
+					final long start = System.nanoTime();
+					gc.onUpdateTick();
+					GridProfiler.INSTANCE.record( this, ProfileCategory.CACHE_TICK, gc.getName(), System.nanoTime() - start );
+				}
+				else
+				{
+					gc.onUpdateTick();
+				}
 			}
 		}
 	}
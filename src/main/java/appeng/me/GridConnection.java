@@ -48,8 +48,14 @@ public class GridConnection implements IGridConnection, IPathItem
 	private static final String EXISTING_CONNECTION_MESSAGE = "Connection between node [machine=%s, %s] and [machine=%s, %s] on [%s] already exists.";
 
 	private static final MENetworkChannelsChanged EVENT = new MENetworkChannelsChanged();
+
+	/**
+	 * rough shallow size of a connection, used for memory reports.
+	 */
+	static final int CONNECTION_BYTES = 40;
+
 	private int channelData = 0;
-	private Object visitorIterationNumber = null;
+	private int visitorIterationNumber = 0;
 	private GridNode sideA;
 	private AEPartLocation fromAtoB;
 	private GridNode sideB;
@@ -209,7 +215,7 @@ public class GridConnection implements IGridConnection, IPathItem
 	@Override
 	public IPathItem getControllerRoute()
 	{
-		if( this.sideA.getFlags().contains( GridFlags.CANNOT_CARRY ) )
+		if( this.sideA.hasFlag( GridFlags.CANNOT_CARRY ) )
 		{
 			return null;
 		}
@@ -257,6 +263,12 @@ public class GridConnection implements IGridConnection, IPathItem
 		return EnumSet.noneOf( GridFlags.class );
 	}
 
+	@Override
+	public boolean hasFlag( final GridFlags flag )
+	{
+		return false;
+	}
+
 	@Override
 	public void finalizeChannels()
 	{
@@ -282,12 +294,12 @@ public class GridConnection implements IGridConnection, IPathItem
 		return this.channelData & 0xff;
 	}
 
-	Object getVisitorIterationNumber()
+	int getVisitorIterationNumber()
 	{
 		return this.visitorIterationNumber;
 	}
 
-	void setVisitorIterationNumber( final Object visitorIterationNumber )
+	void setVisitorIterationNumber( final int visitorIterationNumber )
 	{
 		this.visitorIterationNumber = visitorIterationNumber;
 	}
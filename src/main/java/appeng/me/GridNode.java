@@ -19,12 +19,13 @@
 package appeng.me;
 
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Deque;
 import java.util.EnumSet;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
@@ -54,7 +55,6 @@ import appeng.core.worlddata.WorldData;
 import appeng.hooks.TickHandler;
 import appeng.me.pathfinding.IPathItem;
 import appeng.util.IWorldCallable;
-import appeng.util.ReadOnlyCollection;
 
 
 public class GridNode implements IGridNode, IPathItem
@@ -62,7 +62,23 @@ public class GridNode implements IGridNode, IPathItem
 	private static final MENetworkChannelsChanged EVENT = new MENetworkChannelsChanged();
 	private static final int[] CHANNEL_COUNT = { 0, 8, 32 };
 
-	private final List<IGridConnection> connections = new LinkedList<>();
+	/**
+	 * rough shallow sizes used by {@link #getMemoryFootprint()}, assuming compressed oops.
+	 */
+	private static final int NODE_BYTES = 72;
+	private static final int ARRAY_HEADER_BYTES = 16;
+	private static final int REFERENCE_BYTES = 4;
+
+	/**
+	 * reusable buffers for {@link #beginVisit(IGridVisitor)}, only handed out to one visit at a time.
+	 */
+	private static final VisitBuffers VISIT_BUFFERS = new VisitBuffers();
+	private static int visitEpoch = 0;
+
+	// one slot per side is enough for nearly every node, internal and tunnel connections grow the array.
+	private IGridConnection[] connections = new IGridConnection[6];
+	private int connectionCount = 0;
+	private final IReadOnlyCollection<IGridConnection> connectionView = new ConnectionView();
 	private final IGridBlock gridProxy;
 	// old power draw, used to diff
 	private double previousDraw = 0.0;
@@ -70,15 +86,18 @@ public class GridNode implements IGridNode, IPathItem
 	private int playerID = -1;
 	private GridStorage myStorage = null;
 	private Grid myGrid;
-	private Object visitorIterationNumber = null;
+	private int visitorIterationNumber = 0;
 	// connection criteria
 	private int compressedData = 0;
+	// cached GridFlags of the grid block, refreshed by updateState
+	private int flags = 0;
 	private int usedChannels = 0;
 	private int lastUsedChannels = 0;
 
 	public GridNode( final IGridBlock what )
 	{
 		this.gridProxy = what;
+		this.flags = this.compressFlags( what.getFlags() );
 	}
 
 	IGridBlock getGridProxy()
@@ -103,7 +122,12 @@ public class GridNode implements IGridNode, IPathItem
 
 	void addConnection( final IGridConnection gridConnection )
 	{
-		this.connections.add( gridConnection );
+		if( this.connectionCount == this.connections.length )
+		{
+			this.connections = Arrays.copyOf( this.connections, this.connections.length * 2 );
+		}
+
+		this.connections[this.connectionCount++] = gridConnection;
 		if( gridConnection.hasDirection() )
 		{
 			this.gridProxy.onGridNotification( GridNotification.CONNECTIONS_CHANGED );
@@ -111,22 +135,46 @@ public class GridNode implements IGridNode, IPathItem
 
 		final IGridNode gn = this;
 
-		Collections.sort( this.connections, new ConnectionComparator( gn ) );
+		Arrays.sort( this.connections, 0, this.connectionCount, new ConnectionComparator( gn ) );
 	}
 
 	void removeConnection( final IGridConnection gridConnection )
 	{
-		this.connections.remove( gridConnection );
+		final int idx = this.indexOfConnection( gridConnection );
+		if( idx >= 0 )
+		{
+			this.removeConnectionAt( idx );
+		}
+
 		if( gridConnection.hasDirection() )
 		{
 			this.gridProxy.onGridNotification( GridNotification.CONNECTIONS_CHANGED );
 		}
 	}
 
+	private int indexOfConnection( final Object gridConnection )
+	{
+		for( int x = 0; x < this.connectionCount; x++ )
+		{
+			if( this.connections[x] == gridConnection )
+			{
+				return x;
+			}
+		}
+		return -1;
+	}
+
+	private void removeConnectionAt( final int idx )
+	{
+		System.arraycopy( this.connections, idx + 1, this.connections, idx, this.connectionCount - idx - 1 );
+		this.connections[--this.connectionCount] = null;
+	}
+
 	boolean hasConnection( final IGridNode otherSide )
 	{
-		for( final IGridConnection gc : this.connections )
+		for( int x = 0; x < this.connectionCount; x++ )
 		{
+			final IGridConnection gc = this.connections[x];
 			if( gc.a() == otherSide || gc.b() == otherSide )
 			{
 				return true;
@@ -135,6 +183,14 @@ public class GridNode implements IGridNode, IPathItem
 		return false;
 	}
 
+	/**
+	 * @return an estimate of the bytes retained by this node and its connection array, excluding the grid block.
+	 */
+	public int getMemoryFootprint()
+	{
+		return NODE_BYTES + ARRAY_HEADER_BYTES + this.connections.length * REFERENCE_BYTES;
+	}
+
 	void validateGrid()
 	{
 		final GridSplitDetector gsd = new GridSplitDetector( this.getInternalGrid().getPivot() );
@@ -159,31 +215,52 @@ public class GridNode implements IGridNode, IPathItem
 	@Override
 	public void beginVisit( final IGridVisitor g )
 	{
-		final Object tracker = new Object();
+		// visitors may start another visit, these get their own buffers.
+		final VisitBuffers buffers = VISIT_BUFFERS.inUse ? new VisitBuffers() : VISIT_BUFFERS;
+		buffers.inUse = true;
 
-		LinkedList<GridNode> nextRun = new LinkedList<>();
+		try
+		{
+			this.visit( g, buffers );
+		}
+		finally
+		{
+			buffers.clear();
+			buffers.inUse = false;
+		}
+	}
+
+	private void visit( final IGridVisitor g, final VisitBuffers buffers )
+	{
+		final int tracker = nextVisitEpoch();
+
+		List<GridNode> thisRun = buffers.thisRun;
+		List<GridNode> nextRun = buffers.nextRun;
 		nextRun.add( this );
 
 		this.visitorIterationNumber = tracker;
 
 		if( g instanceof IGridConnectionVisitor )
 		{
-			final LinkedList<IGridConnection> nextConn = new LinkedList<>();
+			final List<IGridConnection> nextConn = buffers.nextConn;
 			final IGridConnectionVisitor gcv = (IGridConnectionVisitor) g;
 
 			while( !nextRun.isEmpty() )
 			{
-				while( !nextConn.isEmpty() )
+				for( int x = 0; x < nextConn.size(); x++ )
 				{
-					gcv.visitConnection( nextConn.poll() );
+					gcv.visitConnection( nextConn.get( x ) );
 				}
+				nextConn.clear();
 
-				final Iterable<GridNode> thisRun = nextRun;
-				nextRun = new LinkedList<>();
+				final List<GridNode> swap = thisRun;
+				thisRun = nextRun;
+				nextRun = swap;
+				nextRun.clear();
 
-				for( final GridNode n : thisRun )
+				for( int x = 0; x < thisRun.size(); x++ )
 				{
-					n.visitorConnection( tracker, g, nextRun, nextConn );
+					thisRun.get( x ).visitorConnection( tracker, g, nextRun, nextConn );
 				}
 			}
 		}
@@ -191,22 +268,36 @@ public class GridNode implements IGridNode, IPathItem
 		{
 			while( !nextRun.isEmpty() )
 			{
-				final Iterable<GridNode> thisRun = nextRun;
-				nextRun = new LinkedList<>();
+				final List<GridNode> swap = thisRun;
+				thisRun = nextRun;
+				nextRun = swap;
+				nextRun.clear();
 
-				for( final GridNode n : thisRun )
+				for( int x = 0; x < thisRun.size(); x++ )
 				{
-					n.visitorNode( tracker, g, nextRun );
+					thisRun.get( x ).visitorNode( tracker, g, nextRun );
 				}
 			}
 		}
 	}
 
+	private static int nextVisitEpoch()
+	{
+		// 0 is the initial state of nodes and connections, never hand it out.
+		if( ++visitEpoch == 0 )
+		{
+			visitEpoch = 1;
+		}
+
+		return visitEpoch;
+	}
+
 	@Override
 	public void updateState()
 	{
 		final EnumSet<GridFlags> set = this.gridProxy.getFlags();
 
+		this.flags = this.compressFlags( set );
 		this.compressedData = set.contains( GridFlags.CANNOT_CARRY ) ? 0 : ( set.contains( GridFlags.DENSE_CAPACITY ) ? 2 : 1 );
 
 		this.compressedData |= ( this.gridProxy.getGridColor().ordinal() << 3 );
@@ -261,15 +352,15 @@ public class GridNode implements IGridNode, IPathItem
 	@Override
 	public void destroy()
 	{
-		while( !this.connections.isEmpty() )
+		while( this.connectionCount > 0 )
 		{
 			// not part of this network for real anymore.
-			if( this.connections.size() == 1 )
+			if( this.connectionCount == 1 )
 			{
 				this.setGridStorage( null );
 			}
 
-			final IGridConnection c = this.connections.listIterator().next();
+			final IGridConnection c = this.connections[0];
 			final GridNode otherSide = (GridNode) c.getOtherSide( this );
 			otherSide.getInternalGrid().setPivot( otherSide );
 			c.destroy();
@@ -291,9 +382,9 @@ public class GridNode implements IGridNode, IPathItem
 	public EnumSet<AEPartLocation> getConnectedSides()
 	{
 		final EnumSet<AEPartLocation> set = EnumSet.noneOf( AEPartLocation.class );
-		for( final IGridConnection gc : this.connections )
+		for( int x = 0; x < this.connectionCount; x++ )
 		{
-			set.add( gc.getDirection( this ) );
+			set.add( this.connections[x].getDirection( this ) );
 		}
 		return set;
 	}
@@ -301,7 +392,7 @@ public class GridNode implements IGridNode, IPathItem
 	@Override
 	public IReadOnlyCollection<IGridConnection> getConnections()
 	{
-		return new ReadOnlyCollection<>( this.connections );
+		return this.connectionView;
 	}
 
 	@Override
@@ -364,13 +455,23 @@ public class GridNode implements IGridNode, IPathItem
 	@Override
 	public boolean meetsChannelRequirements()
 	{
-		return( !this.gridProxy.getFlags().contains( GridFlags.REQUIRE_CHANNEL ) || this.getUsedChannels() > 0 );
+		return( !this.hasFlag( GridFlags.REQUIRE_CHANNEL ) || this.getUsedChannels() > 0 );
 	}
 
 	@Override
 	public boolean hasFlag( final GridFlags flag )
 	{
-		return this.gridProxy.getFlags().contains( flag );
+		return ( this.flags & ( 1 << flag.ordinal() ) ) != 0;
+	}
+
+	private int compressFlags( final EnumSet<GridFlags> set )
+	{
+		int out = 0;
+		for( final GridFlags flag : set )
+		{
+			out |= 1 << flag.ordinal();
+		}
+		return out;
 	}
 
 	@Override
@@ -533,12 +634,13 @@ public class GridNode implements IGridNode, IPathItem
 		return AEColor.values()[( this.compressedData >> 3 ) & 0x1F];
 	}
 
-	private void visitorConnection( final Object tracker, final IGridVisitor g, final Deque<GridNode> nextRun, final Deque<IGridConnection> nextConnections )
+	private void visitorConnection( final int tracker, final IGridVisitor g, final List<GridNode> nextRun, final List<IGridConnection> nextConnections )
 	{
 		if( g.visitNode( this ) )
 		{
-			for( final IGridConnection gc : this.getConnections() )
+			for( int x = 0; x < this.connectionCount; x++ )
 			{
+				final IGridConnection gc = this.connections[x];
 				final GridNode gn = (GridNode) gc.getOtherSide( this );
 				final GridConnection gcc = (GridConnection) gc;
 
@@ -560,12 +662,13 @@ public class GridNode implements IGridNode, IPathItem
 		}
 	}
 
-	private void visitorNode( final Object tracker, final IGridVisitor g, final Deque<GridNode> nextRun )
+	private void visitorNode( final int tracker, final IGridVisitor g, final List<GridNode> nextRun )
 	{
 		if( g.visitNode( this ) )
 		{
-			for( final IGridConnection gc : this.getConnections() )
+			for( int x = 0; x < this.connectionCount; x++ )
 			{
+				final IGridConnection gc = this.connections[x];
 				final GridNode gn = (GridNode) gc.getOtherSide( this );
 
 				if( tracker == gn.visitorIterationNumber )
@@ -595,12 +698,12 @@ public class GridNode implements IGridNode, IPathItem
 	@Override
 	public IPathItem getControllerRoute()
 	{
-		if( this.connections.isEmpty() || this.getFlags().contains( GridFlags.CANNOT_CARRY ) )
+		if( this.connectionCount == 0 || this.hasFlag( GridFlags.CANNOT_CARRY ) )
 		{
 			return null;
 		}
 
-		return (IPathItem) this.connections.get( 0 );
+		return (IPathItem) this.connections[0];
 	}
 
 	@Override
@@ -611,11 +714,11 @@ public class GridNode implements IGridNode, IPathItem
 			this.usedChannels = 0;
 		}
 
-		final int idx = this.connections.indexOf( fast );
+		final int idx = this.indexOfConnection( fast );
 		if( idx > 0 )
 		{
-			this.connections.remove( fast );
-			this.connections.add( 0, (IGridConnection) fast );
+			System.arraycopy( this.connections, 0, this.connections, 1, idx );
+			this.connections[0] = (IGridConnection) fast;
 		}
 	}
 
@@ -651,7 +754,7 @@ public class GridNode implements IGridNode, IPathItem
 	@Override
 	public void finalizeChannels()
 	{
-		if( this.getFlags().contains( GridFlags.CANNOT_CARRY ) )
+		if( this.hasFlag( GridFlags.CANNOT_CARRY ) )
 		{
 			return;
 		}
@@ -692,6 +795,72 @@ public class GridNode implements IGridNode, IPathItem
 		this.previousDraw = previousDraw;
 	}
 
+	private static class VisitBuffers
+	{
+		private final List<GridNode> thisRun = new ArrayList<>();
+		private final List<GridNode> nextRun = new ArrayList<>();
+		private final List<IGridConnection> nextConn = new ArrayList<>();
+		private boolean inUse = false;
+
+		private void clear()
+		{
+			this.thisRun.clear();
+			this.nextRun.clear();
+			this.nextConn.clear();
+		}
+	}
+
+	/**
+	 * Read only view of the connection array, backed by the node.
+	 */
+	private class ConnectionView implements IReadOnlyCollection<IGridConnection>
+	{
+
+		@Override
+		public int size()
+		{
+			return GridNode.this.connectionCount;
+		}
+
+		@Override
+		public boolean isEmpty()
+		{
+			return GridNode.this.connectionCount == 0;
+		}
+
+		@Override
+		public boolean contains( final Object node )
+		{
+			return GridNode.this.indexOfConnection( node ) >= 0;
+		}
+
+		@Override
+		public Iterator<IGridConnection> iterator()
+		{
+			return new Iterator<IGridConnection>()
+			{
+				private int pos = 0;
+
+				@Override
+				public boolean hasNext()
+				{
+					return this.pos < GridNode.this.connectionCount;
+				}
+
+				@Override
+				public IGridConnection next()
+				{
+					if( !this.hasNext() )
+					{
+						throw new NoSuchElementException();
+					}
+
+					return GridNode.this.connections[this.pos++];
+				}
+			};
+		}
+	}
+
 	private static class MachineSecurityBreak implements IWorldCallable<Void>
 	{
 		private final GridNode node;
@@ -19,6 +19,11 @@
 package appeng.me;
 
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -38,9 +43,28 @@ public class NetworkEventBus
 {
 	private static final Collection<Class> READ_CLASSES = new HashSet<>();
 	private static final Map<Class<? extends MENetworkEvent>, Map<Class, MENetworkEventInfo>> EVENTS = new HashMap<>();
+	private static final MethodType INVOKER_TYPE = MethodType.methodType( void.class, Object.class, MENetworkEvent.class );
+
+	private static IDispatchHook dispatchHook;
+
+	/**
+	 * per grid dispatch lists, rebuilt lazily whenever a new machine class joins the grid.
+	 */
+	private final Map<Class<? extends MENetworkEvent>, EventDispatch[]> dispatch = new HashMap<>();
+
+	/**
+	 * Installs a hook which is informed about every posted event, or null to disable reporting.
+	 */
+	public static void setDispatchHook( final IDispatchHook hook )
+	{
+		dispatchHook = hook;
+	}
 
 	void readClass( final Class listAs, final Class c )
 	{
+		// a new machine class might subscribe to events, which invalidates the precomputed dispatch lists.
+		this.dispatch.clear();
+
 		if( READ_CLASSES.contains( c ) )
 		{
 			return;
@@ -97,27 +121,27 @@ public class NetworkEventBus
 
 	MENetworkEvent postEvent( final Grid g, final MENetworkEvent e )
 	{
-		final Map<Class, MENetworkEventInfo> subscribers = EVENTS.get( e.getClass() );
+		final IDispatchHook hook = dispatchHook;
+		final long start = hook != null ? System.nanoTime() : 0;
+		final EventDispatch[] targets = this.getDispatch( g, e.getClass() );
 		int x = 0;
 
 		try
 		{
-			if( subscribers != null )
+			for( final EventDispatch target : targets )
 			{
-				for( final Entry<Class, MENetworkEventInfo> subscriber : subscribers.entrySet() )
+				if( target.cache != null )
 				{
-					final MENetworkEventInfo target = subscriber.getValue();
-					final GridCacheWrapper cache = g.getCaches().get( subscriber.getKey() );
-					if( cache != null )
-					{
-						x++;
-						target.invoke( cache.getCache(), e );
-					}
+					x++;
+					target.info.invoke( target.cache.getCache(), e );
+				}
 
-					for( final IGridNode obj : g.getMachines( subscriber.getKey() ) )
+				if( target.machines != null )
+				{
+					for( final IGridNode obj : target.machines )
 					{
 						x++;
-						target.invoke( obj.getMachine(), e );
+						target.info.invoke( obj.getMachine(), e );
 					}
 				}
 			}
@@ -128,11 +152,19 @@ public class NetworkEventBus
 		}
 
 		e.setVisitedObjects( x );
+
+		if( hook != null )
+		{
+			hook.onEventDispatched( g, e, x, System.nanoTime() - start );
+		}
+
 		return e;
 	}
 
 	MENetworkEvent postEventTo( final Grid grid, final GridNode node, final MENetworkEvent e )
 	{
+		final IDispatchHook hook = dispatchHook;
+		final long start = hook != null ? System.nanoTime() : 0;
 		final Map<Class, MENetworkEventInfo> subscribers = EVENTS.get( e.getClass() );
 		int x = 0;
 
@@ -154,34 +186,135 @@ public class NetworkEventBus
 		}
 
 		e.setVisitedObjects( x );
+
+		if( hook != null )
+		{
+			hook.onEventDispatched( grid, e, x, System.nanoTime() - start );
+		}
+
 		return e;
 	}
 
+	private EventDispatch[] getDispatch( final Grid g, final Class<? extends MENetworkEvent> eventClass )
+	{
+		EventDispatch[] targets = this.dispatch.get( eventClass );
+
+		if( targets == null )
+		{
+			final List<EventDispatch> list = new ArrayList<>();
+			final Map<Class, MENetworkEventInfo> subscribers = EVENTS.get( eventClass );
+
+			if( subscribers != null )
+			{
+				for( final Entry<Class, MENetworkEventInfo> subscriber : subscribers.entrySet() )
+				{
+					final GridCacheWrapper cache = g.getCaches().get( subscriber.getKey() );
+					final MachineSet machines = g.getMachineSet( subscriber.getKey() );
+
+					if( cache != null || machines != null )
+					{
+						list.add( new EventDispatch( subscriber.getValue(), cache, machines ) );
+					}
+				}
+			}
+
+			targets = list.toArray( new EventDispatch[list.size()] );
+			this.dispatch.put( eventClass, targets );
+		}
+
+		return targets;
+	}
+
+	/**
+	 * Receives the dispatch cost of every event posted to a grid.
+	 */
+	public interface IDispatchHook
+	{
+		void onEventDispatched( Grid grid, MENetworkEvent event, int visited, long nanos );
+	}
+
+	/**
+	 * Compiled call site for a single subscriber method.
+	 */
+	@FunctionalInterface
+	private interface IEventInvoker
+	{
+		void invoke( Object obj, MENetworkEvent e ) throws Throwable;
+	}
+
 	private static class NetworkEventDone extends Throwable
 	{
 
 		private static final long serialVersionUID = -3079021487019171205L;
 	}
 
-	private class EventMethod
+	private static class EventDispatch
+	{
+
+		private final MENetworkEventInfo info;
+		private final GridCacheWrapper cache;
+		private final MachineSet machines;
+
+		private EventDispatch( final MENetworkEventInfo info, final GridCacheWrapper cache, final MachineSet machines )
+		{
+			this.info = info;
+			this.cache = cache;
+			this.machines = machines;
+		}
+	}
+
+	private static class EventMethod
 	{
 
 		private final Class objClass;
 		private final Method objMethod;
 		private final Class objEvent;
+		private final IEventInvoker invoker;
 
 		public EventMethod( final Class Event, final Class ObjClass, final Method ObjMethod )
 		{
 			this.objClass = ObjClass;
 			this.objMethod = ObjMethod;
 			this.objEvent = Event;
+			this.invoker = createInvoker( ObjMethod );
+		}
+
+		/**
+		 * Builds a direct invoker through {@link LambdaMetafactory}, falling back to a plain {@link MethodHandle} or
+		 * reflection when the subscriber is not accessible from here.
+		 */
+		private static IEventInvoker createInvoker( final Method m )
+		{
+			try
+			{
+				final MethodHandles.Lookup lookup = MethodHandles.lookup();
+				final MethodHandle handle = lookup.unreflect( m );
+
+				try
+				{
+					final CallSite site = LambdaMetafactory.metafactory( lookup, "invoke", MethodType.methodType( IEventInvoker.class ), INVOKER_TYPE,
+							handle, handle.type().changeReturnType( void.class ) );
+					return (IEventInvoker) site.getTarget().invokeExact();
+				}
+				catch( final Throwable t )
+				{
+					AELog.debug( "Unable to compile network event subscriber %s.%s, using method handle.", m.getDeclaringClass().getName(), m.getName() );
+				}
+
+				final MethodHandle generic = handle.asType( INVOKER_TYPE );
+				return ( obj, e ) -> generic.invokeExact( obj, e );
+			}
+			catch( final IllegalAccessException e )
+			{
+				return m::invoke;
+			}
 		}
 
 		private void invoke( final Object obj, final MENetworkEvent e ) throws NetworkEventDone
 		{
 			try
 			{
-				this.objMethod.invoke( obj, e );
+				this.invoker.invoke( obj, e );
 			}
 			catch( final Throwable e1 )
 			{
@@ -198,7 +331,7 @@ public class NetworkEventBus
 		}
 	}
 
-	private class MENetworkEventInfo
+	private static class MENetworkEventInfo
 	{
 
 		private final List<EventMethod> methods = new ArrayList<>();
@@ -76,6 +76,7 @@ import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
 import appeng.crafting.CraftingJob;
+import appeng.crafting.CraftingJobFuture;
 import appeng.crafting.CraftingLink;
 import appeng.crafting.CraftingLinkNexus;
 import appeng.crafting.CraftingWatcher;
@@ -508,8 +509,10 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 		}
 
 		final CraftingJob job = new CraftingJob( world, grid, actionSrc, slotItem, cb );
+		final CraftingJobFuture future = new CraftingJobFuture( job );
 
-		return CRAFTING_POOL.submit( job, (ICraftingJob) job );
+		CRAFTING_POOL.execute( future );
+		return future;
 	}
 
 	@Override
@@ -52,10 +52,11 @@ import appeng.api.networking.events.MENetworkPostCacheConstruction;
 import appeng.api.networking.events.MENetworkPowerIdleChange;
 import appeng.api.networking.events.MENetworkPowerStatusChange;
 import appeng.api.networking.events.MENetworkPowerStorage;
-import appeng.api.networking.events.MENetworkPowerStorage.PowerEventType;
 import appeng.api.networking.pathing.IPathingGrid;
+import appeng.core.AELog;
 import appeng.me.Grid;
 import appeng.me.GridNode;
+import appeng.me.energy.EnergyPool;
 import appeng.me.energy.EnergyThreshold;
 import appeng.me.energy.EnergyWatcher;
 
@@ -64,6 +65,11 @@ public class EnergyGridCache implements IEnergyGrid
 {
 
 	private static final double MAX_BUFFER_STORAGE = 200;
+
+	/**
+	 * how many ticks of average drain the pool keeps in reserve on top of its buffer.
+	 */
+	private static final double POOL_RESERVE_TICKS = 2;
 	private static final Comparator<IEnergyGridProvider> COMPARATOR_HIGHEST_AMOUNT_STORED_FIRST = ( o1, o2 ) -> Double.compare( o2.getProviderStoredEnergy(),
 			o1.getProviderStoredEnergy() );
 
@@ -109,13 +115,15 @@ public class EnergyGridCache implements IEnergyGrid
 	private PathGridCache pgc;
 	private double lastStoredPower = -1;
 
-	private final GridPowerStorage localStorage = new GridPowerStorage();
+	/**
+	 * serves extractions and injections, settled with the physical storages once per tick.
+	 */
+	private final EnergyPool pool = new EnergyPool();
+	private int reportedViolations = 0;
 
 	public EnergyGridCache( final IGrid g )
 	{
 		this.myGrid = g;
-		this.requesters.add( this.localStorage );
-		this.providers.add( this.localStorage );
 	}
 
 	@MENetworkEventSubscribe
@@ -168,6 +176,8 @@ public class EnergyGridCache implements IEnergyGrid
 	@Override
 	public void onUpdateTick()
 	{
+		this.settlePool();
+
 		if( !this.interests.isEmpty() )
 		{
 			final double oldPower = this.lastStoredPower;
@@ -230,10 +240,37 @@ public class EnergyGridCache implements IEnergyGrid
 		this.availableTicksSinceUpdate++;
 	}
 
+	/**
+	 * Refills the pool from the providers, or hands its surplus to the requesters, so extractions until the next tick
+	 * can be served without visiting the storages.
+	 */
+	private void settlePool()
+	{
+		final double target = MAX_BUFFER_STORAGE + POOL_RESERVE_TICKS * this.avgDrainPerTick;
+		this.pool.settle( this.providers, this.requesters, target );
+
+		if( this.pool.getViolations() > this.reportedViolations )
+		{
+			if( this.reportedViolations == 0 )
+			{
+				AELog.debug( "Power storage on grid %s did not change by the amount of power it reported.", this.myGrid );
+			}
+
+			this.reportedViolations = this.pool.getViolations();
+		}
+	}
+
 	@Override
 	public double extractAEPower( final double amt, final Actionable mode, final PowerMultiplier pm )
 	{
 		final double toExtract = pm.multiply( amt );
+
+		// without connected grids there is nothing to prioritize.
+		if( this.energyGridProviders.isEmpty() )
+		{
+			return pm.divide( this.extractProviderPower( toExtract, mode ) );
+		}
+
 		final Queue<IEnergyGridProvider> toVisit = new PriorityQueue<>( COMPARATOR_HIGHEST_AMOUNT_STORED_FIRST );
 		final Set<IEnergyGridProvider> visited = new HashSet<>();
 
@@ -283,7 +320,7 @@ public class EnergyGridCache implements IEnergyGrid
 	private void refreshPower()
 	{
 		this.availableTicksSinceUpdate = 0;
-		this.globalAvailablePower = 0;
+		this.globalAvailablePower = this.pool.getStored();
 		for( final IAEPowerStorage p : this.providers )
 		{
 			this.globalAvailablePower += p.getAECurrentPower();
@@ -299,30 +336,37 @@ public class EnergyGridCache implements IEnergyGrid
 	@Override
 	public double extractProviderPower( final double amt, final Actionable mode )
 	{
-		double extractedPower = 0;
-
-		final Iterator<IAEPowerStorage> it = this.providers.iterator();
+		// the pool usually covers everything until the next settlement.
+		double extractedPower = this.pool.extract( amt, mode );
 
-		while( extractedPower < amt && it.hasNext() )
+		if( extractedPower < amt )
 		{
-			final IAEPowerStorage node = it.next();
+			final Iterator<IAEPowerStorage> it = this.providers.iterator();
 
-			final double req = amt - extractedPower;
-			final double newPower = node.extractAEPower( req, mode, PowerMultiplier.ONE );
-			extractedPower += newPower;
-
-			if( newPower < req )
+			while( extractedPower < amt && it.hasNext() )
 			{
-				it.remove();
+				final IAEPowerStorage node = it.next();
+
+				final double req = amt - extractedPower;
+				final double newPower = node.extractAEPower( req, mode, PowerMultiplier.ONE );
+				extractedPower += newPower;
+
+				if( newPower < req )
+				{
+					it.remove();
+				}
 			}
 		}
 
 		// got more then we wanted?
 		if( extractedPower > amt )
 		{
-			this.localStorage.addCurrentAEPower( extractedPower - amt );
-			this.globalAvailablePower -= amt;
+			if( mode == Actionable.MODULATE )
+			{
+				this.pool.add( extractedPower - amt );
+			}
 
+			this.globalAvailablePower -= amt;
 			this.tickDrainPerTick += amt;
 			return amt;
 		}
@@ -341,6 +385,8 @@ public class EnergyGridCache implements IEnergyGrid
 			this.tickInjectionPerTick += amt;
 		}
 
+		amt = this.pool.inject( amt, MAX_BUFFER_STORAGE, mode );
+
 		final Iterator<IAEPowerStorage> it = this.requesters.iterator();
 
 		while( amt > 0 && it.hasNext() )
@@ -360,7 +406,7 @@ public class EnergyGridCache implements IEnergyGrid
 	@Override
 	public double getProviderEnergyDemand( final double maxRequired )
 	{
-		double required = 0;
+		double required = Math.max( 0.0, MAX_BUFFER_STORAGE - this.pool.getStored() );
 
 		final Iterator<IAEPowerStorage> it = this.requesters.iterator();
 		while( required < maxRequired && it.hasNext() )
@@ -575,21 +621,21 @@ public class EnergyGridCache implements IEnergyGrid
 	@Override
 	public void onSplit( final IGridStorage storageB )
 	{
-		final double newBuffer = this.localStorage.getAECurrentPower() / 2;
-		this.localStorage.removeCurrentAEPower( newBuffer );
+		final double newBuffer = this.pool.getStored() / 2;
+		this.pool.remove( newBuffer );
 		storageB.dataObject().setDouble( "buffer", newBuffer );
 	}
 
 	@Override
 	public void onJoin( final IGridStorage storageB )
 	{
-		this.localStorage.addCurrentAEPower( storageB.dataObject().getDouble( "buffer" ) );
+		this.pool.add( storageB.dataObject().getDouble( "buffer" ) );
 	}
 
 	@Override
 	public void populateGridStorage( final IGridStorage storage )
 	{
-		storage.dataObject().setDouble( "buffer", this.localStorage.getAECurrentPower() );
+		storage.dataObject().setDouble( "buffer", this.pool.getStored() );
 	}
 
 	public boolean registerEnergyInterest( final EnergyThreshold threshold )
@@ -601,79 +647,4 @@ public class EnergyGridCache implements IEnergyGrid
 	{
 		return this.interests.remove( threshold );
 	}
-
-	private class GridPowerStorage implements IAEPowerStorage
-	{
-		private double stored = 0;
-
-		@Override
-		public double extractAEPower( double amt, Actionable mode, PowerMultiplier usePowerMultiplier )
-		{
-			double extracted = Math.min( amt, this.stored );
-
-			if( mode == Actionable.MODULATE )
-			{
-				this.removeCurrentAEPower( extracted );
-			}
-
-			return extracted;
-		}
-
-		@Override
-		public boolean isAEPublicPowerStorage()
-		{
-			return true;
-		}
-
-		@Override
-		public double injectAEPower( double amt, Actionable mode )
-		{
-			double toStore = Math.min( amt, MAX_BUFFER_STORAGE - this.stored );
-
-			if( mode == Actionable.MODULATE )
-			{
-				this.addCurrentAEPower( toStore );
-			}
-
-			return amt - toStore;
-		}
-
-		@Override
-		public AccessRestriction getPowerFlow()
-		{
-			return AccessRestriction.READ_WRITE;
-		}
-
-		@Override
-		public double getAEMaxPower()
-		{
-			return MAX_BUFFER_STORAGE;
-		}
-
-		@Override
-		public double getAECurrentPower()
-		{
-			return this.stored;
-		}
-
-		private void addCurrentAEPower( double amount )
-		{
-			this.stored += amount;
-
-			if( this.stored > 0.01 )
-			{
-				EnergyGridCache.this.myGrid.postEvent( new MENetworkPowerStorage( this, PowerEventType.PROVIDE_POWER ) );
-			}
-		}
-
-		private void removeCurrentAEPower( double amount )
-		{
-			this.stored -= amount;
-
-			if( this.stored < MAX_BUFFER_STORAGE - 0.001 )
-			{
-				EnergyGridCache.this.myGrid.postEvent( new MENetworkPowerStorage( this, PowerEventType.REQUEST_POWER ) );
-			}
-		}
-	}
 }
@@ -52,6 +52,7 @@ import appeng.api.storage.data.IItemList;
 import appeng.me.helpers.BaseActionSource;
 import appeng.me.helpers.GenericInterestManager;
 import appeng.me.helpers.MachineSource;
+import appeng.me.storage.FuzzyRangeWatchers;
 import appeng.me.storage.ItemWatcher;
 import appeng.me.storage.NetworkInventoryHandler;
 
@@ -64,6 +65,7 @@ public class GridStorageCache implements IStorageGrid
 	private final HashSet<ICellProvider> inactiveCellProviders = new HashSet<>();
 	private final SetMultimap<IAEStack, ItemWatcher> interests = HashMultimap.create();
 	private final GenericInterestManager<ItemWatcher> interestManager = new GenericInterestManager<>( this.interests );
+	private final FuzzyRangeWatchers fuzzyWatchers = new FuzzyRangeWatchers();
 	private final NetworkMonitor<IAEItemStack> itemMonitor = new NetworkMonitor<>( this, StorageChannel.ITEMS );
 	private final NetworkMonitor<IAEFluidStack> fluidMonitor = new NetworkMonitor<>( this, StorageChannel.FLUIDS );
 	private final HashMap<IGridNode, IStackWatcher> watchers = new HashMap<>();
@@ -97,6 +99,11 @@ public class GridStorageCache implements IStorageGrid
 			tracker.applyChanges();
 		}
 
+		if( machine instanceof FuzzyRangeWatchers.IFuzzyRangeHost )
+		{
+			this.fuzzyWatchers.remove( (FuzzyRangeWatchers.IFuzzyRangeHost) machine );
+		}
+
 		if( machine instanceof IStackWatcherHost )
 		{
 			final IStackWatcher myWatcher = this.watchers.get( machine );
@@ -361,6 +368,11 @@ public class GridStorageCache implements IStorageGrid
 		return this.interestManager;
 	}
 
+	public FuzzyRangeWatchers getFuzzyWatchers()
+	{
+		return this.fuzzyWatchers;
+	}
+
 	IGrid getGrid()
 	{
 		return this.myGrid;
@@ -0,0 +1,178 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridCache;
+import appeng.api.networking.IGridHost;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.IGridStorage;
+import appeng.api.networking.events.MENetworkBootingStatusChange;
+import appeng.api.networking.events.MENetworkChannelsChanged;
+import appeng.api.networking.events.MENetworkEventSubscribe;
+import appeng.api.networking.events.MENetworkPowerStatusChange;
+import appeng.helpers.IInterfaceHost;
+
+
+/**
+ * Keeps track of all interfaces on a grid for interface terminals.
+ *
+ * Interfaces report changes to their patterns, name or terminal visibility, and the terminals listening on this
+ * grid only have to look at those interfaces instead of comparing all of them every tick.
+ */
+public class InterfaceDirectoryCache implements IGridCache
+{
+
+	private final Set<IInterfaceHost> interfaces = new LinkedHashSet<>();
+	private final Set<IInterfaceDirectoryListener> listeners = Collections.newSetFromMap( new WeakHashMap<>() );
+
+	public InterfaceDirectoryCache( final IGrid g )
+	{
+	}
+
+	public Collection<IInterfaceHost> getInterfaces()
+	{
+		return Collections.unmodifiableCollection( this.interfaces );
+	}
+
+	/**
+	 * Listeners are held weakly, a terminal which is never closed properly does not leak.
+	 */
+	public void addListener( final IInterfaceDirectoryListener listener )
+	{
+		this.listeners.add( listener );
+	}
+
+	public void removeListener( final IInterfaceDirectoryListener listener )
+	{
+		this.listeners.remove( listener );
+	}
+
+	/**
+	 * Called by an interface whenever anything shown in the interface terminal might have changed.
+	 */
+	public void interfaceChanged( final IInterfaceHost host )
+	{
+		if( this.listeners.isEmpty() )
+		{
+			return;
+		}
+
+		for( final IInterfaceDirectoryListener l : this.snapshot() )
+		{
+			l.onInterfaceChanged( host );
+		}
+	}
+
+	@MENetworkEventSubscribe
+	public void channelsChanged( final MENetworkChannelsChanged c )
+	{
+		this.activeStateChanged();
+	}
+
+	@MENetworkEventSubscribe
+	public void powerChanged( final MENetworkPowerStatusChange c )
+	{
+		this.activeStateChanged();
+	}
+
+	@MENetworkEventSubscribe
+	public void bootingChanged( final MENetworkBootingStatusChange c )
+	{
+		this.activeStateChanged();
+	}
+
+	private void activeStateChanged()
+	{
+		for( final IInterfaceDirectoryListener l : this.snapshot() )
+		{
+			l.onDirectoryChanged();
+		}
+	}
+
+	private List<IInterfaceDirectoryListener> snapshot()
+	{
+		// Listeners may open or close terminals in response, don't hand out the live set.
+		return new ArrayList<>( this.listeners );
+	}
+
+	@Override
+	public void onUpdateTick()
+	{
+
+	}
+
+	@Override
+	public void removeNode( final IGridNode gridNode, final IGridHost machine )
+	{
+		if( machine instanceof IInterfaceHost && this.interfaces.remove( machine ) )
+		{
+			this.interfaceChanged( (IInterfaceHost) machine );
+		}
+	}
+
+	@Override
+	public void addNode( final IGridNode gridNode, final IGridHost machine )
+	{
+		if( machine instanceof IInterfaceHost && this.interfaces.add( (IInterfaceHost) machine ) )
+		{
+			this.interfaceChanged( (IInterfaceHost) machine );
+		}
+	}
+
+	@Override
+	public void onSplit( final IGridStorage destinationStorage )
+	{
+
+	}
+
+	@Override
+	public void onJoin( final IGridStorage sourceStorage )
+	{
+
+	}
+
+	@Override
+	public void populateGridStorage( final IGridStorage destinationStorage )
+	{
+
+	}
+
+	public interface IInterfaceDirectoryListener
+	{
+		/**
+		 * The patterns, name or visibility of this interface may have changed, or it joined or left the grid.
+		 */
+		void onInterfaceChanged( IInterfaceHost host );
+
+		/**
+		 * The active state of any number of interfaces may have changed.
+		 */
+		void onDirectoryChanged();
+	}
+}
@@ -19,10 +19,12 @@
 package appeng.me.cache;
 
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -41,8 +43,11 @@ import appeng.api.storage.IMEInventoryHandler;
 import appeng.api.storage.IMEMonitor;
 import appeng.api.storage.IMEMonitorHandlerReceiver;
 import appeng.api.storage.StorageChannel;
+import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
+import appeng.me.profiling.GridProfiler;
+import appeng.me.profiling.ProfileCategory;
 import appeng.me.storage.ItemWatcher;
 
 
@@ -60,8 +65,13 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 	@Nonnull
 	private final Map<IMEMonitorHandlerReceiver<T>, Object> listeners;
 
+	@Nullable
+	private IMEMonitorHandlerReceiver<T> terminalBroadcast;
+
 	private boolean sendEvent = false;
 	private boolean hasChanged = false;
+	private long storedTotal = 0;
+	private boolean storedTotalValid = false;
 	@Nonnegative
 	private int localDepthSemaphore = 0;
 
@@ -87,6 +97,19 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 	@Override
 	public T extractItems( final T request, final Actionable mode, final IActionSource src )
+	{
+		if( GridProfiler.isEnabled() )
+		{
+			final long start = System.nanoTime();
+			final T extracted = this.doExtractItems( request, mode, src );
+			GridProfiler.INSTANCE.record( this.myGridCache.getGrid(), ProfileCategory.STORAGE_EXTRACT, this.myChannel, System.nanoTime() - start );
+			return extracted;
+		}
+
+		return this.doExtractItems( request, mode, src );
+	}
+
+	private T doExtractItems( final T request, final Actionable mode, final IActionSource src )
 	{
 		if( mode == Actionable.SIMULATE )
 		{
@@ -135,6 +158,27 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		return this.getHandler().getSlot();
 	}
 
+	/**
+	 * @return the sum of all stack sizes in the network, kept up to date from the posted changes instead of summing
+	 *         the storage list each time
+	 */
+	public long getStoredTotal()
+	{
+		if( !this.storedTotalValid )
+		{
+			long total = 0;
+			for( final T st : this.getStorageList() )
+			{
+				total += st.getStackSize();
+			}
+
+			this.storedTotal = total;
+			this.storedTotalValid = true;
+		}
+
+		return this.storedTotal;
+	}
+
 	@Nonnull
 	@Override
 	public IItemList<T> getStorageList()
@@ -151,6 +195,19 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 	@Override
 	public T injectItems( final T input, final Actionable mode, final IActionSource src )
+	{
+		if( GridProfiler.isEnabled() )
+		{
+			final long start = System.nanoTime();
+			final T leftover = this.doInjectItems( input, mode, src );
+			GridProfiler.INSTANCE.record( this.myGridCache.getGrid(), ProfileCategory.STORAGE_INJECT, this.myChannel, System.nanoTime() - start );
+			return leftover;
+		}
+
+		return this.doInjectItems( input, mode, src );
+	}
+
+	private T doInjectItems( final T input, final Actionable mode, final IActionSource src )
 	{
 		if( mode == Actionable.SIMULATE )
 		{
@@ -169,6 +226,92 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		return leftover;
 	}
 
+	/**
+	 * Inserts several stacks at once and tells the listeners about all of them in a single change list, instead of
+	 * one list per stack.
+	 *
+	 * @return the leftovers, in the same order as the inputs, null where a stack was inserted completely
+	 */
+	public List<T> injectAll( final List<T> inputs, final IActionSource src )
+	{
+		final long start = GridProfiler.isEnabled() ? System.nanoTime() : 0;
+		final List<T> leftovers = new ArrayList<>( inputs.size() );
+		final List<T> changes = new ArrayList<>( inputs.size() );
+
+		this.localDepthSemaphore++;
+		for( final T input : inputs )
+		{
+			final T diff = input.copy();
+			final T leftover = this.getHandler().injectItems( input, Actionable.MODULATE, src );
+
+			if( leftover != null )
+			{
+				diff.decStackSize( leftover.getStackSize() );
+			}
+
+			if( diff.getStackSize() != 0 )
+			{
+				changes.add( diff );
+			}
+
+			leftovers.add( leftover );
+		}
+		this.localDepthSemaphore--;
+
+		if( this.localDepthSemaphore == 0 && !changes.isEmpty() )
+		{
+			this.postChangesToListeners( changes, src );
+		}
+
+		if( start != 0 )
+		{
+			GridProfiler.INSTANCE.record( this.myGridCache.getGrid(), ProfileCategory.STORAGE_INJECT, this.myChannel, System.nanoTime() - start );
+		}
+
+		return leftovers;
+	}
+
+	/**
+	 * Extracts several stacks at once and tells the listeners about all of them in a single change list, instead of
+	 * one list per stack.
+	 *
+	 * @return the extracted stacks, in the same order as the requests, null where nothing could be extracted
+	 */
+	public List<T> extractAll( final List<T> requests, final IActionSource src )
+	{
+		final long start = GridProfiler.isEnabled() ? System.nanoTime() : 0;
+		final List<T> extracted = new ArrayList<>( requests.size() );
+		final List<T> changes = new ArrayList<>( requests.size() );
+
+		this.localDepthSemaphore++;
+		for( final T request : requests )
+		{
+			final T result = this.getHandler().extractItems( request, Actionable.MODULATE, src );
+
+			if( result != null && result.getStackSize() != 0 )
+			{
+				final T diff = result.copy();
+				diff.setStackSize( -result.getStackSize() );
+				changes.add( diff );
+			}
+
+			extracted.add( result );
+		}
+		this.localDepthSemaphore--;
+
+		if( this.localDepthSemaphore == 0 && !changes.isEmpty() )
+		{
+			this.postChangesToListeners( changes, src );
+		}
+
+		if( start != 0 )
+		{
+			GridProfiler.INSTANCE.record( this.myGridCache.getGrid(), ProfileCategory.STORAGE_EXTRACT, this.myChannel, System.nanoTime() - start );
+		}
+
+		return extracted;
+	}
+
 	@Override
 	public boolean isPrioritized( final T input )
 	{
@@ -181,6 +324,20 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		this.listeners.remove( l );
 	}
 
+	/**
+	 * @return the receiver shared by the terminals viewing this monitor, or null if none is open
+	 */
+	@Nullable
+	public IMEMonitorHandlerReceiver<T> getTerminalBroadcast()
+	{
+		return this.terminalBroadcast;
+	}
+
+	public void setTerminalBroadcast( @Nullable final IMEMonitorHandlerReceiver<T> terminalBroadcast )
+	{
+		this.terminalBroadcast = terminalBroadcast;
+	}
+
 	@Override
 	public boolean validForPass( final int i )
 	{
@@ -257,6 +414,13 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 	{
 		if( this.localDepthSemaphore > 0 || GLOBAL_DEPTH.contains( this ) )
 		{
+			// nobody hears about these changes, so the running totals cannot follow them either
+			this.storedTotalValid = false;
+
+			if( this.myChannel == StorageChannel.ITEMS )
+			{
+				this.myGridCache.getFuzzyWatchers().invalidate();
+			}
 			return;
 		}
 
@@ -265,6 +429,17 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 		this.sendEvent = true;
 
+		if( this.storedTotalValid )
+		{
+			for( final T changedItem : changes )
+			{
+				if( changedItem != null )
+				{
+					this.storedTotal += add ? changedItem.getStackSize() : -changedItem.getStackSize();
+				}
+			}
+		}
+
 		this.notifyListenersOfChange( changes, src );
 
 		for( final T changedItem : changes )
@@ -301,6 +476,11 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 					this.myGridCache.getInterestManager().disableTransactions();
 				}
 			}
+
+			if( this.myChannel == StorageChannel.ITEMS && difference != null )
+			{
+				this.myGridCache.getFuzzyWatchers().postChange( (IAEItemStack) difference );
+			}
 		}
 
 		final NetworkMonitor<?> last = GLOBAL_DEPTH.pop();
@@ -315,6 +495,13 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 	void forceUpdate()
 	{
 		this.hasChanged = true;
+		this.storedTotalValid = false;
+
+		if( this.myChannel == StorageChannel.ITEMS )
+		{
+			this.myGridCache.getFuzzyWatchers().invalidate();
+			this.myGridCache.getFuzzyWatchers().revalidate();
+		}
 
 		final Iterator<Entry<IMEMonitorHandlerReceiver<T>, Object>> i = this.getListeners();
 		while( i.hasNext() )
@@ -335,6 +522,12 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 	void onTick()
 	{
+		if( this.myChannel == StorageChannel.ITEMS )
+		{
+			// recomputed outside of the post that was dropped
+			this.myGridCache.getFuzzyWatchers().revalidate();
+		}
+
 		if( this.sendEvent )
 		{
 			this.sendEvent = false;
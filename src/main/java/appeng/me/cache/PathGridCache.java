@@ -312,16 +312,15 @@ public class PathGridCache implements IPathingGrid
 			if( !this.semiOpen.contains( nodes ) )
 			{
 				final IGridBlock gb = nodes.getGridBlock();
-				final EnumSet<GridFlags> flags = gb.getFlags();
 
-				if( flags.contains( GridFlags.COMPRESSED_CHANNEL ) && !this.blockDense.isEmpty() )
+				if( nodes.hasFlag( GridFlags.COMPRESSED_CHANNEL ) && !this.blockDense.isEmpty() )
 				{
 					return 9;
 				}
 
 				depth++;
 
-				if( flags.contains( GridFlags.MULTIBLOCK ) )
+				if( nodes.hasFlag( GridFlags.MULTIBLOCK ) )
 				{
 					final IGridMultiblock gmb = (IGridMultiblock) gb;
 					final Iterator<IGridNode> i = gmb.getMultiblockNodes();
@@ -23,6 +23,8 @@ import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import com.google.common.base.Preconditions;
 import com.mojang.authlib.GameProfile;
@@ -34,20 +36,33 @@ import appeng.api.networking.IGrid;
 import appeng.api.networking.IGridHost;
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.IGridStorage;
+import appeng.api.networking.events.MENetworkChannelsChanged;
 import appeng.api.networking.events.MENetworkEventSubscribe;
+import appeng.api.networking.events.MENetworkPowerStatusChange;
 import appeng.api.networking.events.MENetworkSecurityChange;
 import appeng.api.networking.security.ISecurityGrid;
 import appeng.api.networking.security.ISecurityProvider;
 import appeng.core.worlddata.WorldData;
 import appeng.me.GridNode;
+import appeng.me.profiling.GridProfiler;
+import appeng.me.profiling.ProfileCategory;
 
 
 public class SecurityCache implements ISecurityGrid
 {
 
+	// advanced whenever the security of any grid may have changed, the owners of foreign grids are cached per epoch.
+	private static long securityEpoch = 0;
+
 	private final IGrid myGrid;
 	private final List<ISecurityProvider> securityProvider = new ArrayList<>();
 	private final HashMap<Integer, EnumSet<SecurityPermissions>> playerPerms = new HashMap<>();
+	// decisions taken since the last security change, per player id.
+	private final HashMap<Integer, PermissionDecision> decisions = new HashMap<>();
+	// player ids never change, but resolving them goes through the player config.
+	private final Map<EntityPlayer, Integer> playerIDs = new WeakHashMap<>();
+	// owners of the grids whose machines act on this one, resolving one goes through the other grid's security.
+	private final Map<IGrid, ForeignOwner> foreignOwners = new WeakHashMap<>();
 	private long securityKey = -1;
 
 	public SecurityCache( final IGrid g )
@@ -59,6 +74,8 @@ public class SecurityCache implements ISecurityGrid
 	public void updatePermissions( final MENetworkSecurityChange ev )
 	{
 		this.playerPerms.clear();
+		this.decisions.clear();
+		securityEpoch++;
 		if( this.securityProvider.isEmpty() )
 		{
 			return;
@@ -67,6 +84,27 @@ public class SecurityCache implements ISecurityGrid
 		this.securityProvider.get( 0 ).readPermissions( this.playerPerms );
 	}
 
+	/**
+	 * A security station only enforces its settings while it is powered and has a channel.
+	 */
+	@MENetworkEventSubscribe
+	public void powerUpdate( final MENetworkPowerStatusChange ev )
+	{
+		if( !this.securityProvider.isEmpty() )
+		{
+			securityEpoch++;
+		}
+	}
+
+	@MENetworkEventSubscribe
+	public void channelUpdate( final MENetworkChannelsChanged ev )
+	{
+		if( !this.securityProvider.isEmpty() )
+		{
+			securityEpoch++;
+		}
+	}
+
 	public long getSecurityKey()
 	{
 		return this.securityKey;
@@ -84,6 +122,8 @@ public class SecurityCache implements ISecurityGrid
 		if( machine instanceof ISecurityProvider )
 		{
 			this.securityProvider.remove( machine );
+			this.decisions.clear();
+			securityEpoch++;
 			this.updateSecurityKey();
 		}
 	}
@@ -117,6 +157,8 @@ public class SecurityCache implements ISecurityGrid
 		if( machine instanceof ISecurityProvider )
 		{
 			this.securityProvider.add( (ISecurityProvider) machine );
+			this.decisions.clear();
+			securityEpoch++;
 			this.updateSecurityKey();
 		}
 		else
@@ -155,14 +197,74 @@ public class SecurityCache implements ISecurityGrid
 		Preconditions.checkNotNull( player );
 		Preconditions.checkNotNull( perm );
 
-		final GameProfile profile = player.getGameProfile();
-		final int playerID = WorldData.instance().playerData().getPlayerID( profile );
+		Integer playerID = this.playerIDs.get( player );
+		if( playerID == null )
+		{
+			final GameProfile profile = player.getGameProfile();
+			playerID = WorldData.instance().playerData().getPlayerID( profile );
+			this.playerIDs.put( player, playerID );
+		}
 
 		return this.hasPermission( playerID, perm );
 	}
 
 	@Override
 	public boolean hasPermission( final int playerID, final SecurityPermissions perm )
+	{
+		if( !this.isAvailable() )
+		{
+			return true;
+		}
+
+		PermissionDecision decision = this.decisions.get( playerID );
+		if( decision == null )
+		{
+			this.decisions.put( playerID, decision = new PermissionDecision() );
+		}
+
+		final int bit = 1 << perm.ordinal();
+		if( ( decision.known & bit ) != 0 )
+		{
+			if( GridProfiler.isEnabled() )
+			{
+				GridProfiler.INSTANCE.count( this.myGrid, ProfileCategory.SECURITY_CACHE, "hit" );
+			}
+
+			return ( decision.granted & bit ) != 0;
+		}
+
+		if( GridProfiler.isEnabled() )
+		{
+			GridProfiler.INSTANCE.count( this.myGrid, ProfileCategory.SECURITY_CACHE, "miss" );
+		}
+
+		final boolean granted = this.resolvePermission( playerID, perm );
+		decision.known |= bit;
+		if( granted )
+		{
+			decision.granted |= bit;
+		}
+
+		return granted;
+	}
+
+	/**
+	 * Checks a permission for the machines of another grid, on behalf of the owner of that grid's security station.
+	 */
+	public boolean hasPermission( final IGrid source, final SecurityPermissions perm )
+	{
+		ForeignOwner owner = this.foreignOwners.get( source );
+		if( owner == null || owner.epoch != securityEpoch )
+		{
+			final ISecurityGrid sg = source.getCache( ISecurityGrid.class );
+			owner = new ForeignOwner( securityEpoch, sg.getOwner() );
+			this.foreignOwners.put( source, owner );
+		}
+
+		return this.hasPermission( owner.playerID, perm );
+	}
+
+	private boolean resolvePermission( final int playerID, final SecurityPermissions perm )
 	{
 		if( this.isAvailable() )
 		{
@@ -176,7 +278,7 @@ public class SecurityCache implements ISecurityGrid
 				}
 				else
 				{
-					return this.hasPermission( -1, perm );
+					return this.resolvePermission( -1, perm );
 				}
 			}
 
@@ -199,4 +301,22 @@ public class SecurityCache implements ISecurityGrid
 	{
 		return this.myGrid;
 	}
+
+	private static class PermissionDecision
+	{
+		private int known = 0;
+		private int granted = 0;
+	}
+
+	private static class ForeignOwner
+	{
+		private final long epoch;
+		private final int playerID;
+
+		private ForeignOwner( final long epoch, final int playerID )
+		{
+			this.epoch = epoch;
+			this.playerID = playerID;
+		}
+	}
 }
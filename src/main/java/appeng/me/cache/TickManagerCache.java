@@ -35,6 +35,8 @@ import appeng.api.networking.ticking.ITickManager;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.networking.ticking.TickingRequest;
 import appeng.me.cache.helpers.TickTracker;
+import appeng.me.profiling.GridProfiler;
+import appeng.me.profiling.ProfileCategory;
 
 
 public class TickManagerCache implements ITickManager
@@ -89,7 +91,18 @@ public class TickManagerCache implements ITickManager
 				{
 					// remove tt..
 					this.upcomingTicks.poll();
-					final TickRateModulation mod = tt.getGridTickable().tickingRequest( tt.getNode(), diff );
+					final TickRateModulation mod;
+
+					if( GridProfiler.isEnabled() )
+					{
+						final long start = System.nanoTime();
+						mod = tt.getGridTickable().tickingRequest( tt.getNode(), diff );
+						GridProfiler.INSTANCE.record( this.myGrid, ProfileCategory.MACHINE_TICK, tt.getGridTickable().getClass(), System.nanoTime() - start );
+					}
+					else
+					{
+						mod = tt.getGridTickable().tickingRequest( tt.getNode(), diff );
+					}
 
 					switch( mod )
 					{
@@ -0,0 +1,168 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.energy;
+
+
+import java.util.Collection;
+import java.util.Iterator;
+
+import appeng.api.config.Actionable;
+import appeng.api.config.PowerMultiplier;
+import appeng.api.networking.energy.IAEPowerStorage;
+
+
+/**
+ * Energy owned by the grid itself, which serves extractions and injections without visiting any
+ * {@link IAEPowerStorage}.
+ *
+ * Once per tick {@link #settle} moves energy between the pool and the physical storages, refilling it from the
+ * providers up to a target or handing the surplus to the requesters. Every transfer is checked against the change
+ * reported by the storage, mismatches are counted as violations.
+ */
+public class EnergyPool
+{
+
+	/**
+	 * tolerated rounding error of a single transfer.
+	 */
+	private static final double EPSILON = 0.0001;
+
+	private double stored = 0;
+	private int violations = 0;
+
+	public double getStored()
+	{
+		return this.stored;
+	}
+
+	/**
+	 * @return the number of storages which did not change by the amount they reported so far.
+	 */
+	public int getViolations()
+	{
+		return this.violations;
+	}
+
+	/**
+	 * @return the extracted amount, at most the stored energy.
+	 */
+	public double extract( final double amt, final Actionable mode )
+	{
+		final double extracted = Math.min( amt, this.stored );
+
+		if( mode == Actionable.MODULATE )
+		{
+			this.stored -= extracted;
+		}
+
+		return extracted;
+	}
+
+	/**
+	 * @return the amount which did not fit below the capacity.
+	 */
+	public double inject( final double amt, final double capacity, final Actionable mode )
+	{
+		final double toStore = Math.max( 0, Math.min( amt, capacity - this.stored ) );
+
+		if( mode == Actionable.MODULATE )
+		{
+			this.stored += toStore;
+		}
+
+		return amt - toStore;
+	}
+
+	/**
+	 * Unconditionally adds energy, used when grids join.
+	 */
+	public void add( final double amt )
+	{
+		this.stored += amt;
+	}
+
+	/**
+	 * Unconditionally removes energy, used when grids split.
+	 */
+	public void remove( final double amt )
+	{
+		this.stored -= amt;
+	}
+
+	/**
+	 * Moves energy between the pool and the physical storages until the pool holds the target amount, or no storage
+	 * is able to help any further. Storages which cannot provide or accept more are removed from the collections, like
+	 * extraction and injection do.
+	 *
+	 * @return the energy moved into the pool, negative if energy was handed to the requesters.
+	 */
+	public double settle( final Collection<IAEPowerStorage> providers, final Collection<IAEPowerStorage> requesters, final double target )
+	{
+		final double before = this.stored;
+
+		if( this.stored < target )
+		{
+			final Iterator<IAEPowerStorage> it = providers.iterator();
+			while( this.stored < target && it.hasNext() )
+			{
+				final IAEPowerStorage node = it.next();
+				final double req = target - this.stored;
+				final double current = node.getAECurrentPower();
+				final double got = node.extractAEPower( req, Actionable.MODULATE, PowerMultiplier.ONE );
+
+				this.verify( current - node.getAECurrentPower(), got );
+				this.stored += got;
+
+				if( got < req )
+				{
+					it.remove();
+				}
+			}
+		}
+		else if( this.stored > target )
+		{
+			final Iterator<IAEPowerStorage> it = requesters.iterator();
+			while( this.stored > target && it.hasNext() )
+			{
+				final IAEPowerStorage node = it.next();
+				final double offer = this.stored - target;
+				final double current = node.getAECurrentPower();
+				final double leftover = node.injectAEPower( offer, Actionable.MODULATE );
+
+				this.verify( node.getAECurrentPower() - current, offer - leftover );
+				this.stored -= offer - leftover;
+
+				if( leftover > 0 )
+				{
+					it.remove();
+				}
+			}
+		}
+
+		return this.stored - before;
+	}
+
+	private void verify( final double changed, final double reported )
+	{
+		if( Math.abs( changed - reported ) > EPSILON )
+		{
+			this.violations++;
+		}
+	}
+}
@@ -365,6 +365,9 @@ public class AENetworkProxy implements IGridBlock
 		return this.myRepInstance;
 	}
 
+	/**
+	 * Only called while constructing the host, the node reads the flags once it is created in {@link #getNode()}.
+	 */
 	public void setFlags( final GridFlags... requireChannel )
 	{
 		final EnumSet<GridFlags> flags = EnumSet.noneOf( GridFlags.class );
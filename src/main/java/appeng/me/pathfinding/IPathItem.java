@@ -54,6 +54,13 @@ public interface IPathItem
 	 */
 	EnumSet<GridFlags> getFlags();
 
+	/**
+	 * allocation free alternative to {@link #getFlags()}, used while pathing.
+	 *
+	 * @return true if this IPathItem has the flag.
+	 */
+	boolean hasFlag( GridFlags flag );
+
 	/**
 	 * channels are done, wrap it up.
 	 */
@@ -19,7 +19,6 @@
 package appeng.me.pathfinding;
 
 
-import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -58,20 +57,18 @@ public class PathSegment
 		{
 			for( final IPathItem pi : i.getPossibleOptions() )
 			{
-				final EnumSet<GridFlags> flags = pi.getFlags();
-
 				if( !this.closed.contains( pi ) )
 				{
 					pi.setControllerRoute( i, true );
 
-					if( flags.contains( GridFlags.REQUIRE_CHANNEL ) )
+					if( pi.hasFlag( GridFlags.REQUIRE_CHANNEL ) )
 					{
 						// close the semi open.
 						if( !this.semiOpen.contains( pi ) )
 						{
 							final boolean worked;
 
-							if( flags.contains( GridFlags.COMPRESSED_CHANNEL ) )
+							if( pi.hasFlag( GridFlags.COMPRESSED_CHANNEL ) )
 							{
 								worked = this.useDenseChannel( pi );
 							}
@@ -80,7 +77,7 @@ public class PathSegment
 								worked = this.useChannel( pi );
 							}
 
-							if( worked && flags.contains( GridFlags.MULTIBLOCK ) )
+							if( worked && pi.hasFlag( GridFlags.MULTIBLOCK ) )
 							{
 								final Iterator<IGridNode> oni = ( (IGridMultiblock) ( (IGridNode) pi ).getGridBlock() ).getMultiblockNodes();
 								while( oni.hasNext() )
@@ -114,7 +111,7 @@ public class PathSegment
 		IPathItem pi = start;
 		while( pi != null )
 		{
-			if( !pi.canSupportMoreChannels() || pi.getFlags().contains( GridFlags.CANNOT_CARRY_COMPRESSED ) )
+			if( !pi.canSupportMoreChannels() || pi.hasFlag( GridFlags.CANNOT_CARRY_COMPRESSED ) )
 			{
 				return false;
 			}
@@ -0,0 +1,271 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.profiling;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.WeakHashMap;
+
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.events.MENetworkEvent;
+import appeng.api.util.DimensionalCoord;
+import appeng.me.Grid;
+import appeng.me.NetworkEventBus;
+
+
+/**
+ * Collects per grid timings of caches, ticking machines, network events and storage operations.
+ *
+ * Profiling is off by default, every call site is expected to check {@link #isEnabled()} before measuring anything,
+ * so a disabled profiler costs a single static read. All methods are meant to be called from the server thread.
+ */
+public final class GridProfiler implements NetworkEventBus.IDispatchHook
+{
+
+	public static final GridProfiler INSTANCE = new GridProfiler();
+
+	private static final String CSV_HEADER = "grid,location,category,key,calls,total_ns,avg_ns,window_ticks,window_calls,window_ns_per_tick,window_peak_ns";
+	private static final String MEMORY_CSV_HEADER = "grid,location,nodes,connections,estimated_bytes";
+
+	private static boolean enabled = false;
+
+	private final Map<IGrid, Map<ProfileCategory, Map<Object, ProfileSample>>> grids = new WeakHashMap<>();
+	private long currentTick = 0;
+	private long startTick = 0;
+
+	private GridProfiler()
+	{
+	}
+
+	public static boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	public void start()
+	{
+		this.grids.clear();
+		this.startTick = this.currentTick;
+		NetworkEventBus.setDispatchHook( this );
+		enabled = true;
+	}
+
+	public void stop()
+	{
+		enabled = false;
+		NetworkEventBus.setDispatchHook( null );
+	}
+
+	/**
+	 * Advances the ring buffers, called once per server tick.
+	 */
+	public void tick()
+	{
+		if( enabled )
+		{
+			this.currentTick++;
+		}
+	}
+
+	public void record( final IGrid grid, final ProfileCategory category, final Object key, final long nanos )
+	{
+		if( !enabled || grid == null )
+		{
+			return;
+		}
+
+		Map<ProfileCategory, Map<Object, ProfileSample>> categories = this.grids.get( grid );
+		if( categories == null )
+		{
+			this.grids.put( grid, categories = new EnumMap<>( ProfileCategory.class ) );
+		}
+
+		Map<Object, ProfileSample> samples = categories.get( category );
+		if( samples == null )
+		{
+			categories.put( category, samples = new HashMap<>() );
+		}
+
+		ProfileSample sample = samples.get( key );
+		if( sample == null )
+		{
+			samples.put( key, sample = new ProfileSample( this.currentTick ) );
+		}
+
+		sample.record( this.currentTick, nanos );
+	}
+
+	/**
+	 * Counts an occurrence without measuring any time.
+	 */
+	public void count( final IGrid grid, final ProfileCategory category, final Object key )
+	{
+		this.record( grid, category, key, 0 );
+	}
+
+	@Override
+	public void onEventDispatched( final Grid grid, final MENetworkEvent event, final int visited, final long nanos )
+	{
+		this.record( grid, ProfileCategory.NETWORK_EVENT, event.getClass(), nanos );
+	}
+
+	/**
+	 * Writes all collected samples as CSV into the given directory.
+	 *
+	 * @return the written file
+	 */
+	public File export( final File directory ) throws IOException
+	{
+		if( !directory.isDirectory() && !directory.mkdirs() )
+		{
+			throw new IOException( "Failed to create " + directory.getAbsolutePath() );
+		}
+
+		final String stamp = new SimpleDateFormat( "yyyy-MM-dd_HH.mm.ss" ).format( new Date() );
+		final File file = new File( directory, "profile-" + stamp + ".csv" );
+		final long windowTicks = Math.max( 1, Math.min( this.currentTick - this.startTick, ProfileSample.WINDOW ) );
+
+		try( PrintWriter out = new PrintWriter( Files.newBufferedWriter( file.toPath(), StandardCharsets.UTF_8 ) ) )
+		{
+			out.println( CSV_HEADER );
+
+			for( final Entry<IGrid, Map<ProfileCategory, Map<Object, ProfileSample>>> grid : this.grids.entrySet() )
+			{
+				final String gridId = Integer.toHexString( System.identityHashCode( grid.getKey() ) );
+				final String location = this.getLocation( grid.getKey() );
+
+				for( final Entry<ProfileCategory, Map<Object, ProfileSample>> category : grid.getValue().entrySet() )
+				{
+					for( final Entry<Object, ProfileSample> entry : category.getValue().entrySet() )
+					{
+						final ProfileSample sample = entry.getValue();
+						sample.advance( this.currentTick );
+
+						final long calls = sample.getTotalCalls();
+
+						out.print( gridId );
+						out.print( ',' );
+						out.print( this.quote( location ) );
+						out.print( ',' );
+						out.print( category.getKey().name() );
+						out.print( ',' );
+						out.print( this.quote( this.getKeyName( entry.getKey() ) ) );
+						out.print( ',' );
+						out.print( calls );
+						out.print( ',' );
+						out.print( sample.getTotalNanos() );
+						out.print( ',' );
+						out.print( calls > 0 ? sample.getTotalNanos() / calls : 0 );
+						out.print( ',' );
+						out.print( windowTicks );
+						out.print( ',' );
+						out.print( sample.getWindowCalls() );
+						out.print( ',' );
+						out.print( sample.getWindowNanos() / windowTicks );
+						out.print( ',' );
+						out.println( sample.getWindowPeakNanos() );
+					}
+				}
+			}
+		}
+
+		return file;
+	}
+
+	/**
+	 * Writes the node count, connection count and estimated memory footprint of every grid as CSV into the given
+	 * directory.
+	 *
+	 * @return the written file
+	 */
+	public File exportMemory( final File directory, final Iterable<Grid> grids ) throws IOException
+	{
+		if( !directory.isDirectory() && !directory.mkdirs() )
+		{
+			throw new IOException( "Failed to create " + directory.getAbsolutePath() );
+		}
+
+		final String stamp = new SimpleDateFormat( "yyyy-MM-dd_HH.mm.ss" ).format( new Date() );
+		final File file = new File( directory, "memory-" + stamp + ".csv" );
+
+		try( PrintWriter out = new PrintWriter( Files.newBufferedWriter( file.toPath(), StandardCharsets.UTF_8 ) ) )
+		{
+			out.println( MEMORY_CSV_HEADER );
+
+			for( final Grid grid : grids )
+			{
+				long connections = 0;
+				for( final IGridNode node : grid.getNodes() )
+				{
+					connections += node.getConnections().size();
+				}
+
+				out.print( Integer.toHexString( System.identityHashCode( grid ) ) );
+				out.print( ',' );
+				out.print( this.quote( this.getLocation( grid ) ) );
+				out.print( ',' );
+				out.print( grid.getNodes().size() );
+				out.print( ',' );
+				out.print( connections / 2 );
+				out.print( ',' );
+				out.println( grid.getMemoryFootprint() );
+			}
+		}
+
+		return file;
+	}
+
+	private String getLocation( final IGrid grid )
+	{
+		final IGridNode pivot = grid.getPivot();
+		if( pivot == null )
+		{
+			return "";
+		}
+
+		final DimensionalCoord dc = pivot.getGridBlock().getLocation();
+		return dc == null ? "" : dc.toString();
+	}
+
+	private String getKeyName( final Object key )
+	{
+		if( key instanceof Class )
+		{
+			return ( (Class<?>) key ).getName();
+		}
+
+		return String.valueOf( key );
+	}
+
+	private String quote( final String value )
+	{
+		return '"' + value.replace( "\"", "\"\"" ) + '"';
+	}
+}
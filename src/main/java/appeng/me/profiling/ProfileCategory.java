@@ -0,0 +1,56 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.profiling;
+
+
+/**
+ * The different kinds of work the {@link GridProfiler} keeps apart.
+ */
+public enum ProfileCategory
+{
+	/**
+	 * {@link appeng.api.networking.IGridCache#onUpdateTick()}, keyed by cache class.
+	 */
+	CACHE_TICK,
+
+	/**
+	 * {@link appeng.api.networking.ticking.IGridTickable#tickingRequest}, keyed by machine class.
+	 */
+	MACHINE_TICK,
+
+	/**
+	 * Posted network events, keyed by event class.
+	 */
+	NETWORK_EVENT,
+
+	/**
+	 * Injections into the network storage, keyed by storage channel.
+	 */
+	STORAGE_INJECT,
+
+	/**
+	 * Extractions from the network storage, keyed by storage channel.
+	 */
+	STORAGE_EXTRACT,
+
+	/**
+	 * Hits and misses of the security permission cache, counted without timings.
+	 */
+	SECURITY_CACHE
+}
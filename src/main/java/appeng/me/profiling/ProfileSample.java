@@ -0,0 +1,117 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.profiling;
+
+
+/**
+ * Accumulated timings of a single profiled key.
+ *
+ * Besides the lifetime totals, the last {@link #WINDOW} profiler ticks are kept in a ring buffer, so an export shows
+ * the recent cost per tick without storing individual samples.
+ */
+public class ProfileSample
+{
+
+	public static final int WINDOW = 128;
+	private static final int MASK = WINDOW - 1;
+
+	private final long[] tickNanos = new long[WINDOW];
+	private final int[] tickCalls = new int[WINDOW];
+
+	private long lastTick;
+	private long totalNanos;
+	private long totalCalls;
+
+	ProfileSample( final long currentTick )
+	{
+		this.lastTick = currentTick;
+	}
+
+	void record( final long currentTick, final long nanos )
+	{
+		this.advance( currentTick );
+
+		final int slot = (int) ( currentTick & MASK );
+		this.tickNanos[slot] += nanos;
+		this.tickCalls[slot]++;
+		this.totalNanos += nanos;
+		this.totalCalls++;
+	}
+
+	/**
+	 * Clears all slots which were not written since the last recorded tick.
+	 */
+	void advance( final long currentTick )
+	{
+		if( currentTick <= this.lastTick )
+		{
+			return;
+		}
+
+		final long stale = Math.min( currentTick - this.lastTick, WINDOW );
+		for( long x = 1; x <= stale; x++ )
+		{
+			final int slot = (int) ( ( this.lastTick + x ) & MASK );
+			this.tickNanos[slot] = 0;
+			this.tickCalls[slot] = 0;
+		}
+
+		this.lastTick = currentTick;
+	}
+
+	public long getTotalNanos()
+	{
+		return this.totalNanos;
+	}
+
+	public long getTotalCalls()
+	{
+		return this.totalCalls;
+	}
+
+	public long getWindowNanos()
+	{
+		long sum = 0;
+		for( final long n : this.tickNanos )
+		{
+			sum += n;
+		}
+		return sum;
+	}
+
+	public long getWindowCalls()
+	{
+		long sum = 0;
+		for( final int c : this.tickCalls )
+		{
+			sum += c;
+		}
+		return sum;
+	}
+
+	public long getWindowPeakNanos()
+	{
+		long peak = 0;
+		for( final long n : this.tickNanos )
+		{
+			peak = Math.max( peak, n );
+		}
+		return peak;
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.storage;
+
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+import net.minecraft.item.Item;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.util.item.AEItemStack;
+
+
+/**
+ * Watches the fuzzy range around a reference stack for its hosts, so they can keep a running total of everything
+ * matching it instead of summing a findFuzzy result after each change. Watches are grouped by item, a change only
+ * visits the watches registered for its own item.
+ */
+public class FuzzyRangeWatchers
+{
+
+	private final ListMultimap<Item, Watch> byItem = ArrayListMultimap.create();
+	private final Map<IFuzzyRangeHost, Watch> byHost = new HashMap<>();
+	private boolean invalid = false;
+
+	/**
+	 * Starts watching the range, replacing an earlier watch of the same host.
+	 */
+	public void add( final IFuzzyRangeHost host, final IAEItemStack reference, final FuzzyMode mode )
+	{
+		this.remove( host );
+
+		final Watch w = new Watch( host, reference.copy(), mode );
+		this.byHost.put( host, w );
+
+		// an ore dictionary filter also matches the other items of its ore
+		w.items.add( reference.getItem() );
+		( (AEItemStack) reference ).getOre().ifPresent( ore ->
+		{
+			for( final IAEItemStack equivalent : ore.getAEEquivalents() )
+			{
+				w.items.add( equivalent.getItem() );
+			}
+		} );
+
+		for( final Item item : w.items )
+		{
+			this.byItem.put( item, w );
+		}
+	}
+
+	public void remove( final IFuzzyRangeHost host )
+	{
+		final Watch w = this.byHost.remove( host );
+
+		if( w != null )
+		{
+			for( final Item item : w.items )
+			{
+				this.byItem.remove( item, w );
+			}
+		}
+	}
+
+	/**
+	 * @param difference a change of the network contents, negative when items were removed
+	 */
+	public void postChange( final IAEItemStack difference )
+	{
+		final List<Watch> watches = this.byItem.get( difference.getItem() );
+
+		if( watches.isEmpty() )
+		{
+			return;
+		}
+
+		// hosts may reconfigure themselves from the callback
+		for( final Watch w : watches.toArray( new Watch[watches.size()] ) )
+		{
+			if( w.reference.fuzzyComparison( difference, w.mode ) )
+			{
+				w.host.onFuzzyRangeChange( difference );
+			}
+		}
+	}
+
+	/**
+	 * Marks every running total as stale, for changes the hosts could not be told about. They recompute on the next
+	 * {@link #revalidate()}.
+	 */
+	public void invalidate()
+	{
+		this.invalid = true;
+	}
+
+	/**
+	 * Lets every host recompute its total, if a change was missed since the last call.
+	 */
+	public void revalidate()
+	{
+		if( !this.invalid )
+		{
+			return;
+		}
+
+		this.invalid = false;
+
+		for( final IFuzzyRangeHost host : this.byHost.keySet().toArray( new IFuzzyRangeHost[this.byHost.size()] ) )
+		{
+			host.onFuzzyRangeInvalidated();
+		}
+	}
+
+	public interface IFuzzyRangeHost
+	{
+
+		/**
+		 * Called for each change of a stack inside the watched range.
+		 *
+		 * @param difference the change, negative when items were removed
+		 */
+		void onFuzzyRangeChange( IAEItemStack difference );
+
+		/**
+		 * Called when changes inside the range were missed, the total has to be computed again from the storage list.
+		 */
+		void onFuzzyRangeInvalidated();
+	}
+
+	private static class Watch
+	{
+
+		private final IFuzzyRangeHost host;
+		private final IAEItemStack reference;
+		private final FuzzyMode mode;
+		private final Set<Item> items = new HashSet<>();
+
+		private Watch( final IFuzzyRangeHost host, final IAEItemStack reference, final FuzzyMode mode )
+		{
+			this.host = host;
+			this.reference = reference;
+			this.mode = mode;
+		}
+	}
+}
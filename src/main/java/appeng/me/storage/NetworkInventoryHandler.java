@@ -33,7 +33,6 @@ import appeng.api.config.SecurityPermissions;
 import appeng.api.networking.IGrid;
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.security.IActionSource;
-import appeng.api.networking.security.ISecurityGrid;
 import appeng.api.storage.IMEInventoryHandler;
 import appeng.api.storage.StorageChannel;
 import appeng.api.storage.data.IAEStack;
@@ -155,16 +154,9 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 				}
 
 				final IGrid gn = n.getGrid();
-				if( gn != this.security.getGrid() )
+				if( gn != this.security.getGrid() && !this.security.hasPermission( gn, permission ) )
 				{
-
-					final ISecurityGrid sg = gn.getCache( ISecurityGrid.class );
-					final int playerID = sg.getOwner();
-
-					if( !this.security.hasPermission( playerID, permission ) )
-					{
-						return true;
-					}
+					return true;
 				}
 			}
 		}
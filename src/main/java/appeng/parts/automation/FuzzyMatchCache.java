@@ -0,0 +1,171 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.parts.automation;
+
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.networking.IGrid;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.networking.storage.IBaseMonitor;
+import appeng.api.storage.IMEMonitor;
+import appeng.api.storage.IMEMonitorHandlerReceiver;
+import appeng.api.storage.data.IAEItemStack;
+
+
+/**
+ * Remembers which network items fuzzy match each config slot of a bus, so the bus does not have to search and copy
+ * the storage list every time it ticks.
+ *
+ * The lists are built once from {@link appeng.api.storage.data.IItemList#findFuzzy} and then kept up to date from the
+ * change notifications of the network. New items are appended, items which are gone are only dropped the next time
+ * the list is requested, so a caller can safely iterate a list by index while its own extractions cause changes.
+ */
+class FuzzyMatchCache implements IMEMonitorHandlerReceiver<IAEItemStack>
+{
+
+	private final IAEItemStack[] filters;
+	private final List<IAEItemStack>[] matches;
+	private final Set<IAEItemStack>[] members;
+	private final boolean[] removals;
+
+	private FuzzyMode mode;
+	private IGrid grid;
+
+	@SuppressWarnings( "unchecked" )
+	FuzzyMatchCache( final int slots )
+	{
+		this.filters = new IAEItemStack[slots];
+		this.matches = new List[slots];
+		this.members = new Set[slots];
+		this.removals = new boolean[slots];
+	}
+
+	/**
+	 * @return the cached matches for the slot, iterate by index and do not modify it
+	 */
+	List<IAEItemStack> getMatches( final int slot, final IAEItemStack filter, final FuzzyMode fuzzyMode, final IMEMonitor<IAEItemStack> inv, final IGrid grid )
+	{
+		if( this.grid != grid )
+		{
+			this.clear();
+			this.grid = grid;
+			inv.addListener( this, grid );
+		}
+
+		if( this.mode != fuzzyMode )
+		{
+			this.clear();
+			this.mode = fuzzyMode;
+		}
+
+		if( this.filters[slot] == null || !this.filters[slot].isSameType( filter ) )
+		{
+			final List<IAEItemStack> list = new ArrayList<>();
+			for( final IAEItemStack o : inv.getStorageList().findFuzzy( filter, fuzzyMode ) )
+			{
+				list.add( o.copy() );
+			}
+
+			this.filters[slot] = filter.copy();
+			this.matches[slot] = list;
+			this.members[slot] = new HashSet<>( list );
+			this.removals[slot] = false;
+		}
+		else if( this.removals[slot] )
+		{
+			this.removals[slot] = false;
+			this.matches[slot].removeIf( o ->
+			{
+				final IAEItemStack stored = inv.getStorageList().findPrecise( o );
+				if( stored == null || !stored.isMeaningful() )
+				{
+					this.members[slot].remove( o );
+					return true;
+				}
+				return false;
+			} );
+		}
+
+		return this.matches[slot];
+	}
+
+	/**
+	 * Forgets everything and stops listening to the network.
+	 */
+	void invalidate()
+	{
+		this.clear();
+		this.grid = null;
+	}
+
+	private void clear()
+	{
+		for( int slot = 0; slot < this.filters.length; slot++ )
+		{
+			this.filters[slot] = null;
+			this.matches[slot] = null;
+			this.members[slot] = null;
+			this.removals[slot] = false;
+		}
+	}
+
+	@Override
+	public boolean isValid( final Object verificationToken )
+	{
+		return this.grid != null && this.grid == verificationToken;
+	}
+
+	@Override
+	public void postChange( final IBaseMonitor<IAEItemStack> monitor, final Iterable<IAEItemStack> change, final IActionSource actionSource )
+	{
+		for( final IAEItemStack o : change )
+		{
+			for( int slot = 0; slot < this.filters.length; slot++ )
+			{
+				final IAEItemStack filter = this.filters[slot];
+				if( filter == null || !filter.fuzzyComparison( o, this.mode ) )
+				{
+					continue;
+				}
+
+				if( o.getStackSize() < 0 )
+				{
+					this.removals[slot] = true;
+				}
+				else if( !this.members[slot].contains( o ) )
+				{
+					final IAEItemStack copy = o.copy();
+					this.members[slot].add( copy );
+					this.matches[slot].add( copy );
+				}
+			}
+		}
+	}
+
+	@Override
+	public void onListUpdate()
+	{
+		this.clear();
+	}
+}
@@ -0,0 +1,271 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.parts.automation;
+
+
+import java.util.Arrays;
+
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+
+import appeng.api.config.Actionable;
+import appeng.api.config.FuzzyMode;
+import appeng.api.config.PowerMultiplier;
+import appeng.api.networking.energy.IEnergySource;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.storage.IMEInventory;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.util.Platform;
+import appeng.util.item.AEItemStack;
+
+
+/**
+ * Collects everything an import bus can take from an inventory in a single pass over its slots and moves it into
+ * the network with one simulated and one real insert per item type, paying the power for the whole batch at once.
+ *
+ * The buffers are kept between batches, so a bus importing the same items over and over does not allocate anything
+ * on its own.
+ */
+public class ImportBatch
+{
+
+	private int[] slots = new int[16];
+	private int[] amounts = new int[16];
+	private int[] typeOf = new int[16];
+	private int entries;
+
+	private IAEItemStack[] types = new IAEItemStack[4];
+	private long[] wanted = new long[4];
+	private long[] moved = new long[4];
+	private boolean[] accepted = new boolean[4];
+	private int typeCount;
+
+	/**
+	 * Gathers up to the given amount of items matching the filter, without changing the inventory. Items the
+	 * destination does not accept at all are skipped, so they cannot block the slots behind them.
+	 *
+	 * @param filter an empty stack accepts everything
+	 * @param fuzzyMode null for an exact match
+	 *
+	 * @return the number of items gathered
+	 */
+	public int gather( final IItemHandler handler, final ItemStack filter, final FuzzyMode fuzzyMode, final int amount, final IMEInventory<IAEItemStack> destination, final IActionSource src )
+	{
+		this.entries = 0;
+		this.typeCount = 0;
+
+		int remaining = amount;
+		final int slotCount = handler.getSlots();
+
+		for( int slot = 0; slot < slotCount && remaining > 0; slot++ )
+		{
+			final ItemStack is = handler.getStackInSlot( slot );
+			if( is.isEmpty() || !this.matches( is, filter, fuzzyMode ) )
+			{
+				continue;
+			}
+
+			final int type = this.typeIndex( is, destination, src );
+			if( !this.accepted[type] )
+			{
+				continue;
+			}
+
+			final ItemStack simulated = handler.extractItem( slot, Math.min( remaining, is.getCount() ), true );
+			if( simulated.isEmpty() )
+			{
+				continue;
+			}
+
+			this.add( slot, simulated.getCount(), type );
+			this.wanted[type] += simulated.getCount();
+			remaining -= simulated.getCount();
+		}
+
+		return amount - remaining;
+	}
+
+	/**
+	 * Moves the gathered items into the destination, limited by what it accepts and the available power.
+	 *
+	 * @return the number of items which ended up in the destination
+	 */
+	public int transfer( final IItemHandler handler, final IMEInventory<IAEItemStack> destination, final IEnergySource energy, final IActionSource src )
+	{
+		if( this.entries == 0 )
+		{
+			return 0;
+		}
+
+		long accepted = 0;
+		for( int t = 0; t < this.typeCount; t++ )
+		{
+			if( this.wanted[t] <= 0 )
+			{
+				continue;
+			}
+
+			final IAEItemStack type = this.types[t];
+			type.setStackSize( this.wanted[t] );
+
+			final IAEItemStack rejected = destination.injectItems( type, Actionable.SIMULATE, src );
+			if( rejected != null )
+			{
+				this.wanted[t] -= Math.min( this.wanted[t], rejected.getStackSize() );
+			}
+			accepted += this.wanted[t];
+		}
+
+		if( accepted <= 0 )
+		{
+			return 0;
+		}
+
+		// Power is checked and paid once for the whole batch, the last types give way when it is not enough.
+		final long affordable = Math.min( accepted, (long) ( energy.extractAEPower( accepted, Actionable.SIMULATE, PowerMultiplier.CONFIG ) + 0.01 ) );
+		for( int t = this.typeCount - 1; t >= 0 && accepted > affordable; t-- )
+		{
+			final long cut = Math.min( this.wanted[t], accepted - affordable );
+			this.wanted[t] -= cut;
+			accepted -= cut;
+		}
+
+		if( accepted <= 0 )
+		{
+			return 0;
+		}
+
+		for( int e = 0; e < this.entries; e++ )
+		{
+			final int t = this.typeOf[e];
+			final int toExtract = (int) Math.min( this.amounts[e], this.wanted[t] - this.moved[t] );
+			if( toExtract <= 0 )
+			{
+				continue;
+			}
+
+			final ItemStack got = handler.extractItem( this.slots[e], toExtract, false );
+			this.moved[t] += got.getCount();
+		}
+
+		long inserted = 0;
+		for( int t = 0; t < this.typeCount; t++ )
+		{
+			if( this.moved[t] <= 0 )
+			{
+				continue;
+			}
+
+			final IAEItemStack type = this.types[t];
+			type.setStackSize( this.moved[t] );
+
+			final IAEItemStack failed = destination.injectItems( type, Actionable.MODULATE, src );
+			inserted += this.moved[t];
+
+			if( failed != null && failed.getStackSize() > 0 )
+			{
+				inserted -= failed.getStackSize();
+				this.giveBack( handler, failed.createItemStack() );
+			}
+		}
+
+		// only what actually arrived is paid for, like Platform.poweredInsert.
+		energy.extractAEPower( inserted, Actionable.MODULATE, PowerMultiplier.CONFIG );
+
+		return (int) inserted;
+	}
+
+	private boolean matches( final ItemStack is, final ItemStack filter, final FuzzyMode fuzzyMode )
+	{
+		if( filter.isEmpty() )
+		{
+			return true;
+		}
+
+		if( fuzzyMode != null )
+		{
+			return Platform.itemComparisons().isFuzzyEqualItem( is, filter, fuzzyMode );
+		}
+
+		return Platform.itemComparisons().isSameItem( is, filter );
+	}
+
+	private int typeIndex( final ItemStack is, final IMEInventory<IAEItemStack> destination, final IActionSource src )
+	{
+		for( int t = 0; t < this.typeCount; t++ )
+		{
+			if( this.types[t].isSameType( is ) )
+			{
+				return t;
+			}
+		}
+
+		if( this.typeCount == this.types.length )
+		{
+			final int size = this.typeCount * 2;
+			this.types = Arrays.copyOf( this.types, size );
+			this.wanted = Arrays.copyOf( this.wanted, size );
+			this.moved = Arrays.copyOf( this.moved, size );
+			this.accepted = Arrays.copyOf( this.accepted, size );
+		}
+
+		final int t = this.typeCount++;
+
+		// Reuse the stack from the previous batch when it is still the same item.
+		if( this.types[t] == null || !this.types[t].isSameType( is ) )
+		{
+			this.types[t] = AEItemStack.create( is );
+		}
+
+		this.wanted[t] = 0;
+		this.moved[t] = 0;
+
+		// checked once per type and batch, like the canInsert filter of the adaptor based import.
+		final IAEItemStack probe = this.types[t];
+		probe.setStackSize( is.getCount() );
+		final IAEItemStack rejected = destination.injectItems( probe, Actionable.SIMULATE, src );
+		this.accepted[t] = rejected == null || rejected.getStackSize() < is.getCount();
+
+		return t;
+	}
+
+	private void add( final int slot, final int amount, final int type )
+	{
+		if( this.entries == this.slots.length )
+		{
+			final int size = this.entries * 2;
+			this.slots = Arrays.copyOf( this.slots, size );
+			this.amounts = Arrays.copyOf( this.amounts, size );
+			this.typeOf = Arrays.copyOf( this.typeOf, size );
+		}
+
+		this.slots[this.entries] = slot;
+		this.amounts[this.entries] = amount;
+		this.typeOf[this.entries] = type;
+		this.entries++;
+	}
+
+	private void giveBack( final IItemHandler handler, ItemStack leftover )
+	{
+		for( int slot = 0; slot < handler.getSlots() && !leftover.isEmpty(); slot++ )
+		{
+			leftover = handler.insertItem( slot, leftover, false );
+		}
+	}
+}
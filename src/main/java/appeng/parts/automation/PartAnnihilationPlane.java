@@ -19,6 +19,7 @@
 package appeng.parts.automation;
 
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.google.common.collect.Lists;
@@ -83,6 +84,7 @@ public class PartAnnihilationPlane extends PartBasicState implements IGridTickab
 	private final IActionSource mySrc = new MachineSource( this );
 	private boolean isAccepting = true;
 	private boolean breaking = false;
+	private PlaneWall wall;
 
 	public PartAnnihilationPlane( final ItemStack is )
 	{
@@ -145,40 +147,13 @@ public class PartAnnihilationPlane extends PartBasicState implements IGridTickab
 	 */
 	public PlaneConnections getConnections()
 	{
-
-		final EnumFacing facingRight, facingUp;
-		AEPartLocation location = this.getSide();
-		switch( location )
+		final EnumFacing[] axes = this.getPlaneAxes();
+		if( axes == null )
 		{
-			case UP:
-				facingRight = EnumFacing.EAST;
-				facingUp = EnumFacing.NORTH;
-				break;
-			case DOWN:
-				facingRight = EnumFacing.WEST;
-				facingUp = EnumFacing.NORTH;
-				break;
-			case NORTH:
-				facingRight = EnumFacing.WEST;
-				facingUp = EnumFacing.UP;
-				break;
-			case SOUTH:
-				facingRight = EnumFacing.EAST;
-				facingUp = EnumFacing.UP;
-				break;
-			case WEST:
-				facingRight = EnumFacing.SOUTH;
-				facingUp = EnumFacing.UP;
-				break;
-			case EAST:
-				facingRight = EnumFacing.NORTH;
-				facingUp = EnumFacing.UP;
-				break;
-			default:
-			case INTERNAL:
-				return PlaneConnections.of( false, false, false, false );
+			return PlaneConnections.of( false, false, false, false );
 		}
 
+		final EnumFacing facingRight = axes[0], facingUp = axes[1];
 		boolean left = false, right = false, down = false, up = false;
 
 		final IPartHost host = this.getHost();
@@ -212,6 +187,147 @@ public class PartAnnihilationPlane extends PartBasicState implements IGridTickab
 		return PlaneConnections.of( up, right, down, left );
 	}
 
+	/**
+	 * @return the directions pointing right and up within the plane, or null if the part has no side.
+	 */
+	private EnumFacing[] getPlaneAxes()
+	{
+		switch( this.getSide() )
+		{
+			case UP:
+				return new EnumFacing[] { EnumFacing.EAST, EnumFacing.NORTH };
+			case DOWN:
+				return new EnumFacing[] { EnumFacing.WEST, EnumFacing.NORTH };
+			case NORTH:
+				return new EnumFacing[] { EnumFacing.WEST, EnumFacing.UP };
+			case SOUTH:
+				return new EnumFacing[] { EnumFacing.EAST, EnumFacing.UP };
+			case WEST:
+				return new EnumFacing[] { EnumFacing.SOUTH, EnumFacing.UP };
+			case EAST:
+				return new EnumFacing[] { EnumFacing.NORTH, EnumFacing.UP };
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * @return the loaded planes of the same kind next to this one within the plane, which form a wall with it.
+	 */
+	List<PartAnnihilationPlane> getWallNeighbours()
+	{
+		final List<PartAnnihilationPlane> out = new ArrayList<>( 4 );
+		final EnumFacing[] axes = this.getPlaneAxes();
+		final TileEntity te = this.getTile();
+
+		if( axes == null || te == null || te.getWorld() == null )
+		{
+			return out;
+		}
+
+		for( final EnumFacing axis : axes )
+		{
+			for( final EnumFacing dir : new EnumFacing[] { axis, axis.getOpposite() } )
+			{
+				final BlockPos pos = te.getPos().offset( dir );
+				if( te.getWorld().isBlockLoaded( pos ) )
+				{
+					final TileEntity other = te.getWorld().getTileEntity( pos );
+					if( this.isAnnihilationPlane( other, this.getSide() ) )
+					{
+						out.add( (PartAnnihilationPlane) ( (IPartHost) other ).getPart( this.getSide() ) );
+					}
+				}
+			}
+		}
+
+		return out;
+	}
+
+	private PlaneWall getWall()
+	{
+		if( this.wall == null || this.wall.isDissolved() )
+		{
+			return PlaneWall.build( this );
+		}
+		return this.wall;
+	}
+
+	void joinWall( final PlaneWall wall )
+	{
+		if( this.wall != null && this.wall != wall )
+		{
+			this.wall.dissolve();
+		}
+		this.wall = wall;
+	}
+
+	/**
+	 * Forces this plane and its neighbours to rebuild their wall on next use.
+	 */
+	private void dissolveWalls()
+	{
+		if( this.wall != null )
+		{
+			this.wall.dissolve();
+		}
+
+		for( final PartAnnihilationPlane neighbour : this.getWallNeighbours() )
+		{
+			if( neighbour.wall != null )
+			{
+				neighbour.wall.dissolve();
+			}
+		}
+	}
+
+	/**
+	 * @return the items per second the wall this plane belongs to stored from item entities.
+	 */
+	public long getWallItemsPerSecond()
+	{
+		return this.getWall().getItemsPerSecond( this.getTile().getWorld().getTotalWorldTime() );
+	}
+
+	/**
+	 * @return the number of planes in the wall this plane belongs to.
+	 */
+	public int getWallSize()
+	{
+		return this.getWall().size();
+	}
+
+	IActionSource getActionSource()
+	{
+		return this.mySrc;
+	}
+
+	void stopAccepting()
+	{
+		this.isAccepting = false;
+	}
+
+	void showCapture( final EntityItem entity )
+	{
+		final BlockPos pos = this.getTile().getPos();
+		AppEng.proxy.sendToAllNearExcept( null, pos.getX(), pos.getY(), pos.getZ(), 64, this.getTile().getWorld(),
+				new PacketTransitionEffect( entity.posX, entity.posY, entity.posZ, this.getSide(), false ) );
+	}
+
+	@Override
+	public void addToWorld()
+	{
+		super.addToWorld();
+		this.dissolveWalls();
+	}
+
+	@Override
+	public void removeFromWorld()
+	{
+		super.removeFromWorld();
+		this.dissolveWalls();
+	}
+
 	@Override
 	public void onNeighborChanged( IBlockAccess w, BlockPos pos, BlockPos neighbor )
 	{
@@ -219,6 +335,11 @@ public class PartAnnihilationPlane extends PartBasicState implements IGridTickab
 		{
 			this.refresh();
 		}
+		else if( !pos.offset( this.getSide().getFacing().getOpposite() ).equals( neighbor ) )
+		{
+			// a block next to this one within the plane changed, which might join or split the wall
+			this.dissolveWalls();
+		}
 	}
 
 	@Override
@@ -284,13 +405,7 @@ public class PartAnnihilationPlane extends PartBasicState implements IGridTickab
 
 			if( capture )
 			{
-				final boolean changed = this.storeEntityItem( (EntityItem) entity );
-
-				if( changed )
-				{
-					AppEng.proxy.sendToAllNearExcept( null, pos.getX(), pos.getY(), pos.getZ(), 64, this.getTile().getWorld(),
-							new PacketTransitionEffect( entity.posX, entity.posY, entity.posZ, this.getSide(), false ) );
-				}
+				this.getWall().pool( (EntityItem) entity, this );
 			}
 		}
 	}
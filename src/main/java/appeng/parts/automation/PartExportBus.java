@@ -19,7 +19,8 @@
 package appeng.parts.automation;
 
 
-import com.google.common.collect.ImmutableList;
+import java.util.List;
+
 import com.google.common.collect.ImmutableSet;
 
 import net.minecraft.entity.player.EntityPlayer;
@@ -81,6 +82,7 @@ public class PartExportBus extends PartSharedItemBus implements ICraftingRequest
 	public static final IPartModel MODELS_HAS_CHANNEL = new PartModel( MODEL_BASE, new ResourceLocation( AppEng.MOD_ID, "part/export_bus_has_channel" ) );
 
 	private final MultiCraftingTracker craftingTracker = new MultiCraftingTracker( this, 9 );
+	private final FuzzyMatchCache fuzzyMatches = new FuzzyMatchCache( 9 );
 	private final IActionSource mySrc;
 	private long itemToSend = 1;
 	private boolean didSomething = false;
@@ -98,6 +100,24 @@ public class PartExportBus extends PartSharedItemBus implements ICraftingRequest
 		this.mySrc = new MachineSource( this );
 	}
 
+	@Override
+	public void upgradesChanged()
+	{
+		if( this.getInstalledUpgrades( Upgrades.FUZZY ) == 0 )
+		{
+			this.fuzzyMatches.invalidate();
+		}
+
+		super.upgradesChanged();
+	}
+
+	@Override
+	public void removeFromWorld()
+	{
+		this.fuzzyMatches.invalidate();
+		super.removeFromWorld();
+	}
+
 	@Override
 	public void readFromNBT( final NBTTagCompound extra )
 	{
@@ -158,13 +178,11 @@ public class PartExportBus extends PartSharedItemBus implements ICraftingRequest
 
 					if( this.getInstalledUpgrades( Upgrades.FUZZY ) > 0 )
 					{
-						for( final IAEItemStack o : ImmutableList.copyOf( inv.getStorageList().findFuzzy( ais, fzMode ) ) )
+						// Indexed on purpose, our own extractions may append to the list while we walk it.
+						final List<IAEItemStack> matches = this.fuzzyMatches.getMatches( slotToExport, ais, fzMode, inv, this.getProxy().getGrid() );
+						for( int i = 0; i < matches.size() && this.itemToSend > 0; i++ )
 						{
-							this.pushItemIntoTarget( destination, energy, inv, o );
-							if( this.itemToSend <= 0 )
-							{
-								break;
-							}
+							this.pushItemIntoTarget( destination, energy, inv, matches.get( i ) );
 						}
 					}
 					else
@@ -20,16 +20,13 @@ package appeng.parts.automation;
 
 
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.init.Items;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.Vec3d;
+import net.minecraftforge.items.IItemHandler;
 
-import appeng.api.AEApi;
-import appeng.api.config.Actionable;
 import appeng.api.config.FuzzyMode;
-import appeng.api.config.PowerMultiplier;
 import appeng.api.config.RedstoneMode;
 import appeng.api.config.Settings;
 import appeng.api.config.Upgrades;
@@ -41,7 +38,6 @@ import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.networking.ticking.TickingRequest;
 import appeng.api.parts.IPartCollisionHelper;
 import appeng.api.parts.IPartModel;
-import appeng.api.storage.IMEInventory;
 import appeng.api.storage.IMEMonitor;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.util.AECableType;
@@ -53,13 +49,10 @@ import appeng.items.parts.PartModels;
 import appeng.me.GridAccessException;
 import appeng.me.helpers.MachineSource;
 import appeng.parts.PartModel;
-import appeng.util.InventoryAdaptor;
 import appeng.util.Platform;
-import appeng.util.inv.IInventoryDestination;
-import appeng.util.item.AEItemStack;
 
 
-public class PartImportBus extends PartSharedItemBus implements IInventoryDestination
+public class PartImportBus extends PartSharedItemBus
 {
 
 	public static final ResourceLocation MODEL_BASE = new ResourceLocation( AppEng.MOD_ID, "part/import_bus_base" );
@@ -71,10 +64,7 @@ public class PartImportBus extends PartSharedItemBus implements IInventoryDestin
 	public static final IPartModel MODELS_HAS_CHANNEL = new PartModel( MODEL_BASE, new ResourceLocation( AppEng.MOD_ID, "part/import_bus_has_channel" ) );
 
 	private final IActionSource source;
-	private IMEInventory<IAEItemStack> destination = null;
-	private IAEItemStack lastItemChecked = null;
-	private int itemToSend; // used in tickingRequest
-	private boolean worked; // used in tickingRequest
+	private final ImportBatch batch = new ImportBatch();
 
 	@Reflected
 	public PartImportBus( final ItemStack is )
@@ -86,23 +76,6 @@ public class PartImportBus extends PartSharedItemBus implements IInventoryDestin
 		this.source = new MachineSource( this );
 	}
 
-	@Override
-	public boolean canInsert( final ItemStack stack )
-	{
-		if( stack.isEmpty() || stack.getItem() == Items.AIR )
-		{
-			return false;
-		}
-
-		final IAEItemStack out = this.destination.injectItems( this.lastItemChecked = AEApi.instance().storage().createItemStack( stack ), Actionable.SIMULATE,
-				this.source );
-		if( out == null )
-		{
-			return true;
-		}
-		return out.getStackSize() != stack.getCount();
-	}
-
 	@Override
 	public void getBoxes( final IPartCollisionHelper bch )
 	{
@@ -154,152 +127,58 @@ public class PartImportBus extends PartSharedItemBus implements IInventoryDestin
 			return TickRateModulation.IDLE;
 		}
 
-		this.worked = false;
-
-		final InventoryAdaptor myAdaptor = this.getHandler();
-		final FuzzyMode fzMode = (FuzzyMode) this.getConfigManager().getSetting( Settings.FUZZY_MODE );
-
-		if( myAdaptor != null )
-		{
-			try
-			{
-				this.itemToSend = this.calculateItemsToSend();
-				this.itemToSend = Math.min( this.itemToSend,
-						(int) ( 0.01 + this.getProxy().getEnergy().extractAEPower( this.itemToSend, Actionable.SIMULATE, PowerMultiplier.CONFIG ) ) );
-
-				final IMEMonitor<IAEItemStack> inv = this.getProxy().getStorage().getItemInventory();
-				final IEnergyGrid energy = this.getProxy().getEnergy();
+		final IItemHandler handler = this.getItemHandler();
 
-				boolean Configured = false;
-				for( int x = 0; x < this.availableSlots(); x++ )
-				{
-					final IAEItemStack ais = this.getConfig().getAEStackInSlot( x );
-					if( ais != null && this.itemToSend > 0 )
-					{
-						Configured = true;
-						while( this.itemToSend > 0 )
-						{
-							if( this.importStuff( myAdaptor, ais, inv, energy, fzMode ) )
-							{
-								break;
-							}
-						}
-					}
-				}
-
-				if( !Configured )
-				{
-					while( this.itemToSend > 0 )
-					{
-						if( this.importStuff( myAdaptor, null, inv, energy, fzMode ) )
-						{
-							break;
-						}
-					}
-				}
-			}
-			catch( final GridAccessException e )
-			{
-				// :3
-			}
-		}
-		else
+		if( handler == null )
 		{
 			return TickRateModulation.SLEEP;
 		}
 
-		return this.worked ? TickRateModulation.FASTER : TickRateModulation.SLOWER;
-	}
+		boolean worked = false;
 
-	private boolean importStuff( final InventoryAdaptor myAdaptor, final IAEItemStack whatToImport, final IMEMonitor<IAEItemStack> inv, final IEnergySource energy, final FuzzyMode fzMode )
-	{
-		final int toSend = this.calculateMaximumAmountToImport( myAdaptor, whatToImport, inv, fzMode );
-		final ItemStack newItems;
-
-		if( this.getInstalledUpgrades( Upgrades.FUZZY ) > 0 )
-		{
-			newItems = myAdaptor.removeSimilarItems( toSend, whatToImport == null ? ItemStack.EMPTY : whatToImport.getDefinition(), fzMode,
-					this.configDestination( inv ) );
-		}
-		else
+		try
 		{
-			newItems = myAdaptor.removeItems( toSend, whatToImport == null ? ItemStack.EMPTY : whatToImport.getDefinition(), this.configDestination( inv ) );
-		}
+			final IMEMonitor<IAEItemStack> inv = this.getProxy().getStorage().getItemInventory();
+			final IEnergyGrid energy = this.getProxy().getEnergy();
+			final FuzzyMode fzMode = this.getInstalledUpgrades( Upgrades.FUZZY ) > 0 ? (FuzzyMode) this.getConfigManager().getSetting(
+					Settings.FUZZY_MODE ) : null;
 
-		if( !newItems.isEmpty() )
-		{
-			newItems.setCount( (int) ( Math.min( newItems.getCount(),
-					energy.extractAEPower( newItems.getCount(), Actionable.SIMULATE, PowerMultiplier.CONFIG ) ) + 0.01 ) );
-			this.itemToSend -= newItems.getCount();
+			int itemToSend = this.calculateItemsToSend();
 
-			if( this.lastItemChecked == null || !this.lastItemChecked.isSameType( newItems ) )
-			{
-				this.lastItemChecked = AEApi.instance().storage().createItemStack( newItems );
-			}
-			else
+			boolean configured = false;
+			for( int x = 0; x < this.availableSlots() && itemToSend > 0; x++ )
 			{
-				this.lastItemChecked.setStackSize( newItems.getCount() );
+				final IAEItemStack ais = this.getConfig().getAEStackInSlot( x );
+				if( ais != null )
+				{
+					configured = true;
+					final int sent = this.importStuff( handler, ais.getDefinition(), fzMode, itemToSend, inv, energy );
+					itemToSend -= sent;
+					worked |= sent > 0;
+				}
 			}
 
-			final IAEItemStack failed = Platform.poweredInsert( energy, this.destination, this.lastItemChecked, this.source );
-
-			if( failed != null )
+			if( !configured )
 			{
-				myAdaptor.addItems( failed.createItemStack() );
-				return true;
-			}
-			else
-			{
-				this.worked = true;
+				worked = this.importStuff( handler, ItemStack.EMPTY, fzMode, itemToSend, inv, energy ) > 0;
 			}
 		}
-		else
+		catch( final GridAccessException e )
 		{
-			return true;
+			// :3
 		}
 
-		return false;
+		return worked ? TickRateModulation.FASTER : TickRateModulation.SLOWER;
 	}
 
-	private int calculateMaximumAmountToImport( final InventoryAdaptor myAdaptor, final IAEItemStack whatToImport, final IMEMonitor<IAEItemStack> inv, final FuzzyMode fzMode )
+	private int importStuff( final IItemHandler handler, final ItemStack filter, final FuzzyMode fzMode, final int amount, final IMEMonitor<IAEItemStack> inv, final IEnergySource energy )
 	{
-		final int toSend = Math.min( this.itemToSend, 64 );
-		final ItemStack itemStackToImport;
-
-		if( whatToImport == null )
+		if( this.batch.gather( handler, filter, fzMode, amount, inv, this.source ) <= 0 )
 		{
-			itemStackToImport = ItemStack.EMPTY;
-		}
-		else
-		{
-			itemStackToImport = whatToImport.getDefinition();
+			return 0;
 		}
 
-		final IAEItemStack itemAmountNotStorable;
-		final ItemStack simResult;
-		if( this.getInstalledUpgrades( Upgrades.FUZZY ) > 0 )
-		{
-			simResult = myAdaptor.simulateSimilarRemove( toSend, itemStackToImport, fzMode, this.configDestination( inv ) );
-			itemAmountNotStorable = this.destination.injectItems( AEItemStack.create( simResult ), Actionable.SIMULATE, this.source );
-		}
-		else
-		{
-			simResult = myAdaptor.simulateRemove( toSend, itemStackToImport, this.configDestination( inv ) );
-			itemAmountNotStorable = this.destination.injectItems( AEItemStack.create( simResult ), Actionable.SIMULATE, this.source );
-		}
-
-		if( itemAmountNotStorable != null )
-		{
-			return (int) Math.min( simResult.getCount() - itemAmountNotStorable.getStackSize(), toSend );
-		}
-
-		return toSend;
-	}
-
-	private IInventoryDestination configDestination( final IMEMonitor<IAEItemStack> itemInventory )
-	{
-		this.destination = itemInventory;
-		return this;
+		return this.batch.transfer( handler, inv, energy, this.source );
 	}
 
 	@Override
@@ -58,6 +58,7 @@ import appeng.api.networking.security.IActionSource;
 import appeng.api.networking.storage.IBaseMonitor;
 import appeng.api.networking.storage.IStackWatcher;
 import appeng.api.networking.storage.IStackWatcherHost;
+import appeng.api.networking.storage.IStorageGrid;
 import appeng.api.parts.IPartCollisionHelper;
 import appeng.api.parts.IPartModel;
 import appeng.api.storage.IMEMonitor;
@@ -74,13 +75,17 @@ import appeng.core.sync.GuiBridge;
 import appeng.helpers.Reflected;
 import appeng.items.parts.PartModels;
 import appeng.me.GridAccessException;
+import appeng.me.cache.GridStorageCache;
+import appeng.me.cache.NetworkMonitor;
+import appeng.me.storage.FuzzyRangeWatchers;
+import appeng.me.storage.FuzzyRangeWatchers.IFuzzyRangeHost;
 import appeng.parts.PartModel;
 import appeng.tile.inventory.AppEngInternalAEInventory;
 import appeng.util.Platform;
 import appeng.util.inv.InvOperation;
 
 
-public class PartLevelEmitter extends PartUpgradeable implements IEnergyWatcherHost, IStackWatcherHost, ICraftingWatcherHost, IMEMonitorHandlerReceiver<IAEItemStack>, ICraftingProvider
+public class PartLevelEmitter extends PartUpgradeable implements IEnergyWatcherHost, IStackWatcherHost, ICraftingWatcherHost, IMEMonitorHandlerReceiver<IAEItemStack>, ICraftingProvider, IFuzzyRangeHost
 {
 
 	@PartModels
@@ -243,6 +248,12 @@ public class PartLevelEmitter extends PartUpgradeable implements IEnergyWatcherH
 
 		try
 		{
+			final FuzzyRangeWatchers fuzzyWatchers = this.getFuzzyWatchers();
+			if( fuzzyWatchers != null )
+			{
+				fuzzyWatchers.remove( this );
+			}
+
 			this.getProxy().getGrid().postEvent( new MENetworkCraftingPatternChange( this, this.getProxy().getNode() ) );
 		}
 		catch( final GridAccessException e1 )
@@ -286,7 +297,15 @@ public class PartLevelEmitter extends PartUpgradeable implements IEnergyWatcherH
 
 		try
 		{
-			if( this.getInstalledUpgrades( Upgrades.FUZZY ) > 0 || myStack == null )
+			final FuzzyRangeWatchers fuzzyWatchers = this.getFuzzyWatchers();
+
+			if( myStack != null && this.getInstalledUpgrades( Upgrades.FUZZY ) > 0 && fuzzyWatchers != null )
+			{
+				// the range watcher reports each matching change, the full fuzzy search only runs below, once
+				this.getProxy().getStorage().getItemInventory().removeListener( this );
+				fuzzyWatchers.add( this, myStack, (FuzzyMode) this.getConfigManager().getSetting( Settings.FUZZY_MODE ) );
+			}
+			else if( this.getInstalledUpgrades( Upgrades.FUZZY ) > 0 || myStack == null )
 			{
 				this.getProxy().getStorage().getItemInventory().addListener( this, this.getProxy().getGrid() );
 			}
@@ -312,7 +331,11 @@ public class PartLevelEmitter extends PartUpgradeable implements IEnergyWatcherH
 	{
 		final IAEItemStack myStack = this.config.getAEStackInSlot( 0 );
 
-		if( myStack == null )
+		if( myStack == null && monitor instanceof NetworkMonitor )
+		{
+			this.lastReportedValue = ( (NetworkMonitor<IAEItemStack>) monitor ).getStoredTotal();
+		}
+		else if( myStack == null )
 		{
 			this.lastReportedValue = 0;
 			for( final IAEItemStack st : monitor.getStorageList() )
@@ -363,6 +386,25 @@ public class PartLevelEmitter extends PartUpgradeable implements IEnergyWatcherH
 		}
 	}
 
+	@Override
+	public void onFuzzyRangeChange( final IAEItemStack difference )
+	{
+		this.lastReportedValue += difference.getStackSize();
+		this.updateState();
+	}
+
+	@Override
+	public void onFuzzyRangeInvalidated()
+	{
+		this.onListUpdate();
+	}
+
+	private FuzzyRangeWatchers getFuzzyWatchers() throws GridAccessException
+	{
+		final IStorageGrid storage = this.getProxy().getStorage();
+		return storage instanceof GridStorageCache ? ( (GridStorageCache) storage ).getFuzzyWatchers() : null;
+	}
+
 	@Override
 	public void updateWatcher( final IEnergyWatcher newWatcher )
 	{
@@ -21,9 +21,11 @@ package appeng.parts.automation;
 
 import net.minecraft.item.ItemStack;
 import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
+import net.minecraftforge.items.CapabilityItemHandler;
 import net.minecraftforge.items.IItemHandler;
 
 import appeng.api.config.RedstoneMode;
@@ -99,6 +101,20 @@ public abstract class PartSharedItemBus extends PartUpgradeable implements IGrid
 		return InventoryAdaptor.getAdaptor( target, this.getSide().getFacing().getOpposite() );
 	}
 
+	protected IItemHandler getItemHandler()
+	{
+		final TileEntity self = this.getHost().getTile();
+		final TileEntity target = this.getTileEntity( self, self.getPos().offset( this.getSide().getFacing() ) );
+		final EnumFacing targetSide = this.getSide().getFacing().getOpposite();
+
+		if( target != null && target.hasCapability( CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, targetSide ) )
+		{
+			return target.getCapability( CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, targetSide );
+		}
+
+		return null;
+	}
+
 	private TileEntity getTileEntity( final TileEntity self, final BlockPos pos )
 	{
 		final World w = self.getWorld();
@@ -0,0 +1,304 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.parts.automation;
+
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.world.World;
+
+import appeng.api.config.Actionable;
+import appeng.api.config.PowerMultiplier;
+import appeng.api.networking.IGrid;
+import appeng.api.networking.energy.IEnergyGrid;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.storage.IMEMonitor;
+import appeng.api.storage.StorageChannel;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.hooks.TickHandler;
+import appeng.me.GridAccessException;
+import appeng.me.cache.NetworkMonitor;
+import appeng.parts.p2p.ThroughputCounter;
+import appeng.util.IWorldCallable;
+import appeng.util.Platform;
+import appeng.util.item.AEItemStack;
+
+
+/**
+ * A contiguous wall of annihilation planes facing the same way.
+ *
+ * Item entities collected by any plane of the wall are pooled for the rest of the tick and stored at the start of the
+ * next one, merged by type, with a single power check and network injection per grid.
+ */
+class PlaneWall implements IWorldCallable<Void>
+{
+
+	private final Set<PartAnnihilationPlane> planes;
+	private final Map<EntityItem, PartAnnihilationPlane> pending = new LinkedHashMap<>();
+	private final ThroughputCounter throughput = new ThroughputCounter();
+	private boolean scheduled;
+	private boolean dissolved;
+
+	private PlaneWall( final Set<PartAnnihilationPlane> planes )
+	{
+		this.planes = planes;
+	}
+
+	/**
+	 * Collects all planes connected to the given one and makes them members of a new wall.
+	 *
+	 * The fill is not bounded: a plane left out would build a wall of its own, take over its neighbours and dissolve
+	 * this one, so a large field would keep rebuilding. Each plane is visited once per rebuild.
+	 */
+	static PlaneWall build( final PartAnnihilationPlane origin )
+	{
+		final Set<PartAnnihilationPlane> found = Collections.newSetFromMap( new IdentityHashMap<>() );
+		final Deque<PartAnnihilationPlane> open = new ArrayDeque<>();
+
+		found.add( origin );
+		open.add( origin );
+
+		while( !open.isEmpty() )
+		{
+			for( final PartAnnihilationPlane neighbour : open.poll().getWallNeighbours() )
+			{
+				if( found.add( neighbour ) )
+				{
+					open.add( neighbour );
+				}
+			}
+		}
+
+		final PlaneWall wall = new PlaneWall( found );
+		for( final PartAnnihilationPlane plane : found )
+		{
+			plane.joinWall( wall );
+		}
+
+		return wall;
+	}
+
+	boolean isDissolved()
+	{
+		return this.dissolved;
+	}
+
+	/**
+	 * Marks the wall as outdated, its members build a new one on their next use. Entities already pooled are still
+	 * stored.
+	 */
+	void dissolve()
+	{
+		this.dissolved = true;
+	}
+
+	int size()
+	{
+		return this.planes.size();
+	}
+
+	long getItemsPerSecond( final long now )
+	{
+		return this.throughput.getPerSecond( now );
+	}
+
+	/**
+	 * Pools an entity collected by one of the planes until the start of the next tick.
+	 */
+	void pool( final EntityItem entity, final PartAnnihilationPlane plane )
+	{
+		if( this.pending.putIfAbsent( entity, plane ) == null && !this.scheduled )
+		{
+			this.scheduled = true;
+			TickHandler.INSTANCE.addCallable( entity.world, this );
+		}
+	}
+
+	@Override
+	public Void call( final World world ) throws Exception
+	{
+		this.scheduled = false;
+
+		if( this.pending.isEmpty() )
+		{
+			return null;
+		}
+
+		final Map<IGrid, List<Map.Entry<EntityItem, PartAnnihilationPlane>>> byGrid = new IdentityHashMap<>();
+		for( final Map.Entry<EntityItem, PartAnnihilationPlane> e : this.pending.entrySet() )
+		{
+			final EntityItem entity = e.getKey();
+			final PartAnnihilationPlane plane = e.getValue();
+
+			if( entity.isDead || entity.getItem().isEmpty() || !plane.getProxy().isActive() )
+			{
+				continue;
+			}
+
+			try
+			{
+				byGrid.computeIfAbsent( plane.getProxy().getGrid(), g -> new ArrayList<>() ).add( e );
+			}
+			catch( final GridAccessException ignored )
+			{
+				// the plane was removed from its grid, the entity stays where it is
+			}
+		}
+		this.pending.clear();
+
+		for( final List<Map.Entry<EntityItem, PartAnnihilationPlane>> entries : byGrid.values() )
+		{
+			try
+			{
+				this.store( entries, world );
+			}
+			catch( final GridAccessException ignored )
+			{
+				// :P
+			}
+		}
+
+		return null;
+	}
+
+	private void store( final List<Map.Entry<EntityItem, PartAnnihilationPlane>> entries, final World world ) throws GridAccessException
+	{
+		final PartAnnihilationPlane first = entries.get( 0 ).getValue();
+		final IMEMonitor<IAEItemStack> inv = first.getProxy().getStorage().getItemInventory();
+		final IEnergyGrid energy = first.getProxy().getEnergy();
+		final IActionSource src = first.getActionSource();
+
+		final IItemList<IAEItemStack> merged = StorageChannel.ITEMS.createList();
+		final IAEItemStack[] types = new IAEItemStack[entries.size()];
+		for( int i = 0; i < types.length; i++ )
+		{
+			types[i] = AEItemStack.create( entries.get( i ).getKey().getItem() );
+			merged.add( types[i] );
+		}
+
+		// plan what the network accepts, then trim the plan to the available power
+		final List<IAEItemStack> planned = new ArrayList<>( merged.size() );
+		long total = 0;
+		for( final IAEItemStack s : merged )
+		{
+			final IAEItemStack rejected = inv.injectItems( s.copy(), Actionable.SIMULATE, src );
+			final long possible = rejected == null ? s.getStackSize() : s.getStackSize() - rejected.getStackSize();
+
+			if( possible > 0 )
+			{
+				final IAEItemStack p = s.copy();
+				p.setStackSize( possible );
+				planned.add( p );
+				total += possible;
+			}
+		}
+
+		final long affordable = Math.min( total, (long) ( energy.extractAEPower( total, Actionable.SIMULATE, PowerMultiplier.CONFIG ) + 0.9 ) );
+		for( int i = planned.size() - 1; i >= 0 && total > affordable; i-- )
+		{
+			final IAEItemStack p = planned.get( i );
+			final long cut = Math.min( p.getStackSize(), total - affordable );
+			p.decStackSize( cut );
+			total -= cut;
+		}
+		planned.removeIf( p -> p.getStackSize() <= 0 );
+
+		final List<IAEItemStack> leftovers;
+		if( inv instanceof NetworkMonitor )
+		{
+			leftovers = ( (NetworkMonitor<IAEItemStack>) inv ).injectAll( Platform.copyStacks( planned ), src );
+		}
+		else
+		{
+			leftovers = new ArrayList<>( planned.size() );
+			for( final IAEItemStack p : planned )
+			{
+				leftovers.add( inv.injectItems( p.copy(), Actionable.MODULATE, src ) );
+			}
+		}
+
+		// what was stored per type, handed out to the entities in collection order
+		final IItemList<IAEItemStack> stored = StorageChannel.ITEMS.createList();
+		long moved = 0;
+		for( int i = 0; i < planned.size(); i++ )
+		{
+			final IAEItemStack p = planned.get( i );
+			final IAEItemStack leftover = leftovers.get( i );
+			if( leftover != null )
+			{
+				p.decStackSize( leftover.getStackSize() );
+			}
+			if( p.getStackSize() > 0 )
+			{
+				stored.add( p );
+				moved += p.getStackSize();
+			}
+		}
+
+		if( moved > 0 )
+		{
+			energy.extractAEPower( moved, Actionable.MODULATE, PowerMultiplier.CONFIG );
+		}
+
+		boolean overflow = false;
+		for( int i = 0; i < types.length; i++ )
+		{
+			final EntityItem entity = entries.get( i ).getKey();
+			final IAEItemStack s = stored.findPrecise( types[i] );
+			final int count = entity.getItem().getCount();
+			final int taken = s == null ? 0 : (int) Math.min( count, s.getStackSize() );
+
+			if( taken > 0 )
+			{
+				s.decStackSize( taken );
+				if( taken == count )
+				{
+					entity.setDead();
+				}
+				else
+				{
+					entity.getItem().setCount( count - taken );
+				}
+				entries.get( i ).getValue().showCapture( entity );
+			}
+
+			overflow |= taken < count;
+		}
+
+		if( overflow )
+		{
+			for( final Map.Entry<EntityItem, PartAnnihilationPlane> e : entries )
+			{
+				e.getValue().stopAccepting();
+			}
+		}
+
+		this.throughput.add( world.getTotalWorldTime(), moved );
+	}
+}
@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.items.IItemHandler;
@@ -38,6 +39,7 @@ import appeng.api.storage.IMEMonitorHandlerReceiver;
 import appeng.api.storage.StorageChannel;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.me.storage.ITickingMonitor;
 import appeng.util.Platform;
@@ -56,10 +58,28 @@ class ItemHandlerAdapter implements IMEInventory<IAEItemStack>, IBaseMonitor<IAE
 
 	private final IItemHandler itemHandler;
 
+	/**
+	 * Copies of the slot contents as of their last change, so changes made in place to the handler's stacks are seen.
+	 */
 	private ItemStack[] cachedStacks = new ItemStack[0];
 
 	private IAEItemStack[] cachedAeStacks = new IAEItemStack[0];
 
+	/**
+	 * Slots are scanned in ranges of this size, spread over several ticks for large inventories.
+	 */
+	private static final int RANGE_SIZE = 64;
+
+	private int ranges = 0;
+
+	private int nextRange = 0;
+
+	/**
+	 * Set when the current pass saw a change, or when we modified the inventory ourselves and other slots may have
+	 * changed as a side effect. Only a pass without it counts as idle.
+	 */
+	private boolean passDirty = false;
+
 	ItemHandlerAdapter( IItemHandler itemHandler )
 	{
 		this.itemHandler = itemHandler;
@@ -74,10 +94,23 @@ class ItemHandlerAdapter implements IMEInventory<IAEItemStack>, IBaseMonitor<IAE
 		int slotCount = this.itemHandler.getSlots();
 		boolean simulate = ( type == Actionable.SIMULATE );
 
+		int firstSlot = -1;
+		int lastSlot = -1;
+
 		// This uses a brute force approach and tries to jam it in every slot the inventory exposes.
 		for( int i = 0; i < slotCount && !remaining.isEmpty(); i++ )
 		{
+			final ItemStack before = remaining;
 			remaining = this.itemHandler.insertItem( i, remaining, simulate );
+
+			if( remaining != before )
+			{
+				if( firstSlot < 0 )
+				{
+					firstSlot = i;
+				}
+				lastSlot = i;
+			}
 		}
 
 		// At this point, we still have some items left...
@@ -89,7 +122,7 @@ class ItemHandlerAdapter implements IMEInventory<IAEItemStack>, IBaseMonitor<IAE
 
 		if( type == Actionable.MODULATE )
 		{
-			this.onTick();
+			this.onSlotsChanged( firstSlot, lastSlot );
 		}
 
 		return AEItemStack.create( remaining );
@@ -105,6 +138,9 @@ class ItemHandlerAdapter implements IMEInventory<IAEItemStack>, IBaseMonitor<IAE
 		// Use this to gather the requested items
 		ItemStack gathered = ItemStack.EMPTY;
 
+		int firstSlot = -1;
+		int lastSlot = -1;
+
 		final boolean simulate = ( mode == Actionable.SIMULATE );
 
 		for( int i = 0; i < this.itemHandler.getSlots(); i++ )
@@ -152,6 +188,15 @@ class ItemHandlerAdapter implements IMEInventory<IAEItemStack>, IBaseMonitor<IAE
 			}
 			while( !extracted.isEmpty() && remainingCurrentSlot > 0 );
 
+			if( remainingCurrentSlot < Math.min( remainingSize, stackSizeCurrentSlot ) )
+			{
+				if( firstSlot < 0 )
+				{
+					firstSlot = i;
+				}
+				lastSlot = i;
+			}
+
 			remainingSize -= stackSizeCurrentSlot - remainingCurrentSlot;
 
 			// Done?
@@ -165,7 +210,7 @@ class ItemHandlerAdapter implements IMEInventory<IAEItemStack>, IBaseMonitor<IAE
 		{
 			if( mode == Actionable.MODULATE )
 			{
-				this.onTick();
+				this.onSlotsChanged( firstSlot, lastSlot );
 			}
 
 			return AEItemStack.create( gathered );
@@ -192,33 +237,89 @@ class ItemHandlerAdapter implements IMEInventory<IAEItemStack>, IBaseMonitor<IAE
 	@Override
 	public TickRateModulation onTick()
 	{
-		LinkedList<IAEItemStack> changes = new LinkedList<>();
+		final LinkedList<IAEItemStack> changes = new LinkedList<>();
 
-		int slots = this.itemHandler.getSlots();
+		final int slots = this.itemHandler.getSlots();
+		this.resize( slots, changes );
 
-		// Make room for new slots
-		if( slots > this.cachedStacks.length )
+		final int slotsPerTick = AEConfig.instance().getStorageBusSlotsPerTick();
+		boolean cycleDone = true;
+
+		if( slotsPerTick <= 0 )
 		{
-			this.cachedStacks = Arrays.copyOf( this.cachedStacks, slots );
-			this.cachedAeStacks = Arrays.copyOf( this.cachedAeStacks, slots );
+			// Fallback, compare every slot every time.
+			this.scanSlots( 0, slots, changes );
 		}
-
-		for( int slot = 0; slot < slots; slot++ )
+		else if( this.ranges > 0 )
 		{
-			// Save the old stuff
-			ItemStack oldIS = this.getItemStackInCachedSlot( slot );
-			IAEItemStack oldAeIS = this.cachedAeStacks[slot];
-
-			ItemStack newIS = this.itemHandler.getStackInSlot( slot );
+			// Continue where the last tick left off, until the budget is used up or every range was visited once.
+			final int firstRange = this.nextRange;
+			int scanned = 0;
+			cycleDone = false;
 
-			if( this.isDifferent( newIS, oldIS ) )
-			{
-				this.addItemChange( slot, oldAeIS, newIS, changes );
-			}
-			else if( !newIS.isEmpty() && !oldIS.isEmpty() )
+			do
 			{
-				this.addPossibleStackSizeChange( slot, oldAeIS, newIS, changes );
+				scanned += this.scanRange( this.nextRange, slots, changes );
+				this.nextRange = ( this.nextRange + 1 ) % this.ranges;
+
+				if( this.nextRange == 0 )
+				{
+					// a pass just completed, it was idle unless something changed along the way.
+					cycleDone = !this.passDirty && changes.isEmpty();
+					this.passDirty = false;
+				}
 			}
+			while( scanned < slotsPerTick && this.nextRange != firstRange );
+		}
+
+		if( !changes.isEmpty() )
+		{
+			this.passDirty = true;
+			this.postDifference( changes );
+			return TickRateModulation.URGENT;
+		}
+
+		// Don't slow down halfway through a large inventory, only once a whole pass found nothing.
+		return cycleDone ? TickRateModulation.SLOWER : TickRateModulation.SAME;
+	}
+
+	/**
+	 * Rescans only the ranges containing the given slots, used after we modified the inventory ourselves.
+	 */
+	private void onSlotsChanged( final int firstSlot, final int lastSlot )
+	{
+		if( firstSlot < 0 )
+		{
+			return;
+		}
+
+		final LinkedList<IAEItemStack> changes = new LinkedList<>();
+
+		final int slots = this.itemHandler.getSlots();
+		this.resize( slots, changes );
+
+		final int lastRange = Math.min( lastSlot / RANGE_SIZE, this.ranges - 1 );
+		for( int range = firstSlot / RANGE_SIZE; range <= lastRange; range++ )
+		{
+			this.scanRange( range, slots, changes );
+		}
+
+		// the handler may have changed other slots as well, those are only found by a full pass.
+		this.passDirty = true;
+
+		if( !changes.isEmpty() )
+		{
+			this.postDifference( changes );
+		}
+	}
+
+	private void resize( final int slots, final List<IAEItemStack> changes )
+	{
+		// Make room for new slots
+		if( slots > this.cachedStacks.length )
+		{
+			this.cachedStacks = Arrays.copyOf( this.cachedStacks, slots );
+			this.cachedAeStacks = Arrays.copyOf( this.cachedAeStacks, slots );
 		}
 
 		// Handle cases where the number of slots actually is lower now than before
@@ -240,21 +341,74 @@ class ItemHandlerAdapter implements IMEInventory<IAEItemStack>, IBaseMonitor<IAE
 			this.cachedAeStacks = Arrays.copyOf( this.cachedAeStacks, slots );
 		}
 
-		if( !changes.isEmpty() )
+		this.ranges = ( slots + RANGE_SIZE - 1 ) / RANGE_SIZE;
+		if( this.nextRange >= this.ranges )
 		{
-			this.postDifference( changes );
-			return TickRateModulation.URGENT;
+			this.nextRange = 0;
+		}
+	}
+
+	/**
+	 * @return the number of slots inspected
+	 */
+	private int scanRange( final int range, final int slots, final List<IAEItemStack> changes )
+	{
+		final int from = range * RANGE_SIZE;
+		final int to = Math.min( from + RANGE_SIZE, slots );
+
+		this.scanSlots( from, to, changes );
+
+		return to - from;
+	}
+
+	private void scanSlots( final int from, final int to, final List<IAEItemStack> changes )
+	{
+		for( int slot = from; slot < to; slot++ )
+		{
+			final ItemStack is = this.itemHandler.getStackInSlot( slot );
+			if( !this.isUnchanged( this.getItemStackInCachedSlot( slot ), is ) )
+			{
+				this.compareSlot( slot, is, changes );
+			}
+		}
+	}
+
+	private void compareSlot( final int slot, final ItemStack newIS, final List<IAEItemStack> changes )
+	{
+		// Save the old stuff
+		ItemStack oldIS = this.getItemStackInCachedSlot( slot );
+		IAEItemStack oldAeIS = this.cachedAeStacks[slot];
+
+		if( this.isDifferent( newIS, oldIS ) )
+		{
+			this.addItemChange( slot, oldAeIS, newIS, changes );
 		}
-		else
+		else if( !newIS.isEmpty() && !oldIS.isEmpty() )
 		{
-			return TickRateModulation.SLOWER;
+			this.addPossibleStackSizeChange( slot, oldAeIS, newIS, changes );
 		}
+
+		// the handler may keep changing its own instance, so only a copy tells what was reported.
+		this.cachedStacks[slot] = newIS.copy();
+	}
+
+	/**
+	 * Exact check against the copy of the slot, the tag is compared by content.
+	 */
+	private boolean isUnchanged( final ItemStack snapshot, final ItemStack is )
+	{
+		if( snapshot.isEmpty() || is.isEmpty() )
+		{
+			return snapshot.isEmpty() && is.isEmpty();
+		}
+
+		return snapshot.getItem() == is.getItem() && snapshot.getItemDamage() == is.getItemDamage() && snapshot.getCount() == is.getCount()
+				&& Objects.equals( snapshot.getTagCompound(), is.getTagCompound() );
 	}
 
 	private void addItemChange( int slot, IAEItemStack oldAeIS, ItemStack newIS, List<IAEItemStack> changes )
 	{
 		// Completely different item
-		this.cachedStacks[slot] = newIS;
 		this.cachedAeStacks[slot] = AEItemStack.create( newIS );
 
 		// If we had a stack previously in this slot, notify the newtork about its disappearance
@@ -281,7 +435,6 @@ class ItemHandlerAdapter implements IMEInventory<IAEItemStack>, IBaseMonitor<IAE
 			IAEItemStack stack = oldAeIS.copy();
 			stack.setStackSize( newIS.getCount() );
 
-			this.cachedStacks[slot] = newIS;
 			this.cachedAeStacks[slot] = stack;
 
 			final IAEItemStack a = stack.copy();
@@ -32,7 +32,9 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.IBlockAccess;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.items.IItemHandler;
 
@@ -45,6 +47,8 @@ import appeng.api.networking.crafting.ICraftingProviderHelper;
 import appeng.api.networking.events.MENetworkChannelsChanged;
 import appeng.api.networking.events.MENetworkEventSubscribe;
 import appeng.api.networking.events.MENetworkPowerStatusChange;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.networking.storage.IStackWatcher;
 import appeng.api.networking.ticking.IGridTickable;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.networking.ticking.TickingRequest;
@@ -52,8 +56,11 @@ import appeng.api.parts.IPartCollisionHelper;
 import appeng.api.parts.IPartModel;
 import appeng.api.storage.IMEMonitor;
 import appeng.api.storage.IStorageMonitorable;
+import appeng.api.storage.StorageChannel;
 import appeng.api.storage.data.IAEFluidStack;
 import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IAEStack;
+import appeng.api.storage.data.IItemList;
 import appeng.api.util.AECableType;
 import appeng.api.util.IConfigManager;
 import appeng.core.AppEng;
@@ -169,6 +176,12 @@ public class PartInterface extends PartBasicState implements IGridTickable, ISto
 		return this.duality.getInventoryByName( name );
 	}
 
+	@Override
+	public void onNeighborChanged( final IBlockAccess w, final BlockPos pos, final BlockPos neighbor )
+	{
+		this.duality.targetsChanged();
+	}
+
 	@Override
 	public boolean onPartActivate( final EntityPlayer p, final EnumHand hand, final Vec3d pos )
 	{
@@ -275,6 +288,18 @@ public class PartInterface extends PartBasicState implements IGridTickable, ISto
 		this.duality.jobStateChange( link );
 	}
 
+	@Override
+	public void updateWatcher( final IStackWatcher newWatcher )
+	{
+		this.duality.updateWatcher( newWatcher );
+	}
+
+	@Override
+	public void onStackChange( final IItemList o, final IAEStack fullStack, final IAEStack diffStack, final IActionSource src, final StorageChannel chan )
+	{
+		this.duality.onStackChange( o, fullStack, diffStack, src, chan );
+	}
+
 	@Override
 	public int getPriority()
 	{
@@ -0,0 +1,41 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.parts.p2p;
+
+
+/**
+ * How an item P2P input spreads inserted items over its outputs.
+ */
+public enum ItemDistribution
+{
+	/**
+	 * All outputs are exposed as one chained inventory, the first output accepting an item gets it.
+	 */
+	FIRST_AVAILABLE,
+
+	/**
+	 * Each insert starts at the output after the one which received the previous insert.
+	 */
+	ROUND_ROBIN,
+
+	/**
+	 * Each insert starts at the output which received the fewest items recently.
+	 */
+	BALANCED
+}
@@ -0,0 +1,272 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.parts.p2p;
+
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+
+
+/**
+ * The inventory exposed by an item P2P input, spreading inserts over the inventories behind its outputs.
+ *
+ * Reading and extracting always sees the outputs as one chained inventory. Inserting depends on the
+ * {@link ItemDistribution}, in the balancing modes every insert goes to the output whose turn it is, the caller's next
+ * slot then continues with the next output. The slot asked for is used if it belongs to that output, otherwise the
+ * output's slot which took the last insert, and only if that one refuses are the other slots tried.
+ *
+ * The handlers of the outputs are looked up once when the tunnel network changes and kept until the next change.
+ */
+class ItemTunnelDistributor implements IItemHandler
+{
+
+	private final PartP2PItems input;
+	private final PartP2PItems[] tunnels;
+	private final IItemHandler[] handlers;
+	private final int[] slots;
+	private final long[] received;
+	// per output, the slot which took the last insert.
+	private final int[] freeSlots;
+	private final int slotCount;
+	private final ItemDistribution mode;
+
+	private int offset;
+	private int localSlot;
+
+	// Remembers an item no output could take, so the remaining slots of the same insert give up at once.
+	private ItemStack refused = ItemStack.EMPTY;
+	private long refusedAt = -1;
+
+	ItemTunnelDistributor( final PartP2PItems input, final List<PartP2PItems> tunnels, final List<IItemHandler> handlers, final ItemDistribution mode )
+	{
+		this.input = input;
+		this.tunnels = tunnels.toArray( new PartP2PItems[tunnels.size()] );
+		this.handlers = handlers.toArray( new IItemHandler[handlers.size()] );
+		this.slots = new int[this.handlers.length];
+		this.received = new long[this.handlers.length];
+		this.freeSlots = new int[this.handlers.length];
+		this.mode = mode;
+
+		int total = 0;
+		for( int i = 0; i < this.handlers.length; i++ )
+		{
+			this.slots[i] = this.handlers[i].getSlots();
+			total += this.slots[i];
+		}
+		this.slotCount = total;
+	}
+
+	/**
+	 * Called from the input's tick, rotates the chain for the first available mode and lets older deliveries count
+	 * less for the balanced mode.
+	 */
+	void onTick()
+	{
+		if( this.mode == ItemDistribution.FIRST_AVAILABLE && this.handlers.length > 1 )
+		{
+			this.offset = ( this.offset + 1 ) % this.handlers.length;
+		}
+
+		for( int i = 0; i < this.received.length; i++ )
+		{
+			this.received[i] >>= 1;
+		}
+	}
+
+	@Override
+	public int getSlots()
+	{
+		return this.slotCount;
+	}
+
+	@Override
+	@Nonnull
+	public ItemStack getStackInSlot( final int slot )
+	{
+		final int i = this.locate( slot );
+		return i < 0 ? ItemStack.EMPTY : this.handlers[i].getStackInSlot( this.localSlot );
+	}
+
+	@Override
+	@Nonnull
+	public ItemStack insertItem( final int slot, @Nonnull final ItemStack stack, final boolean simulate )
+	{
+		if( stack.isEmpty() )
+		{
+			return stack;
+		}
+
+		if( this.mode == ItemDistribution.FIRST_AVAILABLE )
+		{
+			final int i = this.locate( slot );
+			if( i < 0 )
+			{
+				return stack;
+			}
+
+			final ItemStack remainder = this.handlers[i].insertItem( this.localSlot, stack, simulate );
+			if( !simulate )
+			{
+				this.delivered( i, stack.getCount() - remainder.getCount() );
+			}
+			return remainder;
+		}
+
+		return this.distribute( slot, stack, simulate );
+	}
+
+	@Override
+	@Nonnull
+	public ItemStack extractItem( final int slot, final int amount, final boolean simulate )
+	{
+		final int i = this.locate( slot );
+		return i < 0 ? ItemStack.EMPTY : this.handlers[i].extractItem( this.localSlot, amount, simulate );
+	}
+
+	@Override
+	public int getSlotLimit( final int slot )
+	{
+		final int i = this.locate( slot );
+		return i < 0 ? 0 : this.handlers[i].getSlotLimit( this.localSlot );
+	}
+
+	private ItemStack distribute( final int slot, final ItemStack stack, final boolean simulate )
+	{
+		final long now = this.input.getWorldTime();
+		if( this.refusedAt == now && ItemStack.areItemsEqual( this.refused, stack ) && ItemStack.areItemStackTagsEqual( this.refused, stack ) )
+		{
+			return stack;
+		}
+
+		final int count = this.handlers.length;
+		final int start = this.mode == ItemDistribution.BALANCED ? this.leastReceived() : this.offset;
+
+		final int requested = this.locate( slot );
+		final int requestedSlot = this.localSlot;
+
+		for( int n = 0; n < count; n++ )
+		{
+			final int i = ( start + n ) % count;
+			final ItemStack remainder = this.insertAnywhere( i, i == requested ? requestedSlot : this.freeSlots[i], stack, simulate );
+
+			if( remainder.getCount() < stack.getCount() )
+			{
+				if( !simulate )
+				{
+					this.delivered( i, stack.getCount() - remainder.getCount() );
+					this.offset = ( i + 1 ) % count;
+				}
+
+				// One output per call, the caller offers the rest to its next slot which lands on the next output.
+				return remainder;
+			}
+		}
+
+		this.refused = stack.copy();
+		this.refusedAt = now;
+		return stack;
+	}
+
+	private ItemStack insertAnywhere( final int i, final int preferred, ItemStack stack, final boolean simulate )
+	{
+		final IItemHandler handler = this.handlers[i];
+		final int slots = handler.getSlots();
+
+		if( preferred < slots )
+		{
+			stack = handler.insertItem( preferred, stack, simulate );
+			if( stack.isEmpty() )
+			{
+				this.freeSlots[i] = preferred;
+				return stack;
+			}
+		}
+
+		for( int s = 0; s < slots && !stack.isEmpty(); s++ )
+		{
+			if( s == preferred )
+			{
+				continue;
+			}
+
+			final int before = stack.getCount();
+			stack = handler.insertItem( s, stack, simulate );
+			if( stack.getCount() < before )
+			{
+				this.freeSlots[i] = s;
+			}
+		}
+		return stack;
+	}
+
+	private int leastReceived()
+	{
+		int best = this.offset;
+		for( int n = 1; n < this.received.length; n++ )
+		{
+			final int i = ( this.offset + n ) % this.received.length;
+			if( this.received[i] < this.received[best] )
+			{
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	private void delivered( final int i, final int items )
+	{
+		if( items > 0 )
+		{
+			this.received[i] += items;
+			this.input.countTransfer( items );
+			this.tunnels[i].countTransfer( items );
+		}
+	}
+
+	/**
+	 * Maps a slot of the chain to an output, walking the outputs in rotated order.
+	 *
+	 * @return the output index, or -1, the slot inside the output is left in {@link #localSlot}
+	 */
+	private int locate( final int slot )
+	{
+		if( slot < 0 )
+		{
+			return -1;
+		}
+
+		int base = 0;
+		for( int n = 0; n < this.handlers.length; n++ )
+		{
+			final int i = ( this.offset + n ) % this.handlers.length;
+			if( slot < base + this.slots[i] )
+			{
+				this.localSlot = slot - base;
+				return i;
+			}
+			base += this.slots[i];
+		}
+
+		return -1;
+	}
+}
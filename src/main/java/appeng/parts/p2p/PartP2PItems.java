@@ -41,12 +41,12 @@ import appeng.api.networking.ticking.IGridTickable;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.networking.ticking.TickingRequest;
 import appeng.api.parts.IPartModel;
+import appeng.core.AEConfig;
 import appeng.core.settings.TickRates;
 import appeng.items.parts.PartModels;
 import appeng.me.GridAccessException;
 import appeng.me.cache.helpers.TunnelCollection;
 import appeng.util.Platform;
-import appeng.util.inv.WrapperChainedItemHandler;
 
 
 public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHandler, IGridTickable
@@ -63,7 +63,8 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 
 	private int oldSize = 0;
 	private boolean requested;
-	private IItemHandler cachedInv;
+	private ItemTunnelDistributor cachedInv;
+	private final ThroughputCounter throughput = new ThroughputCounter();
 
 	public PartP2PItems( final ItemStack is )
 	{
@@ -90,7 +91,8 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 			return this.cachedInv;
 		}
 
-		final List<IItemHandler> outs = new ArrayList<IItemHandler>();
+		final List<PartP2PItems> tunnels = new ArrayList<>();
+		final List<IItemHandler> outs = new ArrayList<>();
 		final TunnelCollection<PartP2PItems> itemTunnels;
 
 		try
@@ -109,16 +111,18 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 			{
 				if( Platform.getRandomInt() % 2 == 0 )
 				{
+					tunnels.add( t );
 					outs.add( inv );
 				}
 				else
 				{
+					tunnels.add( 0, t );
 					outs.add( 0, inv );
 				}
 			}
 		}
 
-		return this.cachedInv = new WrapperChainedItemHandler( outs.toArray( new IItemHandler[outs.size()] ) );
+		return this.cachedInv = new ItemTunnelDistributor( this, tunnels, outs, AEConfig.instance().getItemTunnelDistribution() );
 	}
 
 	private IItemHandler getOutputInv()
@@ -155,7 +159,7 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 
 		if( this.requested && this.cachedInv != null )
 		{
-			( (WrapperChainedItemHandler) this.cachedInv ).cycleOrder();
+			this.cachedInv.onTick();
 		}
 
 		this.requested = false;
@@ -283,6 +287,24 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 		return this.getDestination().getSlotLimit( slot );
 	}
 
+	void countTransfer( final int items )
+	{
+		this.throughput.add( this.getWorldTime(), items );
+	}
+
+	long getWorldTime()
+	{
+		return this.getTile().getWorld().getTotalWorldTime();
+	}
+
+	/**
+	 * @return the items sent through this input, or received by this output, per second over the last second
+	 */
+	public long getItemsPerSecond()
+	{
+		return this.throughput.getPerSecond( this.getWorldTime() );
+	}
+
 	public float getPowerDrainPerTick()
 	{
 		return POWER_DRAIN;
@@ -0,0 +1,59 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.parts.p2p;
+
+
+/**
+ * Counts moved items and turns them into items per second over windows of one second.
+ */
+public class ThroughputCounter
+{
+
+	private static final int WINDOW = 20;
+
+	private long windowStart;
+	private long windowItems;
+	private long perSecond;
+
+	public void add( final long now, final long items )
+	{
+		this.roll( now );
+		this.windowItems += items;
+	}
+
+	public long getPerSecond( final long now )
+	{
+		this.roll( now );
+		return this.perSecond;
+	}
+
+	private void roll( final long now )
+	{
+		final long elapsed = now - this.windowStart;
+		if( elapsed < WINDOW )
+		{
+			return;
+		}
+
+		// A window without any calls at all means nothing moved during it.
+		this.perSecond = elapsed < 2 * WINDOW ? this.windowItems * 20 / elapsed : 0;
+		this.windowItems = 0;
+		this.windowStart = now;
+	}
+}
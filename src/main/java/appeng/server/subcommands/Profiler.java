@@ -0,0 +1,109 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.server.subcommands;
+
+
+import java.io.File;
+import java.io.IOException;
+
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.TextComponentTranslation;
+import net.minecraftforge.common.DimensionManager;
+
+import appeng.core.AELog;
+import appeng.hooks.TickHandler;
+import appeng.me.profiling.GridProfiler;
+import appeng.server.ISubCommand;
+
+
+/**
+ * Toggles the {@link GridProfiler}, stopping it writes the collected data as CSV into the AE2 folder of the world.
+ *
+ * "/ae2 Profiler export" writes the current data without stopping the profiler, "/ae2 Profiler memory" writes the
+ * estimated memory footprint of every grid.
+ */
+public class Profiler implements ISubCommand
+{
+
+	private static final String PROFILING_DIR_NAME = "AE2/profiling";
+
+	@Override
+	public String getHelp( final MinecraftServer srv )
+	{
+		return "commands.ae2.Profiler";
+	}
+
+	@Override
+	public void call( final MinecraftServer srv, final String[] data, final ICommandSender sender )
+	{
+		if( data.length > 1 && "export".equals( data[1] ) )
+		{
+			this.export( sender );
+		}
+		else if( data.length > 1 && "memory".equals( data[1] ) )
+		{
+			this.exportMemory( sender );
+		}
+		else if( GridProfiler.isEnabled() )
+		{
+			GridProfiler.INSTANCE.stop();
+			sender.sendMessage( new TextComponentTranslation( "commands.ae2.ProfilerOff" ) );
+			this.export( sender );
+		}
+		else
+		{
+			GridProfiler.INSTANCE.start();
+			sender.sendMessage( new TextComponentTranslation( "commands.ae2.ProfilerOn" ) );
+		}
+	}
+
+	private void export( final ICommandSender sender )
+	{
+		try
+		{
+			final File file = GridProfiler.INSTANCE.export( this.getDirectory() );
+			sender.sendMessage( new TextComponentTranslation( "commands.ae2.ProfilerExported", file.getName() ) );
+		}
+		catch( final IOException e )
+		{
+			AELog.debug( e );
+			sender.sendMessage( new TextComponentTranslation( "commands.ae2.ProfilerFailed", e.getMessage() ) );
+		}
+	}
+
+	private void exportMemory( final ICommandSender sender )
+	{
+		try
+		{
+			final File file = GridProfiler.INSTANCE.exportMemory( this.getDirectory(), TickHandler.INSTANCE.getGridList() );
+			sender.sendMessage( new TextComponentTranslation( "commands.ae2.ProfilerExported", file.getName() ) );
+		}
+		catch( final IOException e )
+		{
+			AELog.debug( e );
+			sender.sendMessage( new TextComponentTranslation( "commands.ae2.ProfilerFailed", e.getMessage() ) );
+		}
+	}
+
+	private File getDirectory()
+	{
+		return new File( DimensionManager.getCurrentSaveRootDirectory(), PROFILING_DIR_NAME );
+	}
+}
@@ -48,10 +48,15 @@ import appeng.api.networking.crafting.ICraftingProviderHelper;
 import appeng.api.networking.events.MENetworkChannelsChanged;
 import appeng.api.networking.events.MENetworkEventSubscribe;
 import appeng.api.networking.events.MENetworkPowerStatusChange;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.networking.storage.IStackWatcher;
 import appeng.api.networking.ticking.IGridTickable;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.networking.ticking.TickingRequest;
+import appeng.api.storage.StorageChannel;
 import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IAEStack;
+import appeng.api.storage.data.IItemList;
 import appeng.api.util.AECableType;
 import appeng.api.util.AEPartLocation;
 import appeng.api.util.DimensionalCoord;
@@ -129,6 +134,12 @@ public class TileInterface extends AENetworkInvTile implements IGridTickable, II
 		this.configureNodeSides();
 		this.markForUpdate();
 		this.markDirty();
+		this.duality.targetsChanged();
+	}
+
+	public void onNeighborChange()
+	{
+		this.duality.targetsChanged();
 	}
 
 	private void configureNodeSides()
@@ -322,6 +333,18 @@ public class TileInterface extends AENetworkInvTile implements IGridTickable, II
 		this.duality.jobStateChange( link );
 	}
 
+	@Override
+	public void updateWatcher( final IStackWatcher newWatcher )
+	{
+		this.duality.updateWatcher( newWatcher );
+	}
+
+	@Override
+	public void onStackChange( final IItemList o, final IAEStack fullStack, final IAEStack diffStack, final IActionSource src, final StorageChannel chan )
+	{
+		this.duality.onStackChange( o, fullStack, diffStack, src, chan );
+	}
+
 	@Override
 	public int getPriority()
 	{
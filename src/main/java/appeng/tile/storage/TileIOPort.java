@@ -19,6 +19,7 @@
 package appeng.tile.storage;
 
 
+import java.util.ArrayList;
 import java.util.List;
 
 import net.minecraft.block.Block;
@@ -33,6 +34,7 @@ import appeng.api.AEApi;
 import appeng.api.config.Actionable;
 import appeng.api.config.FullnessMode;
 import appeng.api.config.OperationMode;
+import appeng.api.config.PowerMultiplier;
 import appeng.api.config.RedstoneMode;
 import appeng.api.config.Settings;
 import appeng.api.config.Upgrades;
@@ -56,8 +58,10 @@ import appeng.api.util.AECableType;
 import appeng.api.util.AEPartLocation;
 import appeng.api.util.DimensionalCoord;
 import appeng.api.util.IConfigManager;
+import appeng.core.AEConfig;
 import appeng.core.settings.TickRates;
 import appeng.me.GridAccessException;
+import appeng.me.cache.NetworkMonitor;
 import appeng.me.helpers.MachineSource;
 import appeng.parts.automation.BlockUpgradeInventory;
 import appeng.parts.automation.UpgradeInventory;
@@ -305,7 +309,23 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 						final IMEInventory<IAEItemStack> itemInv = this.getInv( is, StorageChannel.ITEMS );
 						final IMEInventory<IAEFluidStack> fluidInv = this.getInv( is, StorageChannel.FLUIDS );
 
-						if( this.manager.getSetting( Settings.OPERATION_MODE ) == OperationMode.EMPTY )
+						final int bulkLimit = AEConfig.instance().getIoPortBulkItemsPerTick();
+
+						if( this.manager.getSetting( Settings.OPERATION_MODE ) == OperationMode.EMPTY && bulkLimit > 0 )
+						{
+							// Same scaling as the normal mode, the full limit needs all three speed cards.
+							ItemsToMove = Math.max( ItemsToMove, bulkLimit >> ( 3 - this.getInstalledUpgrades( Upgrades.SPEED ) ) );
+
+							if( itemInv != null )
+							{
+								ItemsToMove = this.bulkTransfer( energy, itemInv, itemNet, ItemsToMove, StorageChannel.ITEMS );
+							}
+							if( fluidInv != null )
+							{
+								ItemsToMove = this.bulkTransfer( energy, fluidInv, fluidNet, ItemsToMove, StorageChannel.FLUIDS );
+							}
+						}
+						else if( this.manager.getSetting( Settings.OPERATION_MODE ) == OperationMode.EMPTY )
 						{
 							if( itemInv != null )
 							{
@@ -443,6 +463,95 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 		return itemsToMove;
 	}
 
+	/**
+	 * Empties a cell into the network by looking at its whole content at once, every type gets one simulated insert,
+	 * power is paid in one go and the network hears about all types in one change list.
+	 */
+	private long bulkTransfer( final IEnergySource energy, final IMEInventory src, final IMEInventory destination, final long itemsToMove, final StorageChannel chan )
+	{
+		if( !( destination instanceof NetworkMonitor ) )
+		{
+			return this.transferContents( energy, src, destination, itemsToMove, chan );
+		}
+
+		final IItemList<? extends IAEStack> contents = src.getAvailableItems( chan.createList() );
+		final List<IAEStack> planned = new ArrayList<>();
+		long total = 0;
+
+		for( final IAEStack s : contents )
+		{
+			if( total >= itemsToMove )
+			{
+				break;
+			}
+
+			final long totalStackSize = s.getStackSize();
+			if( totalStackSize <= 0 )
+			{
+				continue;
+			}
+
+			final IAEStack rejected = destination.injectItems( s.copy(), Actionable.SIMULATE, this.mySrc );
+			long possible = rejected == null ? totalStackSize : totalStackSize - rejected.getStackSize();
+			possible = Math.min( possible, itemsToMove - total );
+
+			if( possible > 0 )
+			{
+				final IAEStack p = s.copy();
+				p.setStackSize( possible );
+				planned.add( p );
+				total += possible;
+			}
+		}
+
+		final long affordable = Math.min( total, (long) ( energy.extractAEPower( total, Actionable.SIMULATE, PowerMultiplier.CONFIG ) + 0.9 ) );
+		for( int i = planned.size() - 1; i >= 0 && total > affordable; i-- )
+		{
+			final IAEStack p = planned.get( i );
+			final long cut = Math.min( p.getStackSize(), total - affordable );
+			p.decStackSize( cut );
+			total -= cut;
+		}
+
+		final List<IAEStack> extracted = new ArrayList<>( planned.size() );
+		for( final IAEStack p : planned )
+		{
+			if( p.getStackSize() > 0 )
+			{
+				final IAEStack e = src.extractItems( p, Actionable.MODULATE, this.mySrc );
+				if( e != null && e.getStackSize() > 0 )
+				{
+					extracted.add( e );
+				}
+			}
+		}
+
+		if( extracted.isEmpty() )
+		{
+			return itemsToMove;
+		}
+
+		long moved = 0;
+		for( final IAEStack e : extracted )
+		{
+			moved += e.getStackSize();
+		}
+
+		final List<IAEStack> failed = ( (NetworkMonitor) destination ).injectAll( extracted, this.mySrc );
+		for( final IAEStack f : failed )
+		{
+			if( f != null && f.getStackSize() > 0 )
+			{
+				moved -= f.getStackSize();
+				src.injectItems( f, Actionable.MODULATE, this.mySrc );
+			}
+		}
+
+		energy.extractAEPower( moved, Actionable.MODULATE, PowerMultiplier.CONFIG );
+
+		return itemsToMove - moved;
+	}
+
 	private boolean shouldMove( final IMEInventory<IAEItemStack> itemInv, final IMEInventory<IAEFluidStack> fluidInv )
 	{
 		final FullnessMode fm = (FullnessMode) this.manager.getSetting( Settings.FULLNESS_MODE );
@@ -1211,6 +1211,19 @@ public class Platform
 		return input;
 	}
 
+	/**
+	 * @return a new list holding a copy of every stack, for batch operations which modify their input
+	 */
+	public static <StackType extends IAEStack<StackType>> List<StackType> copyStacks( final List<StackType> stacks )
+	{
+		final List<StackType> out = new ArrayList<>( stacks.size() );
+		for( final StackType s : stacks )
+		{
+			out.add( s.copy() );
+		}
+		return out;
+	}
+
 	public static void postChanges( final IStorageGrid gs, final ItemStack removed, final ItemStack added, final IActionSource src )
 	{
 		final IItemList<IAEItemStack> itemChanges = AEApi.instance().storage().createItemList();
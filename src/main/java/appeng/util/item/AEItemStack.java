@@ -127,6 +127,36 @@ public final class AEItemStack extends AEStack<IAEItemStack> implements IAEItemS
 		return item;
 	}
 
+	/**
+	 * Reads counts written by {@link #writeCountsToPacket(ByteBuf)} onto a copy of a known definition.
+	 *
+	 * @param definition previously received stack, or null if the id is unknown; the counts are consumed either way
+	 *
+	 * @return the copy, or null without a definition
+	 */
+	@Nullable
+	public static IAEItemStack loadCountsFromPacket( @Nullable final IAEItemStack definition, final ByteBuf data )
+	{
+		final byte mask = data.readByte();
+		final byte stackType = (byte) ( ( mask & 0x0C ) >> 2 );
+		final byte countReqType = (byte) ( ( mask & 0x30 ) >> 4 );
+		final boolean isCraftable = ( mask & 0x40 ) > 0;
+
+		final long stackSize = getPacketValue( stackType, data );
+		final long countRequestable = getPacketValue( countReqType, data );
+
+		if( definition == null )
+		{
+			return null;
+		}
+
+		final IAEItemStack item = definition.copy();
+		item.setStackSize( stackSize );
+		item.setCountRequestable( countRequestable );
+		item.setCraftable( isCraftable );
+		return item;
+	}
+
 	@Override
 	public void add( final IAEItemStack option )
 	{
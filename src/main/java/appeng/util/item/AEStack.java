@@ -158,6 +158,20 @@ public abstract class AEStack<StackType extends IAEStack<StackType>> implements
 		this.putPacketValue( i, this.countRequestable );
 	}
 
+	/**
+	 * Writes only the counts of this stack, for a receiver which already knows its definition. Uses the same mask
+	 * layout as {@link #writeToPacket(ByteBuf)} without the tag bit.
+	 */
+	public void writeCountsToPacket( final ByteBuf i )
+	{
+		final byte mask = (byte) ( ( this.getType( this.stackSize ) << 2 ) | ( this.getType( this.countRequestable ) << 4 ) | ( (byte) ( this.isCraftable ? 1 : 0 ) << 6 ) );
+
+		i.writeByte( mask );
+
+		this.putPacketValue( i, this.stackSize );
+		this.putPacketValue( i, this.countRequestable );
+	}
+
 	protected abstract void writeToStream( final ByteBuf data ) throws IOException;
 
 	private byte getType( final long num )
@@ -0,0 +1,122 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.item;
+
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import appeng.api.storage.data.IAEItemStack;
+
+
+/**
+ * Compact ids for the items of one terminal session.
+ *
+ * The server assigns an id the first time an item's full definition is sent, later updates of that item only carry
+ * the id and its counts. The client learns the ids from those definitions. Both sides keep one dictionary per open
+ * terminal and drop it when the terminal closes, so ids never outlive the session.
+ */
+public class ItemKeyDictionary
+{
+
+	private final Map<IAEItemStack, Integer> ids = new HashMap<>();
+	private final List<IAEItemStack> definitions = new ArrayList<>();
+	private final BitSet announced = new BitSet();
+
+	/**
+	 * @return the id assigned to the item, or -1 if it was never sent
+	 */
+	public int getId( final IAEItemStack is )
+	{
+		final Integer id = this.ids.get( is );
+		return id == null ? -1 : id;
+	}
+
+	public int nextId()
+	{
+		return this.ids.size();
+	}
+
+	/**
+	 * Server side, records that the definition of the item was sent under the given id.
+	 */
+	public void assign( final IAEItemStack is, final int id )
+	{
+		this.ids.put( is.copy(), id );
+	}
+
+	/**
+	 * Client side, records a received definition.
+	 */
+	public void define( final int id, final IAEItemStack definition )
+	{
+		while( this.definitions.size() <= id )
+		{
+			this.definitions.add( null );
+		}
+
+		this.definitions.set( id, definition );
+	}
+
+	/**
+	 * Server side, for dictionaries shared by several viewers.
+	 *
+	 * @return true if every current viewer has received the definition of the item
+	 */
+	public boolean isAnnounced( final IAEItemStack is )
+	{
+		final int id = this.getId( is );
+		return id >= 0 && this.announced.get( id );
+	}
+
+	public void announce( final IAEItemStack is )
+	{
+		final int id = this.getId( is );
+		if( id >= 0 )
+		{
+			this.announced.set( id );
+		}
+	}
+
+	/**
+	 * Called when a viewer joins, it only knows the items of its initial sync.
+	 */
+	public void forgetAnnouncements()
+	{
+		this.announced.clear();
+	}
+
+	@Nullable
+	public IAEItemStack getDefinition( final int id )
+	{
+		return id >= 0 && id < this.definitions.size() ? this.definitions.get( id ) : null;
+	}
+
+	public void clear()
+	{
+		this.ids.clear();
+		this.definitions.clear();
+		this.announced.clear();
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.client.me;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import appeng.api.storage.data.IAEItemStack;
+
+
+public class ItemSearchIndexTest
+{
+
+	private final IAEItemStack ironIngot = stack( "ironIngot" );
+	private final IAEItemStack ironBlock = stack( "ironBlock" );
+	private final IAEItemStack goldIngot = stack( "goldIngot" );
+	private final IAEItemStack certus = stack( "certus" );
+
+	@Test
+	public void testCandidatesUseRarestGram()
+	{
+		final ItemSearchIndex index = this.createIndex();
+
+		assertEquals( this.stacks( this.ironIngot, this.ironBlock ), this.candidates( index, "iron", false, false ) );
+		assertEquals( this.stacks( this.ironIngot, this.goldIngot ), this.candidates( index, "ingot", false, false ) );
+		assertEquals( this.stacks( this.ironIngot ), this.candidates( index, "iron ingot", false, false ) );
+		assertEquals( this.stacks(), this.candidates( index, "diamond", false, false ) );
+	}
+
+	@Test
+	public void testShortAndSpecialQueriesTestEverything()
+	{
+		final ItemSearchIndex index = this.createIndex();
+		final Set<IAEItemStack> all = this.stacks( this.ironIngot, this.ironBlock, this.goldIngot, this.certus );
+
+		assertEquals( all, this.candidates( index, "", false, false ) );
+		assertEquals( all, this.candidates( index, "ir", false, false ) );
+		assertEquals( all, this.candidates( index, "iron", true, false ) );
+		assertEquals( all, this.candidates( index, "iron", false, true ) );
+		assertEquals( all, this.candidates( index, "i.on", false, false ) );
+	}
+
+	@Test
+	public void testLongerQueryRefinesRememberedMatches()
+	{
+		final ItemSearchIndex index = this.createIndex();
+		final List<ItemSearchIndex.Entry> matches = new ArrayList<>();
+		matches.add( index.getEntry( this.ironIngot ) );
+		index.remember( "iron i", false, false, matches );
+
+		assertEquals( this.stacks( this.ironIngot ), this.candidates( index, "iron in", false, false ) );
+
+		// the remembered matches are only reused for the same kind of search.
+		assertEquals( this.stacks( this.ironIngot, this.ironBlock, this.goldIngot, this.certus ), this.candidates( index, "iron in", true, false ) );
+	}
+
+	@Test
+	public void testAddForgetsRememberedMatches()
+	{
+		final ItemSearchIndex index = this.createIndex();
+		index.remember( "iron", false, false, new ArrayList<>() );
+
+		final IAEItemStack ironNugget = stack( "ironNugget" );
+		index.add( ironNugget, "Iron Nugget", "minecraft" );
+
+		assertEquals( 5, index.getAdditions() );
+		assertEquals( this.stacks( this.ironIngot, this.ironBlock, ironNugget ), this.candidates( index, "iron", false, false ) );
+	}
+
+	@Test
+	public void testAddIgnoresKnownItems()
+	{
+		final ItemSearchIndex index = this.createIndex();
+		index.add( this.certus, "Something Else", "other" );
+
+		assertEquals( 4, index.getAdditions() );
+		assertEquals( "certus quartz crystal", index.getEntry( this.certus ).getName() );
+	}
+
+	@Test
+	public void testMatches()
+	{
+		final ItemSearchIndex index = this.createIndex();
+
+		assertTrue( index.matches( this.ironIngot, "Iron", false, false ) );
+		assertFalse( index.matches( this.ironBlock, "ingot", false, false ) );
+		assertTrue( index.matches( this.certus, "appliede", true, false ) );
+		assertFalse( index.matches( this.certus, "quartz", true, false ) );
+		assertTrue( index.matches( this.goldIngot, "", false, false ) );
+		assertFalse( index.matches( stack( "unknown" ), "", false, false ) );
+	}
+
+	@Test
+	public void testRegularExpressions()
+	{
+		final ItemSearchIndex index = this.createIndex();
+
+		assertNull( index.getPattern( "iron" ) );
+		assertNotNull( index.getPattern( "^iron" ) );
+		assertTrue( index.matches( this.ironBlock, "^block.*iron$", false, false ) );
+		assertFalse( index.matches( this.goldIngot, "^iron", false, false ) );
+
+		// invalid expressions are searched literally.
+		final Pattern broken = index.getPattern( "ingot(" );
+		assertFalse( broken.matcher( "gold ingot" ).find() );
+		assertTrue( broken.matcher( "gold ingot(" ).find() );
+	}
+
+	private ItemSearchIndex createIndex()
+	{
+		final ItemSearchIndex index = new ItemSearchIndex();
+		index.add( this.ironIngot, "Iron Ingot", "minecraft" );
+		index.add( this.ironBlock, "Block of Iron", "minecraft" );
+		index.add( this.goldIngot, "Gold Ingot", "minecraft" );
+		index.add( this.certus, "Certus Quartz Crystal", "appliedenergistics2" );
+		return index;
+	}
+
+	private Set<IAEItemStack> candidates( final ItemSearchIndex index, final String q, final boolean mod, final boolean tooltips )
+	{
+		final Set<IAEItemStack> out = new HashSet<>();
+		for( final ItemSearchIndex.Entry entry : index.candidates( q, mod, tooltips ) )
+		{
+			out.add( entry.getStack() );
+		}
+		return out;
+	}
+
+	private Set<IAEItemStack> stacks( final IAEItemStack... stacks )
+	{
+		final Set<IAEItemStack> out = new HashSet<>();
+		for( final IAEItemStack is : stacks )
+		{
+			out.add( is );
+		}
+		return out;
+	}
+
+	/**
+	 * The index only uses stacks as keys, so a stand-in compared by identity avoids bootstrapping Minecraft.
+	 */
+	private static IAEItemStack stack( final String name )
+	{
+		return (IAEItemStack) Proxy.newProxyInstance( IAEItemStack.class.getClassLoader(), new Class<?>[] { IAEItemStack.class }, ( proxy, method, args ) ->
+		{
+			switch( method.getName() )
+			{
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode( proxy );
+				case "toString":
+					return name;
+				default:
+					throw new UnsupportedOperationException( method.getName() );
+			}
+		} );
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.client.me;
+
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class OrderStatisticTreeTest
+{
+
+	@Test
+	public void testGetReturnsSortedOrder()
+	{
+		final OrderStatisticTree<Integer> tree = new OrderStatisticTree<>( Comparator.naturalOrder() );
+		tree.insert( 5 );
+		tree.insert( 1 );
+		tree.insert( 3 );
+		tree.insert( 4 );
+		tree.insert( 2 );
+
+		assertEquals( 5, tree.size() );
+		for( int i = 0; i < 5; i++ )
+		{
+			assertEquals( i + 1, (int) tree.get( i ) );
+		}
+	}
+
+	@Test
+	public void testComparatorDecidesOrder()
+	{
+		final OrderStatisticTree<String> tree = new OrderStatisticTree<>( Comparator.comparing( String::length ).thenComparing( Comparator.reverseOrder() ) );
+		tree.insert( "bb" );
+		tree.insert( "a" );
+		tree.insert( "ccc" );
+		tree.insert( "aa" );
+
+		assertEquals( "a", tree.get( 0 ) );
+		assertEquals( "bb", tree.get( 1 ) );
+		assertEquals( "aa", tree.get( 2 ) );
+		assertEquals( "ccc", tree.get( 3 ) );
+	}
+
+	@Test
+	public void testRemove()
+	{
+		final OrderStatisticTree<Integer> tree = new OrderStatisticTree<>( Comparator.naturalOrder() );
+		for( int i = 0; i < 10; i++ )
+		{
+			tree.insert( i );
+		}
+
+		tree.remove( 0 );
+		tree.remove( 5 );
+		tree.remove( 9 );
+
+		// removing a missing element changes nothing.
+		tree.remove( 42 );
+
+		assertEquals( 7, tree.size() );
+		assertEquals( 1, (int) tree.get( 0 ) );
+		assertEquals( 6, (int) tree.get( 4 ) );
+		assertEquals( 8, (int) tree.get( 6 ) );
+	}
+
+	@Test
+	public void testClear()
+	{
+		final OrderStatisticTree<Integer> tree = new OrderStatisticTree<>( Comparator.naturalOrder() );
+		tree.insert( 1 );
+		tree.insert( 2 );
+		tree.clear();
+
+		assertEquals( 0, tree.size() );
+
+		tree.insert( 3 );
+		assertEquals( 1, tree.size() );
+		assertEquals( 3, (int) tree.get( 0 ) );
+	}
+
+	@Test( expected = IndexOutOfBoundsException.class )
+	public void testGetPastEnd()
+	{
+		final OrderStatisticTree<Integer> tree = new OrderStatisticTree<>( Comparator.naturalOrder() );
+		tree.insert( 1 );
+		tree.get( 1 );
+	}
+
+	@Test( expected = IndexOutOfBoundsException.class )
+	public void testGetNegative()
+	{
+		final OrderStatisticTree<Integer> tree = new OrderStatisticTree<>( Comparator.naturalOrder() );
+		tree.insert( 1 );
+		tree.get( -1 );
+	}
+
+	@Test
+	public void testMatchesSortedList()
+	{
+		final Random random = new Random( 42 );
+		final OrderStatisticTree<Integer> tree = new OrderStatisticTree<>( Comparator.naturalOrder() );
+		final List<Integer> expected = new ArrayList<>();
+
+		for( int op = 0; op < 5000; op++ )
+		{
+			if( expected.isEmpty() || random.nextInt( 3 ) > 0 )
+			{
+				// distinct values, the comparator must be a total order over the elements.
+				final int value = random.nextInt( 100000 );
+				final int pos = Collections.binarySearch( expected, value );
+				if( pos < 0 )
+				{
+					expected.add( -pos - 1, value );
+					tree.insert( value );
+				}
+			}
+			else
+			{
+				tree.remove( expected.remove( random.nextInt( expected.size() ) ) );
+			}
+
+			assertEquals( expected.size(), tree.size() );
+		}
+
+		for( int i = 0; i < expected.size(); i++ )
+		{
+			assertEquals( expected.get( i ), tree.get( i ) );
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.core.sync.packets;
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import appeng.api.storage.data.IAEItemStack;
+import appeng.util.item.AEItemStack;
+import appeng.util.item.ItemKeyDictionary;
+
+
+/**
+ * Micro-benchmark for encoding and decoding {@link PacketMEInventoryUpdate} with 10k and 100k distinct items, as a
+ * full sync and as a keyed count update.
+ *
+ * Not a unit test, run the main method manually.
+ */
+public final class PacketMEInventoryUpdateBenchmark
+{
+	private static final int[] SIZES = { 10000, 100000 };
+	private static final int WARMUP = 10;
+	private static final int ROUNDS = 30;
+
+	public static void main( final String[] args ) throws IOException
+	{
+		Bootstrap.register();
+
+		for( final int size : SIZES )
+		{
+			final List<IAEItemStack> items = createItems( size );
+
+			for( int i = 0; i < WARMUP; i++ )
+			{
+				decode( encode( items ) );
+				encodeKeyed( items );
+			}
+
+			long encodeTime = 0;
+			long decodeTime = 0;
+			long keyedTime = 0;
+			int bytes = 0;
+			int keyedBytes = 0;
+
+			for( int i = 0; i < ROUNDS; i++ )
+			{
+				long start = System.nanoTime();
+				final ByteBuf packet = encode( items );
+				encodeTime += System.nanoTime() - start;
+				bytes = packet.readableBytes();
+
+				start = System.nanoTime();
+				decode( packet );
+				decodeTime += System.nanoTime() - start;
+
+				start = System.nanoTime();
+				keyedBytes = encodeKeyed( items );
+				keyedTime += System.nanoTime() - start;
+			}
+
+			System.out.printf( "%d items: encode %.2f ms, decode %.2f ms, %d bytes; keyed sync and update %.2f ms, update %d bytes%n", size, encodeTime / 1e6 / ROUNDS,
+					decodeTime / 1e6 / ROUNDS, bytes, keyedTime / 1e6 / ROUNDS, keyedBytes );
+		}
+	}
+
+	private static List<IAEItemStack> createItems( final int size )
+	{
+		final List<Item> types = new ArrayList<>();
+		for( final Item item : Item.REGISTRY )
+		{
+			// air and friends only make empty stacks
+			if( !new ItemStack( item ).isEmpty() )
+			{
+				types.add( item );
+			}
+		}
+
+		final List<IAEItemStack> items = new ArrayList<>( size );
+		for( int i = 0; items.size() < size; i++ )
+		{
+			final IAEItemStack is = AEItemStack.create( new ItemStack( types.get( i % types.size() ), 1, i / types.size() ) );
+			if( is != null )
+			{
+				is.setStackSize( 1 + ( i * 7919L ) % 100000 );
+				items.add( is );
+			}
+		}
+		return items;
+	}
+
+	private static ByteBuf encode( final List<IAEItemStack> items ) throws IOException
+	{
+		final PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate();
+		for( final IAEItemStack is : items )
+		{
+			piu.appendItem( is );
+		}
+		return piu.finish();
+	}
+
+	private static void decode( final ByteBuf packet ) throws IOException
+	{
+		packet.skipBytes( 4 );
+		new PacketMEInventoryUpdate( packet );
+	}
+
+	/**
+	 * Sends the items once as definitions and then as a keyed count update, only the update is measured in bytes.
+	 */
+	private static int encodeKeyed( final List<IAEItemStack> items ) throws IOException
+	{
+		final ItemKeyDictionary dictionary = new ItemKeyDictionary();
+
+		final PacketMEInventoryUpdate sync = new PacketMEInventoryUpdate( dictionary );
+		for( final IAEItemStack is : items )
+		{
+			sync.appendItem( is, true );
+		}
+		sync.finish();
+
+		final PacketMEInventoryUpdate update = new PacketMEInventoryUpdate( dictionary );
+		for( final IAEItemStack is : items )
+		{
+			update.appendItem( is );
+		}
+		return update.finish().readableBytes();
+	}
+}
@@ -0,0 +1,252 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.energy;
+
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import appeng.api.config.AccessRestriction;
+import appeng.api.config.Actionable;
+import appeng.api.config.PowerMultiplier;
+import appeng.api.networking.energy.IAEPowerStorage;
+
+
+public class EnergyPoolTest
+{
+
+	private static final double DELTA = 0.000001;
+
+	@Test
+	public void testExtractIsLimitedByStored()
+	{
+		final EnergyPool pool = new EnergyPool();
+		pool.add( 50 );
+
+		assertEquals( 50, pool.extract( 80, Actionable.SIMULATE ), DELTA );
+		assertEquals( 50, pool.getStored(), DELTA );
+		assertEquals( 30, pool.extract( 30, Actionable.MODULATE ), DELTA );
+		assertEquals( 20, pool.getStored(), DELTA );
+	}
+
+	@Test
+	public void testInjectRespectsCapacity()
+	{
+		final EnergyPool pool = new EnergyPool();
+		pool.add( 150 );
+
+		assertEquals( 50, pool.inject( 100, 200, Actionable.SIMULATE ), DELTA );
+		assertEquals( 150, pool.getStored(), DELTA );
+		assertEquals( 50, pool.inject( 100, 200, Actionable.MODULATE ), DELTA );
+		assertEquals( 200, pool.getStored(), DELTA );
+		assertEquals( 10, pool.inject( 10, 200, Actionable.MODULATE ), DELTA );
+	}
+
+	@Test
+	public void testSettleRefillsFromProviders()
+	{
+		final EnergyPool pool = new EnergyPool();
+		final Cell a = new Cell( 100, 60 );
+		final Cell b = new Cell( 100, 100 );
+		final Set<IAEPowerStorage> providers = new LinkedHashSet<>();
+		providers.add( a );
+		providers.add( b );
+
+		assertEquals( 120, pool.settle( providers, new LinkedHashSet<>(), 120 ), DELTA );
+		assertEquals( 120, pool.getStored(), DELTA );
+		assertEquals( 0, a.getAECurrentPower(), DELTA );
+		assertEquals( 40, b.getAECurrentPower(), DELTA );
+
+		// exhausted providers are dropped, like during extraction.
+		assertEquals( 1, providers.size() );
+		assertEquals( 0, pool.getViolations() );
+	}
+
+	@Test
+	public void testSettleHandsSurplusToRequesters()
+	{
+		final EnergyPool pool = new EnergyPool();
+		pool.add( 300 );
+
+		final Cell a = new Cell( 50, 0 );
+		final Cell b = new Cell( 100, 0 );
+		final Set<IAEPowerStorage> requesters = new LinkedHashSet<>();
+		requesters.add( a );
+		requesters.add( b );
+
+		assertEquals( -100, pool.settle( new LinkedHashSet<>(), requesters, 200 ), DELTA );
+		assertEquals( 200, pool.getStored(), DELTA );
+		assertEquals( 50, a.getAECurrentPower(), DELTA );
+		assertEquals( 50, b.getAECurrentPower(), DELTA );
+
+		// full requesters are dropped, like during injection.
+		assertEquals( 1, requesters.size() );
+		assertEquals( 0, pool.getViolations() );
+	}
+
+	@Test
+	public void testSettleCountsMisreportingStorages()
+	{
+		final EnergyPool pool = new EnergyPool();
+		final Set<IAEPowerStorage> providers = new LinkedHashSet<>();
+		providers.add( new Cell( 100, 100 )
+		{
+			@Override
+			public double extractAEPower( final double amt, final Actionable mode, final PowerMultiplier usePowerMultiplier )
+			{
+				// reports the full amount but only provides half.
+				super.extractAEPower( amt / 2, mode, usePowerMultiplier );
+				return amt;
+			}
+		} );
+
+		pool.settle( providers, new LinkedHashSet<>(), 50 );
+
+		assertEquals( 1, pool.getViolations() );
+	}
+
+	@Test
+	public void testEnergyIsConserved()
+	{
+		final Random random = new Random( 42 );
+		final EnergyPool pool = new EnergyPool();
+		final List<Cell> cells = new ArrayList<>();
+		final Set<IAEPowerStorage> providers = new LinkedHashSet<>();
+		final Set<IAEPowerStorage> requesters = new LinkedHashSet<>();
+
+		for( int x = 0; x < 16; x++ )
+		{
+			final Cell cell = new Cell( 1000, random.nextInt( 1000 ) );
+			cells.add( cell );
+		}
+
+		double expected = this.total( pool, cells );
+
+		for( int tick = 0; tick < 1000; tick++ )
+		{
+			// storages announce themselves again, like MENetworkPowerStorage does.
+			for( final Cell cell : cells )
+			{
+				if( cell.getAECurrentPower() > 0 )
+				{
+					providers.add( cell );
+				}
+				if( cell.getAECurrentPower() < cell.getAEMaxPower() )
+				{
+					requesters.add( cell );
+				}
+			}
+
+			pool.settle( providers, requesters, 200 + random.nextInt( 400 ) );
+			assertEquals( expected, this.total( pool, cells ), DELTA );
+
+			for( int op = 0; op < 50; op++ )
+			{
+				if( random.nextBoolean() )
+				{
+					expected -= pool.extract( random.nextDouble() * 20, Actionable.MODULATE );
+				}
+				else
+				{
+					final double amt = random.nextDouble() * 20;
+					expected += amt - pool.inject( amt, 200, Actionable.MODULATE );
+				}
+			}
+
+			assertEquals( expected, this.total( pool, cells ), DELTA );
+		}
+
+		assertEquals( 0, pool.getViolations() );
+	}
+
+	private double total( final EnergyPool pool, final List<Cell> cells )
+	{
+		double total = pool.getStored();
+		for( final Cell cell : cells )
+		{
+			total += cell.getAECurrentPower();
+		}
+		return total;
+	}
+
+	private static class Cell implements IAEPowerStorage
+	{
+		private final double max;
+		private double current;
+
+		private Cell( final double max, final double current )
+		{
+			this.max = max;
+			this.current = current;
+		}
+
+		@Override
+		public double extractAEPower( final double amt, final Actionable mode, final PowerMultiplier usePowerMultiplier )
+		{
+			final double extracted = Math.min( amt, this.current );
+			if( mode == Actionable.MODULATE )
+			{
+				this.current -= extracted;
+			}
+			return extracted;
+		}
+
+		@Override
+		public double injectAEPower( final double amt, final Actionable mode )
+		{
+			final double stored = Math.min( amt, this.max - this.current );
+			if( mode == Actionable.MODULATE )
+			{
+				this.current += stored;
+			}
+			return amt - stored;
+		}
+
+		@Override
+		public double getAEMaxPower()
+		{
+			return this.max;
+		}
+
+		@Override
+		public double getAECurrentPower()
+		{
+			return this.current;
+		}
+
+		@Override
+		public boolean isAEPublicPowerStorage()
+		{
+			return true;
+		}
+
+		@Override
+		public AccessRestriction getPowerFlow()
+		{
+			return AccessRestriction.READ_WRITE;
+		}
+	}
+}
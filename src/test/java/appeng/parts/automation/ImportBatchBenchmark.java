@@ -0,0 +1,169 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.parts.automation;
+
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemStackHandler;
+
+import appeng.api.config.Actionable;
+import appeng.api.config.PowerMultiplier;
+import appeng.api.networking.energy.IEnergySource;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.storage.IMEInventory;
+import appeng.api.storage.StorageChannel;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.util.inv.AdaptorItemHandler;
+import appeng.util.item.AEItemStack;
+
+
+/**
+ * Micro-benchmark comparing the old import bus loop, one simulate/extract/insert round per stack through
+ * {@link AdaptorItemHandler}, with {@link ImportBatch} on a large inventory whose items sit in the last slots.
+ *
+ * Not a unit test, run the main method manually.
+ */
+public final class ImportBatchBenchmark
+{
+	private static final int SLOTS = 4096;
+	private static final int FILLED = 64;
+	private static final int ITEMS_PER_TICK = 96;
+	private static final int WARMUP = 20000;
+	private static final int ROUNDS = 100000;
+
+	public static void main( final String[] args )
+	{
+		Bootstrap.register();
+
+		final ItemStackHandler handler = new ItemStackHandler( SLOTS );
+		final AcceptAll destination = new AcceptAll();
+		final IEnergySource energy = ( amt, mode, multiplier ) -> amt;
+
+		run( handler, () -> legacyTick( handler, destination, energy ), WARMUP );
+		run( handler, batchTick( handler, destination, energy ), WARMUP );
+
+		final long legacy = run( handler, () -> legacyTick( handler, destination, energy ), ROUNDS );
+		final long batch = run( handler, batchTick( handler, destination, energy ), ROUNDS );
+
+		System.out.printf( "legacy: %.1f us/tick, batch: %.1f us/tick, imported %d items%n", legacy / 1000.0 / ROUNDS, batch / 1000.0 / ROUNDS,
+				destination.received );
+	}
+
+	private static long run( final ItemStackHandler handler, final Runnable tick, final int rounds )
+	{
+		long time = 0;
+		for( int i = 0; i < rounds; i++ )
+		{
+			refill( handler );
+
+			final long start = System.nanoTime();
+			tick.run();
+			time += System.nanoTime() - start;
+		}
+		return time;
+	}
+
+	private static void refill( final ItemStackHandler handler )
+	{
+		for( int slot = SLOTS - FILLED; slot < SLOTS; slot++ )
+		{
+			if( handler.getStackInSlot( slot ).getCount() < 64 )
+			{
+				handler.setStackInSlot( slot, new ItemStack( Items.IRON_INGOT, 64 ) );
+			}
+		}
+	}
+
+	private static Runnable batchTick( final IItemHandler handler, final IMEInventory<IAEItemStack> destination, final IEnergySource energy )
+	{
+		final ImportBatch batch = new ImportBatch();
+		return () ->
+		{
+			if( batch.gather( handler, ItemStack.EMPTY, null, ITEMS_PER_TICK, destination, null ) > 0 )
+			{
+				batch.transfer( handler, destination, energy, null );
+			}
+		};
+	}
+
+	private static void legacyTick( final IItemHandler handler, final IMEInventory<IAEItemStack> destination, final IEnergySource energy )
+	{
+		final AdaptorItemHandler adaptor = new AdaptorItemHandler( handler );
+		int toSend = ITEMS_PER_TICK;
+
+		while( toSend > 0 )
+		{
+			final ItemStack sim = adaptor.simulateRemove( Math.min( toSend, 64 ), ItemStack.EMPTY,
+					is -> destination.injectItems( AEItemStack.create( is ), Actionable.SIMULATE, null ) == null );
+			destination.injectItems( AEItemStack.create( sim ), Actionable.SIMULATE, null );
+
+			final ItemStack removed = adaptor.removeItems( sim.getCount(), ItemStack.EMPTY,
+					is -> destination.injectItems( AEItemStack.create( is ), Actionable.SIMULATE, null ) == null );
+			if( removed.isEmpty() )
+			{
+				return;
+			}
+
+			energy.extractAEPower( removed.getCount(), Actionable.SIMULATE, PowerMultiplier.CONFIG );
+			final IAEItemStack input = AEItemStack.create( removed );
+			destination.injectItems( input.copy(), Actionable.SIMULATE, null );
+			energy.extractAEPower( removed.getCount(), Actionable.MODULATE, PowerMultiplier.CONFIG );
+			destination.injectItems( input, Actionable.MODULATE, null );
+
+			toSend -= removed.getCount();
+		}
+	}
+
+	private static final class AcceptAll implements IMEInventory<IAEItemStack>
+	{
+		private long received;
+
+		@Override
+		public IAEItemStack injectItems( final IAEItemStack input, final Actionable type, final IActionSource src )
+		{
+			if( type == Actionable.MODULATE )
+			{
+				this.received += input.getStackSize();
+			}
+			return null;
+		}
+
+		@Override
+		public IAEItemStack extractItems( final IAEItemStack request, final Actionable mode, final IActionSource src )
+		{
+			return null;
+		}
+
+		@Override
+		public IItemList<IAEItemStack> getAvailableItems( final IItemList<IAEItemStack> out )
+		{
+			return out;
+		}
+
+		@Override
+		public StorageChannel getChannel()
+		{
+			return StorageChannel.ITEMS;
+		}
+	}
+}